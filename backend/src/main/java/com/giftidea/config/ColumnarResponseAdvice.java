@@ -0,0 +1,87 @@
+package com.giftidea.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.ColumnarDTO;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column layout for list responses, requested with a layout=columnar parameter on the Accept
+ * media type (e.g. application/cbor;layout=columnar). A list of objects becomes a ColumnarDTO,
+ * so field names are sent once instead of once per element; this works for the JSON, CBOR and
+ * Smile encodings and applies to the top-level list, either bare or as ApiResponse data.
+ */
+@RestControllerAdvice(basePackages = "com.giftidea.controller")
+public class ColumnarResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String LAYOUT_PARAMETER = "layout";
+    public static final String COLUMNAR = "columnar";
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarResponseAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!COLUMNAR.equalsIgnoreCase(selectedContentType.getParameter(LAYOUT_PARAMETER))) {
+            return body;
+        }
+        if (body instanceof ApiResponse<?> apiResponse && apiResponse.getData() instanceof Collection<?> items) {
+            return new ApiResponse<>(apiResponse.getResult(), apiResponse.getMessage(), toColumns(items));
+        }
+        if (body instanceof Collection<?> items) {
+            return toColumns(items);
+        }
+        return body;
+    }
+
+    // Lists of scalars are left as they are; objects missing a column get null in that position
+    private Object toColumns(Collection<?> items) {
+        JsonNode tree = objectMapper.valueToTree(items);
+        Map<String, Integer> columns = new LinkedHashMap<>();
+        for (JsonNode element : tree) {
+            if (!element.isObject()) {
+                return items;
+            }
+            for (Iterator<String> names = element.fieldNames(); names.hasNext(); ) {
+                columns.putIfAbsent(names.next(), columns.size());
+            }
+        }
+
+        List<List<Object>> rows = new ArrayList<>(tree.size());
+        for (JsonNode element : tree) {
+            Object[] row = new Object[columns.size()];
+            for (Iterator<Map.Entry<String, JsonNode>> fields = element.fields(); fields.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                row[columns.get(field.getKey())] = field.getValue();
+            }
+            rows.add(Arrays.asList(row));
+        }
+        return new ColumnarDTO(new ArrayList<>(columns.keySet()), rows);
+    }
+}
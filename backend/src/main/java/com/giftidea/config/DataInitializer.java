@@ -3,6 +3,7 @@ package com.giftidea.config;
 import com.giftidea.model.Gift;
 import com.giftidea.repository.GiftRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -15,9 +16,13 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private GiftRepository giftRepository;
 
+    // Off for instances that join an already populated database, which saves a query per boot
+    @Value("${app.data-init.enabled:true}")
+    private boolean enabled;
+
     @Override
     public void run(String... args) {
-        if (giftRepository.count() == 0) {
+        if (enabled && giftRepository.count() == 0) {
             initGifts();
         }
     }
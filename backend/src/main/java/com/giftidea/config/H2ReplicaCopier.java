@@ -0,0 +1,116 @@
+package com.giftidea.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Stand-in for replication in the local replica profile, where the primary and the replica are
+ * two separate H2 databases and H2 replicates nothing. Every copy-interval-ms the replica is
+ * refreshed from the primary, each table in its own transaction, so replica readers see the
+ * previous copy until the new one commits: reads there are really stale by up to one interval,
+ * and the heartbeat row travels like any other row, so the lag monitor measures that staleness.
+ * Copies whole tables; meant for local testing of the routing only.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replica.copy-interval-ms")
+public class H2ReplicaCopier {
+
+    private static final Logger log = LoggerFactory.getLogger(H2ReplicaCopier.class);
+
+    private static final String TABLES_SQL = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES "
+            + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate primary;
+    // A plain connection: the replica pool's connections are read-only
+    private final DataSource replica;
+
+    // Tables the replica schema was last created for; guarded by the scheduler's single thread
+    private List<String> tables = List.of();
+
+    public H2ReplicaCopier(@Qualifier("primaryDataSource") DataSource primary,
+                           @Value("${datasource.replica.url}") String url,
+                           @Value("${datasource.replica.username:${spring.datasource.username:}}") String username,
+                           @Value("${datasource.replica.password:${spring.datasource.password:}}") String password) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new DriverManagerDataSource(url, username, password);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.copy-interval-ms}")
+    public void copy() {
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            List<String> current = primary.queryForList(TABLES_SQL, String.class);
+            if (!current.equals(tables)) {
+                recreateSchema(statement);
+                tables = current;
+            }
+            // Tables are copied one at a time, so parents and children can be briefly out of step
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            connection.setAutoCommit(false);
+            for (String table : tables) {
+                copyTable(table, connection, statement);
+                connection.commit();
+            }
+        } catch (SQLException | DataAccessException e) {
+            log.warn("Replica copy failed, recreating the replica schema next time: {}", e.getMessage());
+            tables = List.of();
+        }
+    }
+
+    private void recreateSchema(Statement statement) throws SQLException {
+        statement.execute("DROP ALL OBJECTS");
+        for (String sql : primary.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class)) {
+            if (!sql.startsWith("--")) {
+                statement.execute(sql);
+            }
+        }
+        log.info("Replica schema recreated from the primary");
+    }
+
+    private void copyTable(String table, Connection connection, Statement statement) throws SQLException {
+        String name = '"' + table + '"';
+        statement.executeUpdate("DELETE FROM " + name);
+        primary.query("SELECT * FROM " + name, rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columns = metaData.getColumnCount();
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(name).append(" (");
+            for (int i = 1; i <= columns; i++) {
+                sql.append(i > 1 ? ", " : "").append('"').append(metaData.getColumnName(i)).append('"');
+            }
+            sql.append(") VALUES (").append("?, ".repeat(columns - 1)).append("?)");
+            try (PreparedStatement insert = connection.prepareStatement(sql.toString())) {
+                int pending = 0;
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rs.getObject(i));
+                    }
+                    insert.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+}
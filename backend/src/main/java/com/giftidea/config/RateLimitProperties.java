@@ -0,0 +1,36 @@
+package com.giftidea.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route groups for RateLimitFilter. Groups are matched in order, the first matching pattern wins.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    private int maxKeys = 100_000;
+
+    // Only enable behind a proxy that overwrites the header
+    private boolean trustForwardedFor = false;
+
+    private List<Group> groups = new ArrayList<>();
+
+    @Data
+    public static class Group {
+        private String name;
+        private List<String> patterns = new ArrayList<>();
+        private int ipCapacity = 100;
+        private double ipRefillPerSecond = 20;
+        private int userCapacity = 100;
+        private double userRefillPerSecond = 20;
+    }
+}
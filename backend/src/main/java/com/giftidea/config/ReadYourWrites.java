@@ -0,0 +1,34 @@
+package com.giftidea.config;
+
+/**
+ * Per-thread pin to the primary database after a write, so a request never reads its own
+ * changes back from a replica that has not caught up yet. Request threads are unpinned by
+ * ReadYourWritesFilter when the request ends; other threads stay pinned for pinMillis.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> pinnedUntil = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pin(long pinMillis) {
+        pinnedUntil.set(System.currentTimeMillis() + pinMillis);
+    }
+
+    public static boolean isPinned() {
+        Long until = pinnedUntil.get();
+        if (until == null) {
+            return false;
+        }
+        if (until < System.currentTimeMillis()) {
+            pinnedUntil.remove();
+            return false;
+        }
+        return true;
+    }
+
+    public static void clear() {
+        pinnedUntil.remove();
+    }
+}
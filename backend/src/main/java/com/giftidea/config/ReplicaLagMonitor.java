@@ -0,0 +1,78 @@
+package com.giftidea.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps it on a schedule and the lag is
+ * how old the stamp looks on the replica. The replica is usable while the lag stays within
+ * maxLagMillis and it answers at all.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis = Long.MAX_VALUE;
+    private volatile boolean replicaUsable;
+    private boolean tableCreated;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, long maxLagMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        try {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            if (!tableCreated) {
+                primary.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP NOT NULL)");
+                tableCreated = true;
+            }
+            if (primary.update("UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+        measure();
+    }
+
+    private void measure() {
+        long lag;
+        try {
+            Timestamp beatAt = replica.query("SELECT beat_at FROM replica_heartbeat WHERE id = ?",
+                    rs -> rs.next() ? rs.getTimestamp(1) : null, HEARTBEAT_ID);
+            lag = beatAt == null ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - beatAt.getTime());
+        } catch (DataAccessException e) {
+            lag = Long.MAX_VALUE;
+        }
+        boolean usable = lag <= maxLagMillis;
+        if (usable != replicaUsable) {
+            log.info("Read replica {} (lag {} ms)", usable ? "in use" : "bypassed",
+                    lag == Long.MAX_VALUE ? "unknown" : lag);
+        }
+        lagMillis = lag;
+        replicaUsable = usable;
+    }
+}
@@ -0,0 +1,61 @@
+package com.giftidea.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Picks the physical database per connection. Read-only transactions go to the replica unless
+ * this thread has written recently or the replica lags too far behind; everything else goes to
+ * the primary. A read-write transaction pins the thread's following reads to the primary once it
+ * commits. Connections outside a transaction do not pin: the only writes made without one are
+ * the activity log's batches, which no request reads back.
+ * Must sit behind a lazy connection proxy, since the read-only flag is only known once the
+ * transaction has started.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final long pinMillis;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    long pinMillis, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.pinMillis = pinMillis;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryReads = Counter.builder("datasource.read_routing").tag("target", "primary").register(meterRegistry);
+        this.replicaReads = Counter.builder("datasource.read_routing").tag("target", "replica").register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ReadYourWrites.pin(pinMillis);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (ReadYourWrites.isPinned() || !lagMonitor.isReplicaUsable()) {
+            primaryReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+}
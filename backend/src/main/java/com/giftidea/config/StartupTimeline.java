@@ -0,0 +1,82 @@
+package com.giftidea.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Startup phases in seconds since JVM start: context refreshed, runners started and finished,
+ * warm-up, and the switch to accepting traffic. Each phase is a startup.phase gauge, and the
+ * whole timeline is logged once the instance is ready.
+ */
+@Component
+public class StartupTimeline {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimeline.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long jvmStartedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final Map<String, Double> phases = new LinkedHashMap<>();
+
+    public StartupTimeline(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records a phase as reached now; only the first mark of a phase counts.
+     */
+    public synchronized void mark(String phase) {
+        if (phases.containsKey(phase)) {
+            return;
+        }
+        double seconds = (System.currentTimeMillis() - jvmStartedAt) / 1000.0;
+        phases.put(phase, seconds);
+        Gauge.builder("startup.phase", () -> seconds).tag("phase", phase).baseUnit("seconds").register(meterRegistry);
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void onContextRefreshed() {
+        mark("context-refreshed");
+    }
+
+    // Published before the runners (DataInitializer) are called
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted() {
+        mark("started");
+    }
+
+    // Runs first among the ready listeners, so it marks the end of the runners
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReady() {
+        mark("runners-done");
+    }
+
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        mark("accepting-traffic");
+        synchronized (this) {
+            log.info("Startup timeline (s since JVM start): {}", phases.entrySet().stream()
+                    .map(phase -> String.format("%s %.2f", phase.getKey(), phase.getValue()))
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.giftidea.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.model.Gift;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.security.JwtUtils;
+import com.giftidea.service.AutocompleteService;
+import com.giftidea.service.GiftService;
+import com.giftidea.service.PriceHistogramService;
+import com.giftidea.service.ProductService;
+import com.giftidea.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms a new instance before it reports ready. Several threads repeatedly run the reads behind
+ * the hot endpoints (gift list, by id, by category, search, field projection, products, price
+ * histogram, suggestions), serialize the results as ApiResponse bodies with the application's
+ * ObjectMapper, and issue and parse a JWT. This gets Hibernate, the serializers, the JWT parser and
+ * the pool connections initialized and the hot code compiled before real traffic arrives.
+ *
+ * It runs as the last ApplicationReadyEvent listener. Spring Boot switches readiness to
+ * ACCEPTING_TRAFFIC only after those listeners return, so a load balancer that polls
+ * /actuator/health/readiness keeps traffic away until the warm-up ends. It calls services
+ * rather than HTTP, because the JWT filter needs a real user and the controllers would log
+ * warm-up reads as user activity.
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final UserDetails WARMUP_USER = User.withUsername("warmup").password("").authorities(List.of()).build();
+
+    private final GiftRepository giftRepository;
+    private final GiftService giftService;
+    private final ProductService productService;
+    private final PriceHistogramService priceHistogramService;
+    private final AutocompleteService autocompleteService;
+    private final JwtUtils jwtUtils;
+    private final TokenRevocationService revocationService;
+    private final ObjectMapper objectMapper;
+    private final StartupTimeline timeline;
+    private final boolean enabled;
+    private final int iterations;
+    private final int threads;
+    private final long maxDurationMs;
+
+    public StartupWarmup(GiftRepository giftRepository, GiftService giftService, ProductService productService,
+                         PriceHistogramService priceHistogramService, AutocompleteService autocompleteService,
+                         JwtUtils jwtUtils, TokenRevocationService revocationService, ObjectMapper objectMapper,
+                         StartupTimeline timeline,
+                         @Value("${warmup.enabled:false}") boolean enabled,
+                         @Value("${warmup.iterations:200}") int iterations,
+                         @Value("${warmup.threads:4}") int threads,
+                         @Value("${warmup.max-duration-ms:20000}") long maxDurationMs) {
+        this.giftRepository = giftRepository;
+        this.giftService = giftService;
+        this.productService = productService;
+        this.priceHistogramService = priceHistogramService;
+        this.autocompleteService = autocompleteService;
+        this.jwtUtils = jwtUtils;
+        this.revocationService = revocationService;
+        this.objectMapper = objectMapper;
+        this.timeline = timeline;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.threads = Math.max(1, threads);
+        this.maxDurationMs = maxDurationMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        timeline.mark("warmup-started");
+        long started = System.currentTimeMillis();
+        long deadline = started + maxDurationMs;
+        List<Callable<Object>> calls = calls();
+        AtomicLong completed = new AtomicLong();
+        AtomicInteger failed = new AtomicInteger();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "warmup-" + threadNumber.incrementAndGet()));
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    for (int round = 0; round < iterations && System.currentTimeMillis() < deadline; round++) {
+                        for (Callable<Object> call : calls) {
+                            try {
+                                Object body = call.call();
+                                if (body != null) {
+                                    objectMapper.writeValueAsBytes(body);
+                                }
+                                completed.incrementAndGet();
+                            } catch (Exception e) {
+                                if (failed.getAndIncrement() == 0) {
+                                    log.warn("Warm-up call failed: {}", e.toString());
+                                }
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    log.warn("Warm-up thread failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        timeline.mark("warmed");
+        log.info("Warm-up done: {} calls ({} failed) on {} threads in {} ms", completed.get(), failed.get(), threads,
+                System.currentTimeMillis() - started);
+    }
+
+    // Arguments come from the first gift, so lookups hit real rows
+    private List<Callable<Object>> calls() {
+        List<Gift> first = giftRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1)).getContent();
+        Gift sample = first.isEmpty() ? null : first.get(0);
+        long id = sample == null ? 1L : sample.getId();
+        String category = sample == null || sample.getCategory() == null ? "" : sample.getCategory();
+        String name = sample == null || sample.getName() == null ? "" : sample.getName();
+        String keyword = name.length() > 4 ? name.substring(0, 4) : name;
+        String prefix = name.length() > 2 ? name.substring(0, 2) : name;
+
+        List<Callable<Object>> calls = new ArrayList<>();
+        calls.add(() -> ApiResponse.success(giftService.getAllGifts()));
+        calls.add(() -> ApiResponse.success(giftService.findGiftById(id).orElse(null)));
+        calls.add(() -> ApiResponse.success(giftService.getGiftsByCategory(category)));
+        calls.add(() -> ApiResponse.success(giftService.searchGiftsByName(keyword)));
+        calls.add(() -> ApiResponse.success(giftService.getAllGifts(List.of("id", "name", "price"))));
+        calls.add(productService::getAllProducts);
+        calls.add(() -> ApiResponse.success(priceHistogramService.getHistogram(PriceHistogramService.Source.ALL, null)));
+        calls.add(() -> ApiResponse.success(autocompleteService.suggest(prefix, 10)));
+        calls.add(() -> {
+            Claims claims = jwtUtils.parseToken(jwtUtils.generateToken(WARMUP_USER));
+            revocationService.isRevoked(claims.getSubject(), claims.getId(), new Date(jwtUtils.getIssuedAtMillis(claims)),
+                    claims.getExpiration());
+            return null;
+        });
+        return calls;
+    }
+}
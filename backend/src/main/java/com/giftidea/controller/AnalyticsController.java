@@ -0,0 +1,37 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.CatalogStatsDTO;
+import com.giftidea.service.CatalogSnapshotService;
+import com.giftidea.service.PriceHistogramService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @GetMapping("/catalog")
+    public ResponseEntity<ApiResponse<CatalogStatsDTO>> getCatalogStats(
+            @RequestParam(defaultValue = "ALL") PriceHistogramService.Source source,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String keyword) {
+        try {
+            CatalogStatsDTO stats = catalogSnapshotService.getStats(source, category, minPrice, maxPrice, keyword);
+            return new ResponseEntity<>(ApiResponse.success(stats), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
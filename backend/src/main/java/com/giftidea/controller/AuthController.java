@@ -9,8 +9,11 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -52,4 +55,30 @@ public class AuthController {
             );
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", "Требуется токен", null), HttpStatus.UNAUTHORIZED);
+        }
+        try {
+            authService.logout(authorization.substring(7));
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Выход выполнен", null), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Отзывает все выданные пользователю токены, включая текущий
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Void>> logoutAll(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", "Требуется токен", null), HttpStatus.UNAUTHORIZED);
+        }
+        authService.logoutAll(authentication.getName());
+        return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Выход выполнен на всех устройствах", null),
+                HttpStatus.OK);
+    }
+}
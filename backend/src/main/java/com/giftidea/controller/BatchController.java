@@ -0,0 +1,34 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.BatchRequestDTO;
+import com.giftidea.dto.BatchResultDTO;
+import com.giftidea.service.BatchService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    @Autowired
+    private BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<List<BatchResultDTO>>> execute(@RequestBody List<BatchRequestDTO> requests,
+                                                                     HttpServletRequest request) {
+        try {
+            List<BatchResultDTO> results = batchService.execute(requests, request);
+            return new ResponseEntity<>(ApiResponse.success(results), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
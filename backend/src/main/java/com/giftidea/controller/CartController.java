@@ -1,12 +1,17 @@
 package com.giftidea.controller;
 
+import com.giftidea.dto.ReservationDTO;
+import com.giftidea.model.ActivityEvent;
 import com.giftidea.model.CartItem;
+import com.giftidea.service.ActivityService;
 import com.giftidea.service.CartService;
+import com.giftidea.service.CheckoutService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 
@@ -16,14 +21,26 @@ import java.util.Map;
 public class CartController {
 
     private final CartService cartService;
+    private final CheckoutService checkoutService;
+    private final ActivityService activityService;
 
     @Autowired
-    public CartController(CartService cartService) {
+    public CartController(CartService cartService, CheckoutService checkoutService, ActivityService activityService) {
         this.cartService = cartService;
+        this.checkoutService = checkoutService;
+        this.activityService = activityService;
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<List<CartItem>> getCartItems(@PathVariable String userId) {
+    public ResponseEntity<?> getCartItems(@PathVariable String userId,
+                                          @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            try {
+                return new ResponseEntity<>(cartService.getCartItemsForUser(userId, fields), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+            }
+        }
         return new ResponseEntity<>(cartService.getCartItemsForUser(userId), HttpStatus.OK);
     }
 
@@ -37,6 +54,7 @@ public class CartController {
             Integer quantity = Integer.parseInt(payload.get("quantity").toString());
             
             CartItem cartItem = cartService.addToCart(userId, productId, quantity);
+            activityService.record(ActivityEvent.Type.CART_ADD, userId, productId, quantity, null);
             return new ResponseEntity<>(cartItem, HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -48,11 +66,14 @@ public class CartController {
     @PutMapping("/item/{cartItemId}")
     public ResponseEntity<?> updateCartItemQuantity(
             @PathVariable Long cartItemId,
-            @RequestBody Map<String, Object> payload) {
+            @RequestBody Map<String, Object> payload,
+            Principal principal) {
         
         try {
             Integer quantity = Integer.parseInt(payload.get("quantity").toString());
-            cartService.updateCartItemQuantity(cartItemId, quantity);
+            CartItem cartItem = cartService.updateCartItemQuantity(cartItemId, quantity);
+            activityService.record(ActivityEvent.Type.CART_UPDATE, userName(principal),
+                    cartItem.getProduct().getId(), quantity, null);
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
@@ -62,9 +83,10 @@ public class CartController {
     }
 
     @DeleteMapping("/item/{cartItemId}")
-    public ResponseEntity<?> removeFromCart(@PathVariable Long cartItemId) {
+    public ResponseEntity<?> removeFromCart(@PathVariable Long cartItemId, Principal principal) {
         try {
-            cartService.removeFromCart(cartItemId);
+            cartService.removeFromCart(cartItemId).ifPresent(cartItem -> activityService.record(
+                    ActivityEvent.Type.CART_REMOVE, userName(principal), cartItem.getProduct().getId(), 0, null));
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } catch (Exception e) {
             return new ResponseEntity<>("An error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -75,9 +97,65 @@ public class CartController {
     public ResponseEntity<?> clearCart(@PathVariable String userId) {
         try {
             cartService.clearCart(userId);
+            activityService.record(ActivityEvent.Type.CART_CLEAR, userId, 0, 0, null);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         } catch (Exception e) {
             return new ResponseEntity<>("An error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/{userId}/checkout")
+    public ResponseEntity<?> checkout(@PathVariable String userId) {
+        try {
+            ReservationDTO reservation = checkoutService.checkout(userId);
+            return new ResponseEntity<>(reservation, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>("An error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    public ResponseEntity<?> getReservation(@PathVariable Long reservationId) {
+        try {
+            return new ResponseEntity<>(checkoutService.getReservation(reservationId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>("An error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public ResponseEntity<?> confirmReservation(@PathVariable Long reservationId) {
+        try {
+            return new ResponseEntity<>(checkoutService.confirm(reservationId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>("An error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<?> cancelReservation(@PathVariable Long reservationId) {
+        try {
+            return new ResponseEntity<>(checkoutService.cancel(reservationId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>("An error occurred: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static String userName(Principal principal) {
+        return principal == null ? null : principal.getName();
+    }
+}
@@ -0,0 +1,75 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.GiftCollectionDTO;
+import com.giftidea.dto.GiftDTO;
+import com.giftidea.service.GiftCollectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/collections")
+public class GiftCollectionController {
+
+    @Autowired
+    private GiftCollectionService collectionService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<GiftCollectionDTO>>> getAllCollections() {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(collectionService.getAllCollections()), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<GiftCollectionDTO>> getCollection(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(collectionService.getCollection(id)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/gifts")
+    public ResponseEntity<ApiResponse<List<GiftDTO>>> getCollectionGifts(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(collectionService.getCollectionGifts(id)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<GiftCollectionDTO>> createCollection(@RequestBody GiftCollectionDTO collectionDTO) {
+        try {
+            GiftCollectionDTO created = collectionService.createCollection(collectionDTO);
+            return new ResponseEntity<>(ApiResponse.success("Collection created successfully", created), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteCollection(@PathVariable Long id) {
+        try {
+            collectionService.deleteCollection(id);
+            return new ResponseEntity<>(ApiResponse.success("Collection deleted successfully", null), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -1,39 +1,93 @@
 package com.giftidea.controller;
 
 import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.BulkUpdateDTO;
+import com.giftidea.dto.BulkUpdateResultDTO;
+import com.giftidea.dto.CatalogChangesDTO;
 import com.giftidea.dto.GiftDTO;
+import com.giftidea.dto.PriceHistogramDTO;
+import com.giftidea.dto.SuggestionDTO;
+import com.giftidea.model.ActivityEvent;
+import com.giftidea.service.ActivityService;
+import com.giftidea.service.AutocompleteService;
+import com.giftidea.service.CatalogBulkService;
+import com.giftidea.service.CatalogChangeFeedService;
 import com.giftidea.service.GiftService;
+import com.giftidea.service.PriceHistogramService;
+import com.giftidea.service.SimilarityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.security.Principal;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/gifts")
 public class GiftController {
 
+    // Shared by every miss: existence-filter hits must not allocate a response each
+    private static final ResponseEntity<ApiResponse<GiftDTO>> GIFT_NOT_FOUND =
+            new ResponseEntity<>(ApiResponse.error("Gift not found"), HttpStatus.NOT_FOUND);
+
     @Autowired
     private GiftService giftService;
 
+    @Autowired
+    private SimilarityService similarityService;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private PriceHistogramService priceHistogramService;
+
+    @Autowired
+    private CatalogChangeFeedService changeFeedService;
+
+    @Autowired
+    private CatalogBulkService bulkService;
+
+    @Autowired
+    private ActivityService activityService;
+
     @GetMapping
-    public ResponseEntity<ApiResponse<List<GiftDTO>>> getAllGifts() {
+    public ResponseEntity<ApiResponse<List<?>>> getAllGifts(@RequestParam(required = false) List<String> fields) {
         try {
-            List<GiftDTO> gifts = giftService.getAllGifts();
+            List<?> gifts = fields == null ? giftService.getAllGifts() : giftService.getAllGifts(fields);
             return new ResponseEntity<>(ApiResponse.success(gifts), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<GiftDTO>> getGiftById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<GiftDTO>> getGiftById(@PathVariable Long id, Principal principal) {
         try {
-            GiftDTO gift = giftService.getGiftById(id);
-            return new ResponseEntity<>(ApiResponse.success(gift), HttpStatus.OK);
-        } catch (IllegalArgumentException e) {
-            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+            return giftService.findGiftById(id)
+                    .map(gift -> {
+                        activityService.record(ActivityEvent.Type.GIFT_VIEW, userName(principal), id, 1, null);
+                        return new ResponseEntity<>(ApiResponse.success(gift), HttpStatus.OK);
+                    })
+                    .orElse(GIFT_NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<ApiResponse<List<GiftDTO>>> getSimilarGifts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<GiftDTO> gifts = similarityService.findSimilarGifts(id, limit);
+            return new ResponseEntity<>(ApiResponse.success(gifts), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -76,45 +130,94 @@ public class GiftController {
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<ApiResponse<List<GiftDTO>>> getGiftsByCategory(@PathVariable String category) {
+    public ResponseEntity<ApiResponse<List<?>>> getGiftsByCategory(@PathVariable String category, @RequestParam(required = false) List<String> fields) {
         try {
-            List<GiftDTO> gifts = giftService.getGiftsByCategory(category);
+            List<?> gifts = fields == null ? giftService.getGiftsByCategory(category) : giftService.getGiftsByCategory(category, fields);
             return new ResponseEntity<>(ApiResponse.success(gifts), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/favorites")
-    public ResponseEntity<ApiResponse<List<GiftDTO>>> getFavoriteGifts() {
+    public ResponseEntity<ApiResponse<List<?>>> getFavoriteGifts(@RequestParam(required = false) List<String> fields) {
         try {
-            List<GiftDTO> gifts = giftService.getFavoriteGifts();
+            List<?> gifts = fields == null ? giftService.getFavoriteGifts() : giftService.getFavoriteGifts(fields);
             return new ResponseEntity<>(ApiResponse.success(gifts), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<GiftDTO>>> searchGiftsByName(@RequestParam String keyword) {
+    public ResponseEntity<ApiResponse<List<?>>> searchGiftsByName(@RequestParam String keyword, @RequestParam(required = false) List<String> fields,
+                                                                  Principal principal) {
         try {
-            List<GiftDTO> gifts = giftService.searchGiftsByName(keyword);
+            List<?> gifts = fields == null ? giftService.searchGiftsByName(keyword) : giftService.searchGiftsByName(keyword, fields);
+            activityService.record(ActivityEvent.Type.SEARCH, userName(principal), 0, gifts.size(), keyword);
             return new ResponseEntity<>(ApiResponse.success(gifts), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionDTO>>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<SuggestionDTO> suggestions = autocompleteService.suggest(q, limit);
+            return new ResponseEntity<>(ApiResponse.success(suggestions), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
     @GetMapping("/price")
-    public ResponseEntity<ApiResponse<List<GiftDTO>>> getGiftsByMaxPrice(@RequestParam Double maxPrice) {
+    public ResponseEntity<ApiResponse<List<?>>> getGiftsByMaxPrice(@RequestParam Double maxPrice, @RequestParam(required = false) List<String> fields) {
         try {
-            List<GiftDTO> gifts = giftService.getGiftsByMaxPrice(maxPrice);
+            List<?> gifts = fields == null ? giftService.getGiftsByMaxPrice(maxPrice) : giftService.getGiftsByMaxPrice(maxPrice, fields);
             return new ResponseEntity<>(ApiResponse.success(gifts), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    @GetMapping("/price-histogram")
+    public ResponseEntity<ApiResponse<PriceHistogramDTO>> getPriceHistogram(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "ALL") PriceHistogramService.Source source) {
+        try {
+            PriceHistogramDTO histogram = priceHistogramService.getHistogram(source, category);
+            return new ResponseEntity<>(ApiResponse.success(histogram), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<CatalogChangesDTO>> getChanges(@RequestParam(defaultValue = "0") long since) {
+        try {
+            CatalogChangesDTO changes = changeFeedService.getChanges(since);
+            return new ResponseEntity<>(ApiResponse.success(changes), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(defaultValue = "0") long since) {
+        return changeFeedService.subscribe(since);
+    }
+
     @PutMapping("/{id}/favorite")
     public ResponseEntity<ApiResponse<GiftDTO>> toggleFavorite(@PathVariable Long id) {
         try {
@@ -126,4 +229,33 @@ public class GiftController {
             return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/bulk/price")
+    public ResponseEntity<ApiResponse<BulkUpdateResultDTO>> adjustPrices(@RequestBody BulkUpdateDTO request) {
+        return bulk(() -> bulkService.adjustGiftPrices(request));
+    }
+
+    @PostMapping("/bulk/category")
+    public ResponseEntity<ApiResponse<BulkUpdateResultDTO>> recategorize(@RequestBody BulkUpdateDTO request) {
+        return bulk(() -> bulkService.recategorizeGifts(request));
+    }
+
+    @PostMapping("/bulk/favorites/reset")
+    public ResponseEntity<ApiResponse<BulkUpdateResultDTO>> resetFavorites(@RequestBody BulkUpdateDTO request) {
+        return bulk(() -> bulkService.resetGiftFavorites(request));
+    }
+
+    private static ResponseEntity<ApiResponse<BulkUpdateResultDTO>> bulk(Supplier<BulkUpdateResultDTO> update) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success("Bulk update completed", update.get()), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static String userName(Principal principal) {
+        return principal == null ? null : principal.getName();
+    }
+}
@@ -0,0 +1,92 @@
+package com.giftidea.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.service.ThumbnailService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Thumbnail proxy for catalog images. Cached files are handed to Tomcat's sendfile when the
+ * connector supports it, so the body goes from the page cache to the socket without passing
+ * through the JVM; otherwise they are copied with FileChannel.transferTo.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Entries never change under their URL, see ThumbnailServiceImpl
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @GetMapping("/thumbnail")
+    public void getThumbnail(@RequestParam String url, @RequestParam(defaultValue = "320") int width,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ThumbnailService.Thumbnail thumbnail;
+        try {
+            thumbnail = thumbnailService.getThumbnail(url, width);
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpStatus.BAD_REQUEST, e.getMessage());
+            return;
+        } catch (IOException e) {
+            writeError(response, HttpStatus.BAD_GATEWAY, e.getMessage());
+            return;
+        }
+
+        String etag = "\"" + thumbnail.etag() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLengthLong(thumbnail.length());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, thumbnail.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, thumbnail.length());
+            return;
+        }
+        try (FileChannel file = FileChannel.open(thumbnail.file(), StandardOpenOption.READ)) {
+            WritableByteChannel body = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < thumbnail.length()) {
+                position += file.transferTo(position, thumbnail.length() - position, body);
+            }
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), ApiResponse.error(message));
+    }
+}
@@ -0,0 +1,59 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.LoyaltyAccountDTO;
+import com.giftidea.dto.LoyaltyEventDTO;
+import com.giftidea.service.LoyaltyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/loyalty")
+public class LoyaltyController {
+
+    private static final int MAX_HISTORY = 200;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<ApiResponse<LoyaltyAccountDTO>> getAccount(@PathVariable String userId) {
+        return new ResponseEntity<>(ApiResponse.success(loyaltyService.getAccount(userId)), HttpStatus.OK);
+    }
+
+    @GetMapping("/{userId}/history")
+    public ResponseEntity<ApiResponse<List<LoyaltyEventDTO>>> getHistory(@PathVariable String userId,
+                                                                          @RequestParam(defaultValue = "50") int limit) {
+        try {
+            int size = Math.max(1, Math.min(limit, MAX_HISTORY));
+            return new ResponseEntity<>(ApiResponse.success(loyaltyService.getHistory(userId, size)), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/{userId}/redeem")
+    public ResponseEntity<ApiResponse<LoyaltyEventDTO>> redeem(@PathVariable String userId,
+                                                               @RequestBody Map<String, Object> request) {
+        try {
+            if (!(request.get("points") instanceof Number points)) {
+                throw new IllegalArgumentException("Points are required");
+            }
+            Object reference = request.get("reference");
+            LoyaltyEventDTO event = loyaltyService.redeem(userId, points.longValue(),
+                    reference == null ? null : reference.toString());
+            return new ResponseEntity<>(ApiResponse.success("Points redeemed successfully", event), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -1,29 +1,49 @@
 package com.giftidea.controller;
 
+import com.giftidea.dto.BulkUpdateDTO;
+import com.giftidea.dto.RecommendedProductDTO;
 import com.giftidea.model.Product;
+import com.giftidea.service.CatalogBulkService;
 import com.giftidea.service.ProductService;
+import com.giftidea.service.RecommendationService;
+import com.giftidea.service.SimilarityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "*")
 public class ProductController {
 
+    // Shared by every miss: existence-filter hits must not allocate a response each
+    private static final ResponseEntity<Product> PRODUCT_NOT_FOUND = new ResponseEntity<>(HttpStatus.NOT_FOUND);
+
     private final ProductService productService;
+    private final RecommendationService recommendationService;
+    private final SimilarityService similarityService;
+    private final CatalogBulkService bulkService;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, RecommendationService recommendationService,
+                             SimilarityService similarityService, CatalogBulkService bulkService) {
         this.productService = productService;
+        this.recommendationService = recommendationService;
+        this.similarityService = similarityService;
+        this.bulkService = bulkService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return sparse(() -> productService.getAllProducts(fields));
+        }
         return new ResponseEntity<>(productService.getAllProducts(), HttpStatus.OK);
     }
 
@@ -31,16 +51,38 @@ public class ProductController {
     public ResponseEntity<Product> getProductById(@PathVariable Long id) {
         Optional<Product> product = productService.getProductById(id);
         return product.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .orElse(PRODUCT_NOT_FOUND);
+    }
+
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RecommendedProductDTO>> getRelatedProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(recommendationService.getRelatedProducts(id, limit), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<Product>> getSimilarProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(similarityService.findSimilarProducts(id, limit), HttpStatus.OK);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<?> getProductsByCategory(@PathVariable String category,
+                                                   @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return sparse(() -> productService.getProductsByCategory(category, fields));
+        }
         return new ResponseEntity<>(productService.getProductsByCategory(category), HttpStatus.OK);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<?> searchProducts(@RequestParam String keyword,
+                                            @RequestParam(required = false) List<String> fields) {
+        if (fields != null) {
+            return sparse(() -> productService.searchProducts(keyword, fields));
+        }
         return new ResponseEntity<>(productService.searchProducts(keyword), HttpStatus.OK);
     }
 
@@ -70,4 +112,31 @@ public class ProductController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/bulk/price")
+    public ResponseEntity<?> adjustPrices(@RequestBody BulkUpdateDTO request) {
+        try {
+            return new ResponseEntity<>(bulkService.adjustProductPrices(request), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/bulk/category")
+    public ResponseEntity<?> recategorize(@RequestBody BulkUpdateDTO request) {
+        try {
+            return new ResponseEntity<>(bulkService.recategorizeProducts(request), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    // Unknown field names are a client error
+    private static ResponseEntity<?> sparse(Supplier<List<Map<String, Object>>> query) {
+        try {
+            return new ResponseEntity<>(query.get(), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+}
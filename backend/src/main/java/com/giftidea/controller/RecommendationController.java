@@ -0,0 +1,31 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.RecommendedProductDTO;
+import com.giftidea.service.RecommendationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationController {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<ApiResponse<List<RecommendedProductDTO>>> getRecommendations(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<RecommendedProductDTO> recommendations = recommendationService.getRecommendationsForUser(userId, limit);
+            return new ResponseEntity<>(ApiResponse.success(recommendations), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
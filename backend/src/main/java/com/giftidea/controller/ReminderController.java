@@ -0,0 +1,58 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.ReminderDTO;
+import com.giftidea.dto.ReminderStatsDTO;
+import com.giftidea.service.ReminderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reminders")
+public class ReminderController {
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ReminderDTO>> createReminder(@RequestBody ReminderDTO reminderDTO) {
+        try {
+            ReminderDTO reminder = reminderService.createReminder(reminderDTO);
+            return new ResponseEntity<>(ApiResponse.success("Reminder created successfully", reminder), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<ApiResponse<List<ReminderDTO>>> getRemindersForUser(@PathVariable String userId) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(reminderService.getRemindersForUser(userId)), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> cancelReminder(@PathVariable Long id) {
+        try {
+            reminderService.cancelReminder(id);
+            return new ResponseEntity<>(ApiResponse.success("Reminder cancelled successfully", null), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse<ReminderStatsDTO>> getStats() {
+        return new ResponseEntity<>(ApiResponse.success(reminderService.getStats()), HttpStatus.OK);
+    }
+}
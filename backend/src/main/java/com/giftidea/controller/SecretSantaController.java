@@ -0,0 +1,127 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.DistributionPairDTO;
+import com.giftidea.dto.DistributionResultDTO;
+import com.giftidea.dto.ExclusionDTO;
+import com.giftidea.dto.ParticipantDTO;
+import com.giftidea.dto.SecretSantaGroupDTO;
+import com.giftidea.service.SecretSantaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/secret-santa/groups")
+public class SecretSantaController {
+
+    @Autowired
+    private SecretSantaService secretSantaService;
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<SecretSantaGroupDTO>> createGroup(@RequestBody SecretSantaGroupDTO groupDTO) {
+        try {
+            SecretSantaGroupDTO group = secretSantaService.createGroup(groupDTO);
+            return new ResponseEntity<>(ApiResponse.success("Group created successfully", group), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<SecretSantaGroupDTO>> getGroup(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(secretSantaService.getGroupById(id)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/participants")
+    public ResponseEntity<ApiResponse<List<ParticipantDTO>>> getParticipants(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(secretSantaService.getParticipants(id)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/{id}/participants")
+    public ResponseEntity<ApiResponse<List<ParticipantDTO>>> addParticipants(
+            @PathVariable Long id,
+            @RequestBody List<ParticipantDTO> participants) {
+        try {
+            List<ParticipantDTO> added = secretSantaService.addParticipants(id, participants);
+            return new ResponseEntity<>(ApiResponse.success("Participants added successfully", added), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/{id}/exclusions")
+    public ResponseEntity<ApiResponse<Void>> addExclusions(
+            @PathVariable Long id,
+            @RequestBody List<ExclusionDTO> exclusions) {
+        try {
+            secretSantaService.addExclusions(id, exclusions);
+            return new ResponseEntity<>(ApiResponse.success("Exclusions added successfully", null), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping("/{id}/distribution")
+    public ResponseEntity<ApiResponse<DistributionResultDTO>> distribute(@PathVariable Long id) {
+        try {
+            DistributionResultDTO result = secretSantaService.distribute(id);
+            return new ResponseEntity<>(ApiResponse.success("Distribution completed", result), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/distribution")
+    public ResponseEntity<ApiResponse<List<DistributionPairDTO>>> getDistribution(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "1000") int size) {
+        try {
+            List<DistributionPairDTO> pairs = secretSantaService.getDistribution(id, page, size);
+            return new ResponseEntity<>(ApiResponse.success(pairs), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/distribution/{participantId}")
+    public ResponseEntity<ApiResponse<DistributionPairDTO>> getRecipient(
+            @PathVariable Long id,
+            @PathVariable Long participantId) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(secretSantaService.getRecipient(id, participantId)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
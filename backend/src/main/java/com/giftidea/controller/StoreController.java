@@ -0,0 +1,111 @@
+package com.giftidea.controller;
+
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.dto.NearbyStoreDTO;
+import com.giftidea.dto.StoreDTO;
+import com.giftidea.service.StoreService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stores")
+public class StoreController {
+
+    @Autowired
+    private StoreService storeService;
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<StoreDTO>>> getAllStores() {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(storeService.getAllStores()), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<StoreDTO>> getStoreById(@PathVariable Long id) {
+        try {
+            return new ResponseEntity<>(ApiResponse.success(storeService.getStoreById(id)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<StoreDTO>> createStore(@RequestBody StoreDTO storeDTO) {
+        try {
+            StoreDTO store = storeService.createStore(storeDTO);
+            return new ResponseEntity<>(ApiResponse.success("Store created successfully", store), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<StoreDTO>> updateStore(@PathVariable Long id, @RequestBody StoreDTO storeDTO) {
+        try {
+            StoreDTO store = storeService.updateStore(id, storeDTO);
+            return new ResponseEntity<>(ApiResponse.success("Store updated successfully", store), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteStore(@PathVariable Long id) {
+        try {
+            storeService.deleteStore(id);
+            return new ResponseEntity<>(ApiResponse.success("Store deleted successfully", null), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<ApiResponse<List<NearbyStoreDTO>>> findNearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "true") boolean inStock,
+            @RequestParam(defaultValue = "50") double radiusKm) {
+        try {
+            List<NearbyStoreDTO> stores = storeService.findNearest(lat, lon, limit, category, inStock, radiusKm);
+            return new ResponseEntity<>(ApiResponse.success(stores), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<ApiResponse<List<NearbyStoreDTO>>> findWithin(
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "true") boolean inStock,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            List<NearbyStoreDTO> stores = storeService.findWithin(minLat, minLon, maxLat, maxLon, category, inStock, limit);
+            return new ResponseEntity<>(ApiResponse.success(stores), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(ApiResponse.error(e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
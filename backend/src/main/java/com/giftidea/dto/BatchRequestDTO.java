@@ -0,0 +1,17 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+/**
+ * One sub-request of POST /api/batch: a GET of an API path, query string included.
+ * The id is echoed back so the client can match results; it defaults to the position.
+ */
+public record BatchRequestDTO(
+    String id,
+    String method,
+    String path
+) {
+    public BatchRequestDTO {
+        Objects.requireNonNull(path, "Path cannot be null");
+    }
+}
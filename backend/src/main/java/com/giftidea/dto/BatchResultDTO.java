@@ -0,0 +1,12 @@
+package com.giftidea.dto;
+
+/**
+ * Outcome of one sub-request: its HTTP status and body, embedded as JSON when the route
+ * produced JSON and as text otherwise.
+ */
+public record BatchResultDTO(
+    String id,
+    int status,
+    Object body
+) {
+}
@@ -0,0 +1,24 @@
+package com.giftidea.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A bulk catalog change. The target is exactly one of: a category, a list of ids, or all rows.
+ * Price changes use mode PERCENT (value -10 lowers prices by 10%) or AMOUNT (value is added);
+ * recategorization uses newCategory.
+ */
+public record BulkUpdateDTO(
+    String category,
+    List<Long> ids,
+    boolean all,
+    String mode,
+    BigDecimal value,
+    String newCategory
+) {
+    public BulkUpdateDTO {
+        if (ids != null) {
+            ids = List.copyOf(ids);
+        }
+    }
+}
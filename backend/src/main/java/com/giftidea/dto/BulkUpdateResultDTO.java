@@ -0,0 +1,11 @@
+package com.giftidea.dto;
+
+/**
+ * Rows considered and rows actually changed by a bulk update, and how many transactions it took.
+ */
+public record BulkUpdateResultDTO(
+    int matched,
+    int updated,
+    int chunks
+) {
+}
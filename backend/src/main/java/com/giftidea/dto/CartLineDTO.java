@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record CartLineDTO(
+    String userId,
+    Long productId
+) {
+    public CartLineDTO {
+        Objects.requireNonNull(userId, "User id cannot be null");
+        Objects.requireNonNull(productId, "Product id cannot be null");
+    }
+}
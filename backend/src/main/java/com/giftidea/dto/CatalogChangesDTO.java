@@ -0,0 +1,21 @@
+package com.giftidea.dto;
+
+import com.giftidea.model.Product;
+
+import java.util.List;
+
+/**
+ * Catalog changes since a client's version. A snapshot carries the whole catalog and replaces
+ * the client's copy; otherwise the lists are upserts and deletions to apply. Clients store
+ * version and ask again from it, right away while hasMore is set.
+ */
+public record CatalogChangesDTO(
+    long version,
+    boolean snapshot,
+    boolean hasMore,
+    List<GiftDTO> gifts,
+    List<Long> deletedGiftIds,
+    List<Product> products,
+    List<Long> deletedProductIds
+) {
+}
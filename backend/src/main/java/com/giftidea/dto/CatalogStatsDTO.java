@@ -0,0 +1,17 @@
+package com.giftidea.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record CatalogStatsDTO(
+    Instant snapshotBuiltAt,
+    long scanned,
+    long matched,
+    Double minPrice,
+    Double maxPrice,
+    Double averagePrice,
+    List<PriceBucketDTO> priceBands,
+    Map<String, Long> categories
+) {
+}
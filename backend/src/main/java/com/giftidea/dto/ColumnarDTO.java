@@ -0,0 +1,12 @@
+package com.giftidea.dto;
+
+import java.util.List;
+
+/**
+ * List payload in column layout: field names once, then one positional row per element.
+ */
+public record ColumnarDTO(
+    List<String> columns,
+    List<List<Object>> rows
+) {
+}
@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record DistributionPairDTO(
+    Long santaId,
+    Long recipientId
+) {
+    public DistributionPairDTO {
+        Objects.requireNonNull(santaId, "Santa id cannot be null");
+        Objects.requireNonNull(recipientId, "Recipient id cannot be null");
+    }
+}
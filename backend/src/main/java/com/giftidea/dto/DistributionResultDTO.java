@@ -0,0 +1,17 @@
+package com.giftidea.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public record DistributionResultDTO(
+    Long groupId,
+    int pairCount,
+    String strategy,
+    long elapsedMs,
+    LocalDateTime distributedAt
+) {
+    public DistributionResultDTO {
+        Objects.requireNonNull(groupId, "Group id cannot be null");
+        Objects.requireNonNull(strategy, "Strategy cannot be null");
+    }
+}
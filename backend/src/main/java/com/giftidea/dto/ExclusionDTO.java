@@ -0,0 +1,17 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record ExclusionDTO(
+    Long participantId,
+    Long excludedId,
+    boolean mutual
+) {
+    public ExclusionDTO {
+        Objects.requireNonNull(participantId, "Participant id cannot be null");
+        Objects.requireNonNull(excludedId, "Excluded id cannot be null");
+        if (participantId.equals(excludedId)) {
+            throw new IllegalArgumentException("Participant cannot exclude themselves");
+        }
+    }
+}
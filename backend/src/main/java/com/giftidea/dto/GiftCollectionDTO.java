@@ -0,0 +1,31 @@
+package com.giftidea.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A collection and its rule. Unset conditions match every gift; giftCount is ignored on create.
+ */
+public record GiftCollectionDTO(
+    Long id,
+    String name,
+    String category,
+    Double minPrice,
+    Double maxPrice,
+    List<String> keywords,
+    long giftCount
+) {
+    public GiftCollectionDTO {
+        Objects.requireNonNull(name, "Name cannot be null");
+        if (name.isBlank()) {
+            throw new IllegalArgumentException("Name cannot be blank");
+        }
+        if (minPrice != null && minPrice < 0 || maxPrice != null && maxPrice < 0) {
+            throw new IllegalArgumentException("Price bounds cannot be negative");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("Min price cannot exceed max price");
+        }
+        keywords = keywords == null ? List.of() : List.copyOf(keywords);
+    }
+}
@@ -0,0 +1,8 @@
+package com.giftidea.dto;
+
+public record LoyaltyAccountDTO(
+    String userId,
+    long balance,
+    long earnedTotal
+) {
+}
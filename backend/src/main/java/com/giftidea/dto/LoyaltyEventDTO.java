@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.time.Instant;
+
+public record LoyaltyEventDTO(
+    Long id,
+    String userId,
+    long points,
+    String reason,
+    String reference,
+    Instant createdAt
+) {
+}
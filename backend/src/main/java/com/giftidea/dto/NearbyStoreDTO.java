@@ -0,0 +1,11 @@
+package com.giftidea.dto;
+
+public record NearbyStoreDTO(
+    Long storeId,
+    String name,
+    String address,
+    double latitude,
+    double longitude,
+    Double distanceKm
+) {
+}
@@ -0,0 +1,21 @@
+package com.giftidea.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public record ParticipantDTO(
+    Long id,
+    String name,
+    String email,
+    String wishlist,
+    String team,
+    String userId,
+    LocalDateTime joinedAt
+) {
+    public ParticipantDTO {
+        Objects.requireNonNull(name, "Name cannot be null");
+        if (name.isBlank()) {
+            throw new IllegalArgumentException("Name cannot be blank");
+        }
+    }
+}
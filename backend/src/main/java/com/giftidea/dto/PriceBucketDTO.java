@@ -0,0 +1,8 @@
+package com.giftidea.dto;
+
+public record PriceBucketDTO(
+    Double from,
+    Double to,
+    long count
+) {
+}
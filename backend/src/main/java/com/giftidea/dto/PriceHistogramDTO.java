@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.util.List;
+
+public record PriceHistogramDTO(
+    String source,
+    String category,
+    long total,
+    Double minPrice,
+    Double maxPrice,
+    List<PriceBucketDTO> buckets
+) {
+}
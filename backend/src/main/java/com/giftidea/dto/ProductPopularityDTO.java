@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record ProductPopularityDTO(
+    Long productId,
+    Long cartCount
+) {
+    public ProductPopularityDTO {
+        Objects.requireNonNull(productId, "Product id cannot be null");
+        Objects.requireNonNull(cartCount, "Cart count cannot be null");
+    }
+}
@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record PurchaseLineDTO(
+    Long reservationId,
+    Long productId
+) {
+    public PurchaseLineDTO {
+        Objects.requireNonNull(reservationId, "Reservation id cannot be null");
+        Objects.requireNonNull(productId, "Product id cannot be null");
+    }
+}
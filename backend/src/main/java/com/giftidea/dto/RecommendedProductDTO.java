@@ -0,0 +1,15 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record RecommendedProductDTO(
+    Long productId,
+    int score
+) {
+    public RecommendedProductDTO {
+        Objects.requireNonNull(productId, "Product id cannot be null");
+        if (score < 0) {
+            throw new IllegalArgumentException("Score cannot be negative");
+        }
+    }
+}
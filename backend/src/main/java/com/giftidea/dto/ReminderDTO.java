@@ -0,0 +1,31 @@
+package com.giftidea.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+public record ReminderDTO(
+    Long id,
+    String userId,
+    String personName,
+    String eventType,
+    LocalDate eventDate,
+    Integer notifyDaysBefore,
+    String notes,
+    Instant fireAt,
+    String status
+) {
+    public ReminderDTO {
+        Objects.requireNonNull(userId, "User id cannot be null");
+        Objects.requireNonNull(personName, "Person name cannot be null");
+        if (personName.isBlank()) {
+            throw new IllegalArgumentException("Person name cannot be blank");
+        }
+        if (fireAt == null && eventDate == null) {
+            throw new IllegalArgumentException("Either event date or fire time is required");
+        }
+        if (notifyDaysBefore != null && notifyDaysBefore < 0) {
+            throw new IllegalArgumentException("Notify days before cannot be negative");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.giftidea.dto;
+
+import java.time.Instant;
+
+public record ReminderStatsDTO(
+    int scheduledInMemory,
+    int capacity,
+    Instant loadedUntil,
+    int dispatchQueueSize,
+    long dispatched,
+    long dispatchFailures
+) {
+}
@@ -0,0 +1,17 @@
+package com.giftidea.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record ReservationDTO(
+    Long id,
+    String userId,
+    String status,
+    BigDecimal totalAmount,
+    Instant createdAt,
+    Instant expiresAt,
+    Instant closedAt,
+    List<ReservationLineDTO> lines
+) {
+}
@@ -0,0 +1,10 @@
+package com.giftidea.dto;
+
+import java.math.BigDecimal;
+
+public record ReservationLineDTO(
+    Long productId,
+    int quantity,
+    BigDecimal unitPrice
+) {
+}
@@ -0,0 +1,23 @@
+package com.giftidea.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+public record SecretSantaGroupDTO(
+    Long id,
+    String name,
+    String createdBy,
+    LocalDateTime createdAt,
+    String status,
+    Long previousGroupId,
+    boolean excludeSameTeam,
+    LocalDateTime distributedAt,
+    long participantCount
+) {
+    public SecretSantaGroupDTO {
+        Objects.requireNonNull(name, "Name cannot be null");
+        if (name.isBlank()) {
+            throw new IllegalArgumentException("Name cannot be blank");
+        }
+    }
+}
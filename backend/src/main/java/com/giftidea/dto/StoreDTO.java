@@ -0,0 +1,23 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record StoreDTO(
+    Long id,
+    String name,
+    String address,
+    Double latitude,
+    Double longitude
+) {
+    public StoreDTO {
+        Objects.requireNonNull(name, "Store name cannot be null");
+        Objects.requireNonNull(latitude, "Latitude cannot be null");
+        Objects.requireNonNull(longitude, "Longitude cannot be null");
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+}
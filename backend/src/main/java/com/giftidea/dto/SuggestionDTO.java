@@ -0,0 +1,14 @@
+package com.giftidea.dto;
+
+import java.util.Objects;
+
+public record SuggestionDTO(
+    String text,
+    String type,
+    Long id
+) {
+    public SuggestionDTO {
+        Objects.requireNonNull(text, "Text cannot be null");
+        Objects.requireNonNull(type, "Type cannot be null");
+    }
+}
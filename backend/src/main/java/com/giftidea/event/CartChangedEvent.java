@@ -0,0 +1,4 @@
+package com.giftidea.event;
+
+public record CartChangedEvent(String userId) {
+}
@@ -0,0 +1,34 @@
+package com.giftidea.event;
+
+import java.util.List;
+
+/**
+ * Published after gifts or products are written so in-memory indexes can follow the catalog.
+ * Remote events were raised on another instance and replayed here by the catalog event relay.
+ */
+public record CatalogChangeEvent(
+    Entity entity,
+    Type type,
+    List<Long> ids,
+    boolean remote
+) {
+    public enum Entity { GIFT, PRODUCT }
+
+    public enum Type { UPSERT, DELETE }
+
+    public CatalogChangeEvent {
+        ids = List.copyOf(ids);
+    }
+
+    public CatalogChangeEvent(Entity entity, Type type, List<Long> ids) {
+        this(entity, type, ids, false);
+    }
+
+    public static CatalogChangeEvent upsert(Entity entity, Long id) {
+        return new CatalogChangeEvent(entity, Type.UPSERT, List.of(id));
+    }
+
+    public static CatalogChangeEvent delete(Entity entity, Long id) {
+        return new CatalogChangeEvent(entity, Type.DELETE, List.of(id));
+    }
+}
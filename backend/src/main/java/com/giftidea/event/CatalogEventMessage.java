@@ -0,0 +1,14 @@
+package com.giftidea.event;
+
+/**
+ * One catalog change as carried between instances: a single entity id plus the version
+ * assigned by the transport, which grows in commit order as far as the transport can tell.
+ */
+public record CatalogEventMessage(
+    long version,
+    CatalogChangeEvent.Entity entity,
+    CatalogChangeEvent.Type type,
+    long entityId,
+    String origin
+) {
+}
@@ -0,0 +1,6 @@
+package com.giftidea.event;
+
+import java.math.BigDecimal;
+
+public record ReservationConfirmedEvent(Long reservationId, String userId, BigDecimal totalAmount) {
+}
@@ -0,0 +1,6 @@
+package com.giftidea.event;
+
+import java.util.List;
+
+public record ReservationCreatedEvent(Long reservationId, String userId, List<Long> productIds) {
+}
@@ -0,0 +1,4 @@
+package com.giftidea.event;
+
+public record ReservationReleasedEvent(Long reservationId, String userId) {
+}
@@ -0,0 +1,45 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * User activity for analytics: a gift view, a search or a cart change. Rows are written in
+ * batches by ActivityServiceImpl and never updated.
+ */
+@Entity
+@Data
+@Table(name = "activity_events", indexes = {
+        @Index(columnList = "type, occurred_at")
+})
+public class ActivityEvent {
+
+    public enum Type { GIFT_VIEW, SEARCH, CART_ADD, CART_UPDATE, CART_REMOVE, CART_CLEAR }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    // Gift, product or cart item the event is about
+    @Column(name = "target_id")
+    private Long targetId;
+
+    // 1 for a view, the number of results for a search, the item quantity for a cart change
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(length = 200)
+    private String query;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
@@ -0,0 +1,39 @@
+package com.giftidea.model;
+
+import com.giftidea.event.CatalogChangeEvent;
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Change log and outbox row for one catalog change; the id doubles as the event version.
+ */
+@Entity
+@Data
+@Table(name = "catalog_events", indexes = {
+        @Index(columnList = "created_at")
+})
+public class CatalogOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CatalogChangeEvent.Entity entity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private CatalogChangeEvent.Type type;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false, length = 64)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
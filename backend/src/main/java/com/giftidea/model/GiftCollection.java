@@ -0,0 +1,39 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A thematic collection defined by a rule: every set condition must hold for a gift to belong.
+ * Keywords are stored normalized and comma separated; a gift needs any one of them.
+ * Membership is materialized in gift_collection_members.
+ */
+@Entity
+@Data
+@Table(name = "gift_collections")
+public class GiftCollection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(length = 100)
+    private String category;
+
+    @Column(name = "min_price")
+    private Double minPrice;
+
+    @Column(name = "max_price")
+    private Double maxPrice;
+
+    @Column(length = 500)
+    private String keywords;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,24 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "gift_collection_members", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"collection_id", "gift_id"})
+}, indexes = {
+        @Index(columnList = "gift_id")
+})
+public class GiftCollectionMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "collection_id", nullable = false)
+    private Long collectionId;
+
+    @Column(name = "gift_id", nullable = false)
+    private Long giftId;
+}
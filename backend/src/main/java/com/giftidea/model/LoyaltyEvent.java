@@ -0,0 +1,40 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Append-only loyalty ledger row: points earned (positive) or spent (negative) by a user.
+ * Rows are never updated; balances are the sum of a user's rows.
+ */
+@Entity
+@Data
+@Table(name = "loyalty_events", indexes = {
+        @Index(columnList = "user_id, id")
+})
+public class LoyaltyEvent {
+
+    public enum Reason { CHECKOUT, REVIEW, REDEEM, ADJUSTMENT }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private long points;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+
+    @Column(length = 100)
+    private String reference;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,34 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * A user's balance, changed in the same transaction as the ledger rows; asOfEventId is the
+ * newest row applied to it.
+ */
+@Entity
+@Data
+@Table(name = "loyalty_snapshots", indexes = {
+        @Index(columnList = "updated_at")
+})
+public class LoyaltySnapshot {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(nullable = false)
+    private long earned;
+
+    @Column(name = "as_of_event_id", nullable = false)
+    private long asOfEventId;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = @Index(columnList = "store_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -35,4 +35,8 @@ public class Product {
 
     @Column
     private String category;
+
+    // Store that sells the product, if any
+    @Column(name = "store_id")
+    private Long storeId;
 } 
\ No newline at end of file
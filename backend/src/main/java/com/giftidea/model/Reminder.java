@@ -0,0 +1,59 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "reminders", indexes = {
+        @Index(columnList = "status, fire_at"),
+        @Index(columnList = "user_id")
+})
+public class Reminder {
+
+    public enum Status { PENDING, SENT, CANCELLED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "person_name", nullable = false)
+    private String personName;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    @Column(name = "event_date")
+    private LocalDate eventDate;
+
+    @Column(name = "notify_days_before")
+    private Integer notifyDaysBefore;
+
+    @Column(length = 1000)
+    private String notes;
+
+    @Column(name = "fire_at", nullable = false)
+    private Instant fireAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.PENDING;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
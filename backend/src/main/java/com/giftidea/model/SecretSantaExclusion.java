@@ -0,0 +1,23 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "secret_santa_exclusions", indexes = @Index(columnList = "group_id"))
+public class SecretSantaExclusion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "giver_id", nullable = false)
+    private Long giverId;
+
+    @Column(name = "receiver_id", nullable = false)
+    private Long receiverId;
+}
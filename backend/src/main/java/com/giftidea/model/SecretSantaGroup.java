@@ -0,0 +1,46 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "secret_santa_groups")
+public class SecretSantaGroup {
+
+    public enum Status { ACTIVE, DISTRIBUTED, COMPLETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.ACTIVE;
+
+    // Last year's group; its pairs are not repeated
+    @Column(name = "previous_group_id")
+    private Long previousGroupId;
+
+    @Column(name = "exclude_same_team")
+    private boolean excludeSameTeam;
+
+    @Column(name = "distributed_at")
+    private LocalDateTime distributedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,26 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "secret_santa_pairs", indexes = {
+        @Index(columnList = "group_id"),
+        @Index(columnList = "group_id, santa_id")
+})
+public class SecretSantaPair {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(name = "santa_id", nullable = false)
+    private Long santaId;
+
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+}
@@ -0,0 +1,43 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@Table(name = "secret_santa_participants", indexes = @Index(columnList = "group_id"))
+public class SecretSantaParticipant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id", nullable = false)
+    private Long groupId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column
+    private String email;
+
+    @Column(length = 1000)
+    private String wishlist;
+
+    @Column
+    private String team;
+
+    // Links the same person across groups, e.g. for the no-repeat rule
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        joinedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,41 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Data
+@Table(name = "stock_reservations", indexes = {
+        @Index(columnList = "status, expires_at"),
+        @Index(columnList = "user_id")
+})
+public class StockReservation {
+
+    public enum Status { RESERVED, CONFIRMED, RELEASED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.RESERVED;
+
+    @Column(name = "total_amount")
+    private BigDecimal totalAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "closed_at")
+    private Instant closedAt;
+}
@@ -0,0 +1,38 @@
+package com.giftidea.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One revocation: a single token by jti, or every token of the user issued before revokedBefore.
+ * Kept until the tokens it covers have expired.
+ */
+@Entity
+@Data
+@Table(name = "token_revocations", indexes = {
+        @Index(columnList = "revoked_at"),
+        @Index(columnList = "expires_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "revoked_before")
+    private Instant revokedBefore;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -1,15 +1,27 @@
 package com.giftidea.repository;
 
+import com.giftidea.dto.CartLineDTO;
+import com.giftidea.dto.ProductPopularityDTO;
 import com.giftidea.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+public interface CartItemRepository extends JpaRepository<CartItem, Long>, CartItemRepositoryCustom {
     List<CartItem> findByUserId(String userId);
     Optional<CartItem> findByUserIdAndProductId(String userId, Long productId);
     void deleteByUserId(String userId);
-} 
\ No newline at end of file
+
+    @Query("SELECT DISTINCT c.product.id FROM CartItem c WHERE c.userId = :userId")
+    List<Long> findProductIdsByUserId(String userId);
+
+    @Query("SELECT DISTINCT new com.giftidea.dto.CartLineDTO(c.userId, c.product.id) FROM CartItem c ORDER BY c.userId")
+    List<CartLineDTO> findAllCartLines();
+
+    @Query("SELECT new com.giftidea.dto.ProductPopularityDTO(c.product.id, COUNT(c)) FROM CartItem c GROUP BY c.product.id")
+    List<ProductPopularityDTO> countCartLinesByProduct();
+}
@@ -0,0 +1,21 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.CartItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class CartItemRepositoryCustomImpl implements CartItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Collection<String> fields, Specification<CartItem> filter) {
+        return FieldProjections.select(entityManager, CartItem.class, fields, filter);
+    }
+}
@@ -0,0 +1,35 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.CatalogOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CatalogOutboxEventRepository extends JpaRepository<CatalogOutboxEvent, Long> {
+
+    List<CatalogOutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<CatalogOutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CatalogOutboxEvent e")
+    long findMaxId();
+
+    @Query("SELECT COALESCE(MIN(e.id), 0) FROM CatalogOutboxEvent e")
+    long findMinId();
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM CatalogOutboxEvent e WHERE e.createdAt < :before")
+    long findMaxIdCreatedBefore(Instant before);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CatalogOutboxEvent e WHERE e.createdAt < :before AND e.id < :keepFromId")
+    int deleteCreatedBefore(Instant before, long keepFromId);
+}
@@ -0,0 +1,156 @@
+package com.giftidea.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Sparse fieldsets: a Criteria multiselect of only the requested entity attributes, so list
+ * endpoints neither load nor ship columns the client did not ask for. Fields are basic attributes
+ * of the entity, or "association.attribute" for to-one associations (fetched with a left join and
+ * returned as a nested map). The id is always included.
+ */
+public final class FieldProjections {
+
+    private static final String ID = "id";
+
+    private FieldProjections() {
+    }
+
+    public static <T> List<Map<String, Object>> select(EntityManager entityManager, Class<T> type,
+                                                       Collection<String> fields, Specification<T> filter) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add(ID);
+        for (String field : fields) {
+            String path = field.trim();
+            if (!path.isEmpty()) {
+                validate(entity, path);
+                paths.add(path);
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        Map<String, Join<T, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            int dot = path.indexOf('.');
+            From<T, ?> from = dot < 0 ? root
+                    : joins.computeIfAbsent(path.substring(0, dot), name -> root.join(name, JoinType.LEFT));
+            selections.add(from.get(path.substring(dot + 1)).alias(path));
+        }
+        query.multiselect(selections);
+        if (filter != null) {
+            query.where(filter.toPredicate(root, query, cb));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                put(row, element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Runs a findFields call. Repository proxies translate the IllegalArgumentException for an
+     * unknown field into a DataAccessException; this hands it back to the caller unwrapped, so
+     * controllers can answer 400 as for any other bad argument.
+     */
+    public static List<Map<String, Object>> query(Supplier<List<Map<String, Object>>> findFields) {
+        try {
+            return findFields.get();
+        } catch (InvalidDataAccessApiUsageException e) {
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Case-insensitive substring match with LIKE wildcards in the keyword taken literally,
+     * like the derived ...ContainingIgnoreCase queries.
+     */
+    public static <T> Specification<T> containsIgnoreCase(String attribute, String keyword) {
+        String escaped = keyword.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), "%" + escaped + "%", '\\');
+    }
+
+    private static void validate(ManagedType<?> entity, String path) {
+        int dot = path.indexOf('.');
+        Attribute<?, ?> attribute = find(entity, dot < 0 ? path : path.substring(0, dot));
+        if (attribute == null) {
+            throw new IllegalArgumentException("Unknown field: " + path);
+        }
+        boolean basic = attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+        if (dot < 0 ? basic : isToOne(attribute) && isBasic(target(attribute), path.substring(dot + 1))) {
+            return;
+        }
+        throw new IllegalArgumentException("Unknown field: " + path);
+    }
+
+    private static Attribute<?, ?> find(ManagedType<?> type, String name) {
+        for (Attribute<?, ?> attribute : type.getAttributes()) {
+            if (attribute.getName().equals(name)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isToOne(Attribute<?, ?> attribute) {
+        return attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE
+                || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ONE_TO_ONE;
+    }
+
+    private static ManagedType<?> target(Attribute<?, ?> attribute) {
+        return (ManagedType<?>) ((SingularAttribute<?, ?>) attribute).getType();
+    }
+
+    private static boolean isBasic(ManagedType<?> type, String name) {
+        Attribute<?, ?> attribute = find(type, name);
+        return attribute != null && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> row, String path, Object value) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            row.put(path, value);
+            return;
+        }
+        Map<String, Object> nested = (Map<String, Object>) row.computeIfAbsent(path.substring(0, dot),
+                key -> new LinkedHashMap<String, Object>());
+        nested.put(path.substring(dot + 1), value);
+    }
+}
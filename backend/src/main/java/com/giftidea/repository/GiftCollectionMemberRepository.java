@@ -0,0 +1,31 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.GiftCollectionMember;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GiftCollectionMemberRepository extends JpaRepository<GiftCollectionMember, Long> {
+
+    @Query("SELECT m.giftId FROM GiftCollectionMember m WHERE m.collectionId = :collectionId ORDER BY m.giftId")
+    List<Long> findGiftIds(Long collectionId);
+
+    // Rows of {giftId, collectionId}
+    @Query("SELECT m.giftId, m.collectionId FROM GiftCollectionMember m WHERE m.giftId IN :giftIds")
+    List<Object[]> findMemberships(Collection<Long> giftIds);
+
+    long countByCollectionId(Long collectionId);
+
+    // Rows of {collectionId, count}
+    @Query("SELECT m.collectionId, COUNT(m) FROM GiftCollectionMember m GROUP BY m.collectionId")
+    List<Object[]> countByCollection();
+
+    @Modifying
+    @Query("DELETE FROM GiftCollectionMember m WHERE m.collectionId = :collectionId")
+    int deleteByCollection(Long collectionId);
+}
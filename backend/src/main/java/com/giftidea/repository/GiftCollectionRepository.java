@@ -0,0 +1,9 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.GiftCollection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GiftCollectionRepository extends JpaRepository<GiftCollection, Long> {
+}
@@ -1,14 +1,17 @@
 package com.giftidea.repository;
 
 import com.giftidea.model.Gift;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface GiftRepository extends JpaRepository<Gift, Long> {
+public interface GiftRepository extends JpaRepository<Gift, Long>, GiftRepositoryCustom {
     
     List<Gift> findByCategory(String category);
     
@@ -18,4 +21,33 @@ public interface GiftRepository extends JpaRepository<Gift, Long> {
     
     @Query("SELECT g FROM Gift g WHERE g.price <= :maxPrice")
     List<Gift> findByPriceLessThanEqual(Double maxPrice);
-} 
\ No newline at end of file
+
+    Slice<Gift> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT g.id FROM Gift g WHERE g.id > :after ORDER BY g.id")
+    List<Long> findIdsAfter(Long after, Pageable pageable);
+
+    @Query("SELECT g.id FROM Gift g WHERE g.category = :category AND g.id > :after ORDER BY g.id")
+    List<Long> findIdsByCategoryAfter(String category, Long after, Pageable pageable);
+
+    @Query("SELECT g.id FROM Gift g WHERE g.id IN :ids ORDER BY g.id")
+    List<Long> findExistingIds(List<Long> ids);
+
+    // Set-based maintenance updates: prices are rounded to cents and never go below zero, and only
+    // rows that actually change are counted
+
+    @Modifying
+    @Query("UPDATE Gift g SET g.price = greatest(round(g.price * :factor + :delta, 2), 0) " +
+            "WHERE g.id IN :ids AND g.price IS NOT NULL " +
+            "AND g.price <> greatest(round(g.price * :factor + :delta, 2), 0)")
+    int adjustPrices(List<Long> ids, double factor, double delta);
+
+    @Modifying
+    @Query("UPDATE Gift g SET g.category = :category " +
+            "WHERE g.id IN :ids AND (g.category IS NULL OR g.category <> :category)")
+    int updateCategory(List<Long> ids, String category);
+
+    @Modifying
+    @Query("UPDATE Gift g SET g.isFavorite = false WHERE g.id IN :ids AND g.isFavorite = true")
+    int clearFavorites(List<Long> ids);
+}
@@ -0,0 +1,21 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.Gift;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class GiftRepositoryCustomImpl implements GiftRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Collection<String> fields, Specification<Gift> filter) {
+        return FieldProjections.select(entityManager, Gift.class, fields, filter);
+    }
+}
@@ -0,0 +1,21 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.LoyaltyEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LoyaltyEventRepository extends JpaRepository<LoyaltyEvent, Long> {
+
+    List<LoyaltyEvent> findByUserIdOrderByIdDesc(String userId, Pageable pageable);
+
+    // Per user: balance change, points earned and last row id of the rows after the user's balance row
+    @Query("SELECT e.userId, SUM(e.points), SUM(CASE WHEN e.points > 0 THEN e.points ELSE 0 END), MAX(e.id) " +
+           "FROM LoyaltyEvent e LEFT JOIN LoyaltySnapshot s ON s.userId = e.userId " +
+           "WHERE s.userId IS NULL OR e.id > s.asOfEventId GROUP BY e.userId")
+    List<Object[]> sumUnappliedByUser();
+}
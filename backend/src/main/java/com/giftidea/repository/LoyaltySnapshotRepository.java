@@ -0,0 +1,9 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.LoyaltySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoyaltySnapshotRepository extends JpaRepository<LoyaltySnapshot, String> {
+}
@@ -1,13 +1,60 @@
 package com.giftidea.repository;
 
 import com.giftidea.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
     List<Product> findByCategory(String category);
     List<Product> findByNameContainingIgnoreCase(String keyword);
-} 
\ No newline at end of file
+
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<Long> findIdsAfter(Long after, Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.category = :category AND p.id > :after ORDER BY p.id")
+    List<Long> findIdsByCategoryAfter(String category, Long after, Pageable pageable);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Long> findExistingIds(List<Long> ids);
+
+    // Set-based maintenance updates, see GiftRepository
+
+    @Modifying
+    @Query("UPDATE Product p SET p.price = greatest(round(p.price * :factor + :delta, 2), 0) " +
+            "WHERE p.id IN :ids AND p.price <> greatest(round(p.price * :factor + :delta, 2), 0)")
+    int adjustPrices(List<Long> ids, BigDecimal factor, BigDecimal delta);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.category = :category " +
+            "WHERE p.id IN :ids AND (p.category IS NULL OR p.category <> :category)")
+    int updateCategory(List<Long> ids, String category);
+
+    boolean existsByIdAndStockQuantityIsNull(Long id);
+
+    // Conditional decrement: the row lock plus the stock check make concurrent checkouts oversell-proof
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int reserveStock(Long id, int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity " +
+            "WHERE p.id = :id AND p.stockQuantity IS NOT NULL")
+    int returnStock(Long id, int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.storeId = null WHERE p.storeId = :storeId")
+    int detachFromStore(Long storeId);
+}
@@ -0,0 +1,16 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Only the given fields of the matching rows, see FieldProjections.
+     */
+    List<Map<String, Object>> findFields(Collection<String> fields, Specification<Product> filter);
+}
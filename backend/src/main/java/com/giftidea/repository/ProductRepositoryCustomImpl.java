@@ -0,0 +1,21 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Collection<String> fields, Specification<Product> filter) {
+        return FieldProjections.select(entityManager, Product.class, fields, filter);
+    }
+}
@@ -0,0 +1,30 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.Reminder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReminderRepository extends JpaRepository<Reminder, Long> {
+
+    List<Reminder> findByUserIdOrderByFireAtAsc(String userId);
+
+    // Keyset page over (fireAt, id) for reminders due before the given instant
+    @Query("SELECT r.id, r.fireAt FROM Reminder r WHERE r.status = :status " +
+            "AND r.fireAt < :until AND (r.fireAt > :afterFireAt OR (r.fireAt = :afterFireAt AND r.id > :afterId)) " +
+            "ORDER BY r.fireAt, r.id")
+    List<Object[]> findPage(Reminder.Status status, Instant afterFireAt, Long afterId, Instant until, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Reminder r SET r.status = :to, r.sentAt = :sentAt WHERE r.id IN :ids AND r.status = :from")
+    int updateStatus(Collection<Long> ids, Reminder.Status from, Reminder.Status to, Instant sentAt);
+}
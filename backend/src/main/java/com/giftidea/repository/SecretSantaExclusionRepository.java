@@ -0,0 +1,12 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.SecretSantaExclusion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SecretSantaExclusionRepository extends JpaRepository<SecretSantaExclusion, Long> {
+    List<SecretSantaExclusion> findByGroupId(Long groupId);
+}
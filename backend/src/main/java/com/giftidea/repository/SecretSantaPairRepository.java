@@ -0,0 +1,23 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.SecretSantaPair;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SecretSantaPairRepository extends JpaRepository<SecretSantaPair, Long> {
+    List<SecretSantaPair> findByGroupId(Long groupId);
+    Page<SecretSantaPair> findByGroupId(Long groupId, Pageable pageable);
+    Optional<SecretSantaPair> findByGroupIdAndSantaId(Long groupId, Long santaId);
+
+    @Modifying
+    @Query("DELETE FROM SecretSantaPair p WHERE p.groupId = :groupId")
+    int deleteByGroupId(Long groupId);
+}
@@ -0,0 +1,13 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.SecretSantaParticipant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SecretSantaParticipantRepository extends JpaRepository<SecretSantaParticipant, Long> {
+    List<SecretSantaParticipant> findByGroupIdOrderByIdAsc(Long groupId);
+    long countByGroupId(Long groupId);
+}
@@ -0,0 +1,20 @@
+package com.giftidea.repository;
+
+import com.giftidea.dto.PurchaseLineDTO;
+import com.giftidea.model.StockReservation;
+import com.giftidea.model.StockReservationLine;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationLineRepository extends JpaRepository<StockReservationLine, Long> {
+
+    List<StockReservationLine> findByReservationIdOrderByProductIdAsc(Long reservationId);
+
+    @Query("SELECT new com.giftidea.dto.PurchaseLineDTO(l.reservationId, l.productId) FROM StockReservationLine l, "
+            + "StockReservation r WHERE r.id = l.reservationId AND r.status = :status ORDER BY l.reservationId")
+    List<PurchaseLineDTO> findLinesByStatus(StockReservation.Status status);
+}
@@ -0,0 +1,23 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<Long> findExpiredIds(StockReservation.Status status, Instant now, Pageable pageable);
+
+    // Status moves are conditional, so confirm, cancel and the expiry job cannot both win
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to, r.closedAt = :closedAt WHERE r.id = :id AND r.status = :from")
+    int updateStatus(Long id, StockReservation.Status from, StockReservation.Status to, Instant closedAt);
+}
@@ -0,0 +1,13 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.Store;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoreRepository extends JpaRepository<Store, Long> {
+
+    Slice<Store> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -0,0 +1,24 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    List<TokenRevocation> findByExpiresAtAfter(Instant now);
+
+    List<TokenRevocation> findByRevokedAtGreaterThanEqual(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
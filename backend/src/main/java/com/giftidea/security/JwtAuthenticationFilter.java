@@ -1,5 +1,7 @@
 package com.giftidea.security;
 
+import com.giftidea.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.servlet.FilterChain;
@@ -15,16 +17,20 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService revocationService;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService,
+                                   TokenRevocationService revocationService) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -34,13 +40,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
 
-        // Проверяем наличие токена в заголовке
+        // Проверяем наличие токена в заголовке; подпись и срок действия проверяются при разборе
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtils.getUsernameFromToken(jwt);
+                Claims claims = jwtUtils.parseToken(jwt);
+                if (revocationService.isRevoked(claims.getSubject(), claims.getId(),
+                        new Date(jwtUtils.getIssuedAtMillis(claims)), claims.getExpiration())) {
+                    logger.debug("JWT токен отозван");
+                } else {
+                    username = claims.getSubject();
+                }
             } catch (IllegalArgumentException e) {
                 logger.error("Невозможно получить JWT токен");
             } catch (ExpiredJwtException e) {
@@ -54,7 +65,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
 
-            if (jwtUtils.validateToken(jwt, userDetails)) {
+            if (username.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 
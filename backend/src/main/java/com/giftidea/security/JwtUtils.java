@@ -1,6 +1,7 @@
 package com.giftidea.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -12,17 +13,24 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
 public class JwtUtils {
 
+    // Время выпуска в миллисекундах: стандартный iat хранит только секунды, а отзыв всех токенов
+    // пользователя должен отличать токен, выданный сразу после отзыва, от выданного до него
+    public static final String ISSUED_AT_MILLIS = "iat_ms";
+
     @Value("${jwt.secret:yourSecretKeyHereItShouldBeVeryLongToBeSecure}")
     private String secret;
 
     @Value("${jwt.expiration:86400000}") // 1 день по умолчанию
     private long jwtExpiration;
 
+    private volatile JwtParser parser;
+
     // Получение ключа подписи
     private Key getSigningKey() {
         byte[] keyBytes = secret.getBytes();
@@ -45,13 +53,32 @@ public class JwtUtils {
         return claimsResolver.apply(claims);
     }
 
+    // Проверка подписи и срока действия с чтением всех данных из токена за один разбор
+    public Claims parseToken(String token) {
+        return getAllClaimsFromToken(token);
+    }
+
     // Чтение всех данных из токена
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            // Парсер потокобезопасен, создаём его один раз
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    // Время выпуска с точностью до миллисекунды; для токенов без iat_ms — начало секунды из iat
+    public long getIssuedAtMillis(Claims claims) {
+        Number millis = claims.get(ISSUED_AT_MILLIS, Number.class);
+        if (millis != null) {
+            return millis.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null ? 0 : issuedAt.getTime();
     }
 
     // Проверка истечения срока действия токена
@@ -68,11 +95,14 @@ public class JwtUtils {
 
     // Создание токена
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MILLIS, now);
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -0,0 +1,155 @@
+package com.giftidea.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftidea.config.RateLimitProperties;
+import com.giftidea.dto.ApiResponse;
+import com.giftidea.util.GcraRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-IP and per-user request limits by route group. Runs right after JwtAuthenticationFilter
+ * so the authenticated user is known; anonymous requests are limited by IP only.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final GcraRateLimiter limiter;
+    private final List<RouteGroup> groups = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limiter = new GcraRateLimiter(properties.getMaxKeys());
+        for (RateLimitProperties.Group group : properties.getGroups()) {
+            groups.add(new RouteGroup(group.getName(), group.getPatterns(),
+                    GcraRateLimiter.Limit.of(group.getName() + "|ip", group.getIpCapacity(), group.getIpRefillPerSecond()),
+                    GcraRateLimiter.Limit.of(group.getName() + "|user", group.getUserCapacity(), group.getUserRefillPerSecond()),
+                    Counter.builder("rate_limit.requests").tag("group", group.getName()).tag("outcome", "allowed")
+                            .register(meterRegistry),
+                    Counter.builder("rate_limit.requests").tag("group", group.getName()).tag("outcome", "rejected")
+                            .register(meterRegistry)));
+        }
+        Gauge.builder("rate_limit.keys", limiter, GcraRateLimiter::size).register(meterRegistry);
+        FunctionCounter.builder("rate_limit.untracked", limiter, GcraRateLimiter::untracked).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteGroup group = match(request.getRequestURI());
+        long waitNanos = group == null ? 0 : acquire(group, request);
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Charges one request for path to its route group, for the client and user of the given
+     * request, exactly as if it had arrived on its own. Returns 0 when allowed, otherwise the
+     * nanoseconds until it would be. Batch sub-requests skip the filter chain and use this.
+     */
+    public long acquire(String path, HttpServletRequest request) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        RouteGroup group = match(path);
+        return group == null ? 0 : acquire(group, request);
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    private long acquire(RouteGroup group, HttpServletRequest request) {
+        long now = System.nanoTime();
+        long waitNanos = limiter.tryAcquire(group.ipLimit.name() + "|" + clientIp(request), group.ipLimit, now);
+        if (waitNanos == 0) {
+            String user = currentUser();
+            if (user != null) {
+                waitNanos = limiter.tryAcquire(group.userLimit.name() + "|" + user, group.userLimit, now);
+            }
+        }
+        (waitNanos > 0 ? group.rejected : group.allowed).increment();
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleKeys() {
+        limiter.evictExpired(System.nanoTime());
+    }
+
+    private RouteGroup match(String path) {
+        for (RouteGroup group : groups) {
+            for (String pattern : group.patterns) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma >= 0 ? forwarded.substring(0, comma) : forwarded).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), ApiResponse.error("Too many requests, retry in " + retryAfterSeconds + " s"));
+    }
+
+    private record RouteGroup(String name, List<String> patterns, GcraRateLimiter.Limit ipLimit,
+                              GcraRateLimiter.Limit userLimit, Counter allowed, Counter rejected) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.giftidea.service;
+
+import com.giftidea.model.ActivityEvent;
+
+public interface ActivityService {
+
+    /**
+     * Queues an event for the activity log without waiting for it to be written. Returns false
+     * when the event was dropped because the queue stayed full. A targetId of 0 is stored as
+     * absent; quantity is 1 for a view, the result count for a search and the new quantity for
+     * a cart change.
+     */
+    boolean record(ActivityEvent.Type type, String userId, long targetId, int quantity, String query);
+}
@@ -7,4 +7,6 @@ import com.giftidea.dto.RegisterRequest;
 public interface AuthService {
     AuthResponse register(RegisterRequest request);
     AuthResponse login(LoginRequest request);
+    void logout(String token);
+    void logoutAll(String username);
 } 
\ No newline at end of file
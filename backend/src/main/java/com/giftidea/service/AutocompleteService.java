@@ -0,0 +1,12 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface AutocompleteService {
+
+    List<SuggestionDTO> suggest(String query, int limit);
+
+    void rebuild();
+}
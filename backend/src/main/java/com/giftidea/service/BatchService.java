@@ -0,0 +1,16 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.BatchRequestDTO;
+import com.giftidea.dto.BatchResultDTO;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+
+public interface BatchService {
+
+    /**
+     * Runs the sub-requests and returns their results in request order. Problems with a single
+     * sub-request are reported in its result; only an empty or oversized batch is rejected.
+     */
+    List<BatchResultDTO> execute(List<BatchRequestDTO> requests, HttpServletRequest request);
+}
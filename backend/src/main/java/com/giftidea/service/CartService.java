@@ -1,13 +1,17 @@
 package com.giftidea.service;
 
+import com.giftidea.event.CartChangedEvent;
 import com.giftidea.model.CartItem;
 import com.giftidea.model.Product;
 import com.giftidea.repository.CartItemRepository;
+import com.giftidea.repository.FieldProjections;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,17 +19,28 @@ public class CartService {
 
     private final CartItemRepository cartItemRepository;
     private final ProductService productService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public CartService(CartItemRepository cartItemRepository, ProductService productService) {
+    public CartService(CartItemRepository cartItemRepository, ProductService productService,
+                       ApplicationEventPublisher eventPublisher) {
         this.cartItemRepository = cartItemRepository;
         this.productService = productService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<CartItem> getCartItemsForUser(String userId) {
         return cartItemRepository.findByUserId(userId);
     }
 
+    // Sparse fieldset variant: only the given fields (plus id), e.g. quantity or product.name
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCartItemsForUser(String userId, List<String> fields) {
+        return FieldProjections.query(() -> cartItemRepository.findFields(fields,
+                (root, query, cb) -> cb.equal(root.get("userId"), userId)));
+    }
+
     @Transactional
     public CartItem addToCart(String userId, Long productId, Integer quantity) {
         Optional<Product> productOpt = productService.getProductById(productId);
@@ -49,30 +64,39 @@ public class CartService {
             newCartItem.setUserId(userId);
             newCartItem.setProduct(product);
             newCartItem.setQuantity(quantity);
-            return cartItemRepository.save(newCartItem);
+            CartItem savedCartItem = cartItemRepository.save(newCartItem);
+            eventPublisher.publishEvent(new CartChangedEvent(userId));
+            return savedCartItem;
         }
     }
 
     @Transactional
-    public void updateCartItemQuantity(Long cartItemId, Integer quantity) {
+    public CartItem updateCartItemQuantity(Long cartItemId, Integer quantity) {
         Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
         if (cartItemOpt.isPresent()) {
             CartItem cartItem = cartItemOpt.get();
             cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
+            return cartItemRepository.save(cartItem);
         } else {
             throw new IllegalArgumentException("Cart item with id " + cartItemId + " not found");
         }
     }
 
+    // Returns the removed item, empty when there was none
     @Transactional
-    public void removeFromCart(Long cartItemId) {
-        cartItemRepository.deleteById(cartItemId);
+    public Optional<CartItem> removeFromCart(Long cartItemId) {
+        Optional<CartItem> cartItemOpt = cartItemRepository.findById(cartItemId);
+        cartItemOpt.ifPresent(cartItem -> {
+            cartItemRepository.delete(cartItem);
+            eventPublisher.publishEvent(new CartChangedEvent(cartItem.getUserId()));
+        });
+        return cartItemOpt;
     }
 
     @Transactional
     public void clearCart(String userId) {
         List<CartItem> userCartItems = cartItemRepository.findByUserId(userId);
         cartItemRepository.deleteAll(userCartItems);
+        eventPublisher.publishEvent(new CartChangedEvent(userId));
     }
 } 
\ No newline at end of file
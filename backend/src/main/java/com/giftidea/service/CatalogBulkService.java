@@ -0,0 +1,21 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.BulkUpdateDTO;
+import com.giftidea.dto.BulkUpdateResultDTO;
+
+/**
+ * Catalog maintenance as set-based updates, committed in chunks. Each chunk publishes one
+ * catalog change event for all its ids.
+ */
+public interface CatalogBulkService {
+
+    BulkUpdateResultDTO adjustGiftPrices(BulkUpdateDTO request);
+
+    BulkUpdateResultDTO recategorizeGifts(BulkUpdateDTO request);
+
+    BulkUpdateResultDTO resetGiftFavorites(BulkUpdateDTO request);
+
+    BulkUpdateResultDTO adjustProductPrices(BulkUpdateDTO request);
+
+    BulkUpdateResultDTO recategorizeProducts(BulkUpdateDTO request);
+}
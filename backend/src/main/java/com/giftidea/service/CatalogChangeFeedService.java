@@ -0,0 +1,18 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.CatalogChangesDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface CatalogChangeFeedService {
+
+    /**
+     * Upserts and deletions since the given version, or a full snapshot when the version is
+     * unknown or older than the change log retention.
+     */
+    CatalogChangesDTO getChanges(long since);
+
+    /**
+     * Server-sent event stream that starts with getChanges(since) and then pushes new changes.
+     */
+    SseEmitter subscribe(long since);
+}
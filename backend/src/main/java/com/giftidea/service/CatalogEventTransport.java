@@ -0,0 +1,24 @@
+package com.giftidea.service;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.event.CatalogEventMessage;
+
+import java.util.List;
+
+/**
+ * Carries catalog change events between application instances so each node can keep
+ * its local caches and indexes in step with writes made elsewhere.
+ */
+public interface CatalogEventTransport {
+
+    /**
+     * Sends an event raised on this node. Called inside the writing transaction just before
+     * it commits, or right away when the write was not transactional.
+     */
+    void send(CatalogChangeEvent event);
+
+    /**
+     * Events raised on other nodes since the previous call, oldest first, at most maxEvents.
+     */
+    List<CatalogEventMessage> receive(int maxEvents);
+}
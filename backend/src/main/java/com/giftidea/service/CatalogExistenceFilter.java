@@ -0,0 +1,163 @@
+package com.giftidea.service;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.util.IdBitmap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Exact set of live gift and product ids, so by-id lookups of ids that do not exist are answered
+ * without a query. Only ids up to the highest one the last rebuild read from the database are
+ * definite misses: a higher id may have been created on another instance whose event has not
+ * arrived yet, even when this node has since created a higher one itself, so it still goes to the
+ * database, and a hit there adds it. Catalog change events keep the sets current; a periodic
+ * rebuild repairs anything a missed event left behind and moves the trusted range up.
+ */
+@Service
+public class CatalogExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogExistenceFilter.class);
+
+    private static final int LOAD_PAGE_SIZE = 10000;
+
+    private final GiftRepository giftRepository;
+    private final ProductRepository productRepository;
+    private final Counter giftMisses;
+    private final Counter productMisses;
+
+    // Null until the first load finishes: nothing is a definite miss before that
+    private volatile LiveIds gifts;
+    private volatile LiveIds products;
+
+    // Changes seen while a rebuild is reading, replayed onto the rebuilt sets; guarded by this
+    private List<CatalogChangeEvent> duringRebuild;
+
+    public CatalogExistenceFilter(GiftRepository giftRepository, ProductRepository productRepository,
+                                  MeterRegistry meterRegistry) {
+        this.giftRepository = giftRepository;
+        this.productRepository = productRepository;
+        this.giftMisses = Counter.builder("existence_filter.misses").tag("entity", "gift").register(meterRegistry);
+        this.productMisses = Counter.builder("existence_filter.misses").tag("entity", "product").register(meterRegistry);
+        Gauge.builder("existence_filter.confirmed_max_id", this, filter -> confirmedMaxId(filter.gifts))
+                .tag("entity", "gift").register(meterRegistry);
+        Gauge.builder("existence_filter.confirmed_max_id", this, filter -> confirmedMaxId(filter.products))
+                .tag("entity", "product").register(meterRegistry);
+    }
+
+    /**
+     * True when the id certainly has no row, so the caller can answer not found without a query.
+     */
+    public boolean isAbsent(CatalogChangeEvent.Entity entity, long id) {
+        LiveIds live = entity == CatalogChangeEvent.Entity.GIFT ? gifts : products;
+        if (live == null || id > live.confirmedMaxId() && id > 0 || live.ids().contains(id)) {
+            return false;
+        }
+        (entity == CatalogChangeEvent.Entity.GIFT ? giftMisses : productMisses).increment();
+        return true;
+    }
+
+    /**
+     * Records an id the database just returned.
+     */
+    public void add(CatalogChangeEvent.Entity entity, long id) {
+        LiveIds live = entity == CatalogChangeEvent.Entity.GIFT ? gifts : products;
+        if (live != null) {
+            live.ids().add(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${existence-filter.rebuild-interval-ms:600000}",
+            fixedDelayString = "${existence-filter.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (this) {
+            duringRebuild = new ArrayList<>();
+        }
+        LiveIds rebuiltGifts;
+        LiveIds rebuiltProducts;
+        try {
+            rebuiltGifts = load(giftRepository::findIdsAfter);
+            rebuiltProducts = load(productRepository::findIdsAfter);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                duringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            for (CatalogChangeEvent event : duringRebuild) {
+                apply((event.entity() == CatalogChangeEvent.Entity.GIFT ? rebuiltGifts : rebuiltProducts).ids(), event);
+            }
+            duringRebuild = null;
+            gifts = rebuiltGifts;
+            products = rebuiltProducts;
+        }
+        log.info("Existence filter built: {} gifts, {} products in {} ms", rebuiltGifts.ids().size(),
+                rebuiltProducts.ids().size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        LiveIds live;
+        synchronized (this) {
+            if (duringRebuild != null) {
+                duringRebuild.add(event);
+            }
+            live = event.entity() == CatalogChangeEvent.Entity.GIFT ? gifts : products;
+        }
+        if (live != null) {
+            apply(live.ids(), event);
+        }
+    }
+
+    private static void apply(IdBitmap ids, CatalogChangeEvent event) {
+        for (Long id : event.ids()) {
+            if (event.type() == CatalogChangeEvent.Type.DELETE) {
+                ids.remove(id);
+            } else {
+                ids.add(id);
+            }
+        }
+    }
+
+    // The trusted range ends at what the database returned, before any event is replayed on top
+    private static LiveIds load(BiFunction<Long, Pageable, List<Long>> idsAfter) {
+        IdBitmap ids = new IdBitmap();
+        Pageable page = PageRequest.of(0, LOAD_PAGE_SIZE);
+        long lastId = 0;
+        List<Long> batch;
+        do {
+            batch = idsAfter.apply(lastId, page);
+            for (Long id : batch) {
+                ids.add(id);
+                lastId = id;
+            }
+        } while (batch.size() == LOAD_PAGE_SIZE);
+        return new LiveIds(ids, lastId);
+    }
+
+    private static double confirmedMaxId(LiveIds live) {
+        return live == null ? 0 : live.confirmedMaxId();
+    }
+
+    // The set and the range it can be trusted for are swapped together
+    private record LiveIds(IdBitmap ids, long confirmedMaxId) {
+    }
+}
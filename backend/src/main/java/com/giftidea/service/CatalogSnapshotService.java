@@ -0,0 +1,11 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.CatalogStatsDTO;
+
+public interface CatalogSnapshotService {
+
+    CatalogStatsDTO getStats(PriceHistogramService.Source source, String category,
+                             Double minPrice, Double maxPrice, String keyword);
+
+    void refresh();
+}
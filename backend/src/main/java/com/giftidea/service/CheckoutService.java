@@ -0,0 +1,16 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.ReservationDTO;
+
+public interface CheckoutService {
+
+    ReservationDTO checkout(String userId);
+
+    ReservationDTO getReservation(Long id);
+
+    ReservationDTO confirm(Long reservationId);
+
+    ReservationDTO cancel(Long reservationId);
+
+    int releaseExpired();
+}
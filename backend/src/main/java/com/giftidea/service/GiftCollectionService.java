@@ -0,0 +1,20 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.GiftCollectionDTO;
+import com.giftidea.dto.GiftDTO;
+
+import java.util.List;
+
+public interface GiftCollectionService {
+
+    List<GiftCollectionDTO> getAllCollections();
+
+    GiftCollectionDTO getCollection(Long id);
+
+    // Reads the materialized membership; the rule is not evaluated
+    List<GiftDTO> getCollectionGifts(Long id);
+
+    GiftCollectionDTO createCollection(GiftCollectionDTO collectionDTO);
+
+    void deleteCollection(Long id);
+}
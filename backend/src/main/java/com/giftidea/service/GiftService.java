@@ -2,13 +2,21 @@ package com.giftidea.service;
 
 import com.giftidea.dto.GiftDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface GiftService {
     
     List<GiftDTO> getAllGifts();
     
     GiftDTO getGiftById(Long id);
+
+    // Misses return the shared empty Optional instead of throwing, see CatalogExistenceFilter
+    Optional<GiftDTO> findGiftById(Long id);
+
+    List<GiftDTO> getGiftsByIds(Collection<Long> ids);
     
     GiftDTO createGift(GiftDTO giftDTO);
     
@@ -25,4 +33,16 @@ public interface GiftService {
     List<GiftDTO> getGiftsByMaxPrice(Double maxPrice);
     
     GiftDTO toggleFavorite(Long id);
+
+    // Sparse fieldset variants of the lists above: only the given fields (plus id) of each gift
+
+    List<Map<String, Object>> getAllGifts(List<String> fields);
+
+    List<Map<String, Object>> getGiftsByCategory(String category, List<String> fields);
+
+    List<Map<String, Object>> getFavoriteGifts(List<String> fields);
+
+    List<Map<String, Object>> searchGiftsByName(String keyword, List<String> fields);
+
+    List<Map<String, Object>> getGiftsByMaxPrice(Double maxPrice, List<String> fields);
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.giftidea.service;
+
+import java.io.IOException;
+
+/**
+ * Source of original catalog images for the thumbnail cache. The default reads them over HTTP
+ * from allowed hosts; a directory-backed origin can stand in for local runs and tests.
+ */
+public interface ImageOrigin {
+
+    /**
+     * The original image bytes. Throws IllegalArgumentException for URLs this origin refuses
+     * and IOException when the image cannot be read.
+     */
+    byte[] fetch(String url) throws IOException;
+}
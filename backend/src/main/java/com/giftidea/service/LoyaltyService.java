@@ -0,0 +1,24 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.LoyaltyAccountDTO;
+import com.giftidea.dto.LoyaltyEventDTO;
+import com.giftidea.model.LoyaltyEvent;
+
+import java.util.List;
+
+public interface LoyaltyService {
+
+    LoyaltyAccountDTO getAccount(String userId);
+
+    List<LoyaltyEventDTO> getHistory(String userId, int limit);
+
+    /**
+     * Appends an award to the ledger; returns once it is committed.
+     */
+    LoyaltyEventDTO award(String userId, long points, LoyaltyEvent.Reason reason, String reference);
+
+    /**
+     * Spends points; fails with IllegalStateException when the balance is too low.
+     */
+    LoyaltyEventDTO redeem(String userId, long points, String reference);
+}
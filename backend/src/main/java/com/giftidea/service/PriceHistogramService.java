@@ -0,0 +1,12 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.PriceHistogramDTO;
+
+public interface PriceHistogramService {
+
+    enum Source { ALL, GIFT, PRODUCT }
+
+    PriceHistogramDTO getHistogram(Source source, String category);
+
+    void rebuild();
+}
@@ -1,44 +1,117 @@
 package com.giftidea.service;
 
+import com.giftidea.config.ReadYourWrites;
+import com.giftidea.event.CatalogChangeEvent;
 import com.giftidea.model.Product;
+import com.giftidea.repository.FieldProjections;
 import com.giftidea.repository.ProductRepository;
+import com.giftidea.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogExistenceFilter existenceFilter;
+    // Concurrent reads of the same hot key share one database load
+    private final SingleFlight<Long, Optional<Product>> productLoads = new SingleFlight<>();
+    private final SingleFlight<String, List<Product>> categoryLoads = new SingleFlight<>();
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+                          CatalogExistenceFilter existenceFilter, MeterRegistry meterRegistry) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.existenceFilter = existenceFilter;
+        productLoads.registerMetrics(meterRegistry, "product-by-id");
+        categoryLoads.registerMetrics(meterRegistry, "product-lists");
     }
 
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+        if (existenceFilter.isAbsent(CatalogChangeEvent.Entity.PRODUCT, id)) {
+            return Optional.empty();
+        }
+        Optional<Product> product = loadProduct(id);
+        product.ifPresent(found -> existenceFilter.add(CatalogChangeEvent.Entity.PRODUCT, id));
+        return product;
     }
 
+    private Optional<Product> loadProduct(Long id) {
+        // Entities from another caller's load must not leak into a transaction that may write them,
+        // and a caller pinned to the primary must not join a load that may have read a lagging replica
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.isPinned()) {
+            return productRepository.findById(id);
+        }
+        return productLoads.load(id, () -> productRepository.findById(id));
+    }
+
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category);
+        if (ReadYourWrites.isPinned()) {
+            return productRepository.findByCategory(category);
+        }
+        return categoryLoads.load(category, () -> List.copyOf(productRepository.findByCategory(category)));
     }
 
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String keyword) {
         return productRepository.findByNameContainingIgnoreCase(keyword);
     }
 
+    // Sparse fieldset variants of the lists above: only the given fields (plus id) of each product
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllProducts(List<String> fields) {
+        return FieldProjections.query(() -> productRepository.findFields(fields, null));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getProductsByCategory(String category, List<String> fields) {
+        return FieldProjections.query(() -> productRepository.findFields(fields,
+                (root, query, cb) -> cb.equal(root.get("category"), category)));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchProducts(String keyword, List<String> fields) {
+        return FieldProjections.query(() -> productRepository.findFields(fields,
+                FieldProjections.containsIgnoreCase("name", keyword)));
+    }
+
+    @Transactional
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(CatalogChangeEvent.upsert(CatalogChangeEvent.Entity.PRODUCT, savedProduct.getId()));
+        return savedProduct;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.delete(CatalogChangeEvent.Entity.PRODUCT, id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.entity() == CatalogChangeEvent.Entity.PRODUCT) {
+            event.ids().forEach(productLoads::forget);
+            categoryLoads.forgetAll();
+        }
     }
-} 
\ No newline at end of file
+}
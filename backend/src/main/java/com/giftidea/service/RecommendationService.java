@@ -0,0 +1,14 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.RecommendedProductDTO;
+
+import java.util.List;
+
+public interface RecommendationService {
+
+    List<RecommendedProductDTO> getRelatedProducts(Long productId, int limit);
+
+    List<RecommendedProductDTO> getRecommendationsForUser(String userId, int limit);
+
+    void rebuild();
+}
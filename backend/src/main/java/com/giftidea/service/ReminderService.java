@@ -0,0 +1,17 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.ReminderDTO;
+import com.giftidea.dto.ReminderStatsDTO;
+
+import java.util.List;
+
+public interface ReminderService {
+
+    ReminderDTO createReminder(ReminderDTO reminderDTO);
+
+    List<ReminderDTO> getRemindersForUser(String userId);
+
+    void cancelReminder(Long id);
+
+    ReminderStatsDTO getStats();
+}
@@ -0,0 +1,14 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.ReminderDTO;
+
+import java.util.List;
+
+/**
+ * Receives batches of due reminders from the dispatch pipeline.
+ * Implementations deliver them to users, e.g. via push notifications.
+ */
+public interface ReminderSink {
+
+    void deliver(List<ReminderDTO> reminders);
+}
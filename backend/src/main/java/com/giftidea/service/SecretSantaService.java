@@ -0,0 +1,28 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.DistributionPairDTO;
+import com.giftidea.dto.DistributionResultDTO;
+import com.giftidea.dto.ExclusionDTO;
+import com.giftidea.dto.ParticipantDTO;
+import com.giftidea.dto.SecretSantaGroupDTO;
+
+import java.util.List;
+
+public interface SecretSantaService {
+
+    SecretSantaGroupDTO createGroup(SecretSantaGroupDTO groupDTO);
+
+    SecretSantaGroupDTO getGroupById(Long id);
+
+    List<ParticipantDTO> addParticipants(Long groupId, List<ParticipantDTO> participants);
+
+    List<ParticipantDTO> getParticipants(Long groupId);
+
+    void addExclusions(Long groupId, List<ExclusionDTO> exclusions);
+
+    DistributionResultDTO distribute(Long groupId);
+
+    List<DistributionPairDTO> getDistribution(Long groupId, int page, int size);
+
+    DistributionPairDTO getRecipient(Long groupId, Long santaId);
+}
@@ -0,0 +1,15 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.GiftDTO;
+import com.giftidea.model.Product;
+
+import java.util.List;
+
+public interface SimilarityService {
+
+    List<GiftDTO> findSimilarGifts(Long giftId, int limit);
+
+    List<Product> findSimilarProducts(Long productId, int limit);
+
+    void rebuild();
+}
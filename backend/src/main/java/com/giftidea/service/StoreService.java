@@ -0,0 +1,27 @@
+package com.giftidea.service;
+
+import com.giftidea.dto.NearbyStoreDTO;
+import com.giftidea.dto.StoreDTO;
+
+import java.util.List;
+
+public interface StoreService {
+
+    StoreDTO createStore(StoreDTO storeDTO);
+
+    StoreDTO getStoreById(Long id);
+
+    List<StoreDTO> getAllStores();
+
+    StoreDTO updateStore(Long id, StoreDTO storeDTO);
+
+    void deleteStore(Long id);
+
+    List<NearbyStoreDTO> findNearest(double latitude, double longitude, int limit, String category,
+                                     boolean inStockOnly, double radiusKm);
+
+    List<NearbyStoreDTO> findWithin(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                    String category, boolean inStockOnly, int limit);
+
+    void rebuildIndex();
+}
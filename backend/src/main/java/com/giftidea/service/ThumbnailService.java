@@ -0,0 +1,19 @@
+package com.giftidea.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface ThumbnailService {
+
+    /**
+     * The cached thumbnail of the image at the URL, scaled to one of the configured widths.
+     * The first request fetches the original and creates it.
+     */
+    Thumbnail getThumbnail(String url, int width) throws IOException;
+
+    List<Integer> getWidths();
+
+    record Thumbnail(Path file, long length, String etag) {
+    }
+}
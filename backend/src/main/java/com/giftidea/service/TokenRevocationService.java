@@ -0,0 +1,20 @@
+package com.giftidea.service;
+
+import java.util.Date;
+
+public interface TokenRevocationService {
+
+    /**
+     * Whether the token was revoked, answered from memory without a database query. issuedAt
+     * should carry milliseconds (JwtUtils.getIssuedAtMillis), so a token issued right after a
+     * revoke-all in the same second stays valid.
+     */
+    boolean isRevoked(String username, String jti, Date issuedAt, Date expiration);
+
+    void revoke(String username, String jti, Date expiration);
+
+    /**
+     * Revokes every token of the user issued up to now.
+     */
+    void revokeAll(String username);
+}
@@ -0,0 +1,238 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.model.ActivityEvent;
+import com.giftidea.service.ActivityService;
+import com.giftidea.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Activity log for analytics. Request threads fill a preallocated slot in a lock-free ring and
+ * return; a single writer thread drains the ring into JDBC batch inserts, so recording an event
+ * costs a CAS, two atomic increments and a few field writes instead of a database round trip per request. When the ring
+ * is full a request waits up to activity.max-wait-ms for space and then drops the event, which is
+ * counted. Events still in the ring are lost if the process dies; on shutdown they are flushed,
+ * and events recorded once shutdown has begun are rejected and counted instead of being claimed.
+ */
+@Service
+public class ActivityServiceImpl implements ActivityService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityServiceImpl.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_events (type, user_id, target_id, quantity, query, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    // How often the writer retries a claimed but unpublished slot after shutdown before giving up
+    private static final int SHUTDOWN_RETRIES = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${activity.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${activity.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${activity.idle-wait-ms:100}")
+    private long idleWaitMs;
+
+    @Value("${activity.max-wait-ms:0}")
+    private long maxWaitMs;
+
+    private MpscRingBuffer<Slot> ring;
+    private Thread writer;
+    private volatile boolean running;
+    // Requests between the running check and publishing; the writer waits for them before it exits
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Writer thread only
+    private Slot[] batch;
+
+    private Timer publishTimer;
+    private Counter published;
+    private Counter dropped;
+    private Counter rejected;
+    private Counter written;
+    private Counter failed;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        ring = new MpscRingBuffer<>(bufferSize, Slot::new);
+        batch = new Slot[batchSize];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = new Slot();
+        }
+
+        publishTimer = Timer.builder("activity.publish").register(meterRegistry);
+        published = Counter.builder("activity.events").tag("outcome", "published").register(meterRegistry);
+        dropped = Counter.builder("activity.events").tag("outcome", "dropped").register(meterRegistry);
+        rejected = Counter.builder("activity.events").tag("outcome", "rejected").register(meterRegistry);
+        written = Counter.builder("activity.events").tag("outcome", "written").register(meterRegistry);
+        failed = Counter.builder("activity.events").tag("outcome", "failed").register(meterRegistry);
+        batchSizes = DistributionSummary.builder("activity.batch.size").register(meterRegistry);
+        Gauge.builder("activity.buffer.size", ring, MpscRingBuffer::size).register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::runWriter, "activity-writer");
+        writer.start();
+        log.info("Activity log started: ring of {} events, batches of {}", ring.capacity(), batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public boolean record(ActivityEvent.Type type, String userId, long targetId, int quantity, String query) {
+        // Counted before running is read, so the writer cannot miss a request that saw it still true
+        inFlight.incrementAndGet();
+        try {
+            if (!running) {
+                rejected.increment();
+                return false;
+            }
+            return publish(type, userId, targetId, quantity, query);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private boolean publish(ActivityEvent.Type type, String userId, long targetId, int quantity, String query) {
+        long started = System.nanoTime();
+        long position = ring.tryClaim();
+        if (position < 0 && maxWaitMs > 0) {
+            long deadline = started + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            while (position < 0 && running && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                position = ring.tryClaim();
+            }
+        }
+        if (position < 0) {
+            dropped.increment();
+            publishTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return false;
+        }
+        Slot slot = ring.slot(position);
+        slot.type = type;
+        slot.userId = userId;
+        slot.targetId = targetId;
+        slot.quantity = quantity;
+        slot.query = query;
+        slot.occurredAt = System.currentTimeMillis();
+        ring.publish(position);
+        published.increment();
+        publishTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return true;
+    }
+
+    private void runWriter() {
+        int retries = 0;
+        while (true) {
+            int count = ring.drain(batch.length, this::copy);
+            if (count > 0) {
+                write(count);
+                retries = 0;
+            } else if (running) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMs));
+            } else if (ring.size() == 0 && inFlight.get() == 0) {
+                break;
+            } else if (retries++ < SHUTDOWN_RETRIES) {
+                // A request has claimed the next slot but not published it yet, or is about to
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } else {
+                failed.increment(ring.size());
+                log.warn("Activity writer stopped with {} events it could not drain", ring.size());
+                break;
+            }
+        }
+    }
+
+    private void copy(Slot source, int index) {
+        Slot target = batch[index];
+        target.type = source.type;
+        target.userId = source.userId;
+        target.targetId = source.targetId;
+        target.quantity = source.quantity;
+        target.query = source.query;
+        target.occurredAt = source.occurredAt;
+        // Let the strings go now rather than one lap later
+        source.userId = null;
+        source.query = null;
+    }
+
+    private void write(int count) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    Slot event = batch[i];
+                    statement.setString(1, event.type.name());
+                    statement.setString(2, event.userId);
+                    if (event.targetId > 0) {
+                        statement.setLong(3, event.targetId);
+                    } else {
+                        statement.setNull(3, Types.BIGINT);
+                    }
+                    statement.setInt(4, event.quantity);
+                    statement.setString(5, event.query == null || event.query.length() <= MAX_QUERY_LENGTH
+                            ? event.query : event.query.substring(0, MAX_QUERY_LENGTH));
+                    statement.setTimestamp(6, new Timestamp(event.occurredAt));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+            written.increment(count);
+            batchSizes.record(count);
+        } catch (RuntimeException e) {
+            failed.increment(count);
+            log.warn("Activity batch of {} events failed: {}", count, e.getMessage());
+        }
+        for (int i = 0; i < count; i++) {
+            batch[i].userId = null;
+            batch[i].query = null;
+        }
+    }
+
+    // One preallocated event, reused for every lap of the ring
+    private static final class Slot {
+        ActivityEvent.Type type;
+        String userId;
+        long targetId;
+        int quantity;
+        String query;
+        long occurredAt;
+    }
+}
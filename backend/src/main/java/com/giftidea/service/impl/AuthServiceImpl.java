@@ -7,6 +7,8 @@ import com.giftidea.model.User;
 import com.giftidea.repository.UserRepository;
 import com.giftidea.security.JwtUtils;
 import com.giftidea.service.AuthService;
+import com.giftidea.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -32,6 +34,9 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private TokenRevocationService revocationService;
+
     @Override
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -82,4 +87,19 @@ public class AuthServiceImpl implements AuthService {
         
         return new AuthResponse(token, user.getUsername(), user.getEmail());
     }
-} 
\ No newline at end of file
+
+    @Override
+    public void logout(String token) {
+        // Разбор проверяет подпись: отозвать можно только действующий токен
+        Claims claims = jwtUtils.parseToken(token);
+        if (claims.getId() == null) {
+            throw new IllegalArgumentException("Токен выпущен без идентификатора, используйте выход на всех устройствах");
+        }
+        revocationService.revoke(claims.getSubject(), claims.getId(), claims.getExpiration());
+    }
+
+    @Override
+    public void logoutAll(String username) {
+        revocationService.revokeAll(username);
+    }
+}
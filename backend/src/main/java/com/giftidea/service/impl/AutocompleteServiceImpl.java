@@ -0,0 +1,267 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.ProductPopularityDTO;
+import com.giftidea.dto.SuggestionDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.model.Gift;
+import com.giftidea.model.Product;
+import com.giftidea.repository.CartItemRepository;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.service.AutocompleteService;
+import com.giftidea.util.CompactTrie;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Search-box suggestions served from an immutable trie over gift names, product names
+ * and categories. The trie is rebuilt on a background thread after catalog writes and
+ * swapped in atomically, so lookups never touch the database.
+ */
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteServiceImpl.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final int MAX_WORD_SUFFIXES = 4;
+    private static final int FAVORITE_BOOST = 5;
+
+    private static final String LATIN_LAYOUT = "qwertyuiop[]asdfghjkl;'zxcvbnm,.`";
+    private static final String CYRILLIC_LAYOUT = "йцукенгшщзхъфывапролджэячсмитьбюё";
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Value("${autocomplete.rebuild-delay-ms:2000}")
+    private long rebuildDelayMs;
+
+    @Value("${autocomplete.node-budget:20000}")
+    private int nodeBudget;
+
+    private final AtomicReference<Index> index = new AtomicReference<>(
+            new Index(CompactTrie.builder().build(), Collections.emptyList()));
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autocomplete-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public List<SuggestionDTO> suggest(String query, int limit) {
+        if (query == null) {
+            return Collections.emptyList();
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int maxEdits = normalized.length() <= 3 ? 0 : normalized.length() <= 6 ? 1 : 2;
+
+        Index current = index.get();
+        Map<Integer, CompactTrie.Match> matches = new LinkedHashMap<>();
+        merge(matches, current.trie.search(normalized, maxEdits, limit, nodeBudget));
+        String switched = normalize(switchLayout(query));
+        if (!switched.equals(normalized)) {
+            merge(matches, current.trie.search(switched, maxEdits, limit, nodeBudget));
+        }
+
+        return matches.values().stream()
+                .sorted((a, b) -> a.distance() != b.distance()
+                        ? Integer.compare(a.distance(), b.distance())
+                        : Integer.compare(b.weight(), a.weight()))
+                .limit(limit)
+                .map(match -> current.suggestions.get(match.payload()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<Long, Long> popularity = cartItemRepository.countCartLinesByProduct().stream()
+                .collect(Collectors.toMap(ProductPopularityDTO::productId, ProductPopularityDTO::cartCount));
+
+        CompactTrie.Builder builder = CompactTrie.builder();
+        List<SuggestionDTO> suggestions = new ArrayList<>();
+        Map<String, Integer> categoryCounts = new HashMap<>();
+
+        Pageable page = PageRequest.of(0, LOAD_PAGE_SIZE);
+        long lastId = 0;
+        Slice<Gift> gifts;
+        do {
+            gifts = giftRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            for (Gift gift : gifts) {
+                int weight = 1 + (gift.isFavorite() ? FAVORITE_BOOST : 0);
+                addKeys(builder, gift.getName(), weight, suggestions.size());
+                suggestions.add(new SuggestionDTO(gift.getName(), "GIFT", gift.getId()));
+                countCategory(categoryCounts, gift.getCategory());
+                lastId = gift.getId();
+            }
+        } while (gifts.hasNext());
+
+        lastId = 0;
+        Slice<Product> products;
+        do {
+            products = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            for (Product product : products) {
+                long carts = popularity.getOrDefault(product.getId(), 0L);
+                int weight = (int) Math.min(Integer.MAX_VALUE - 1, 1 + carts);
+                addKeys(builder, product.getName(), weight, suggestions.size());
+                suggestions.add(new SuggestionDTO(product.getName(), "PRODUCT", product.getId()));
+                countCategory(categoryCounts, product.getCategory());
+                lastId = product.getId();
+            }
+        } while (products.hasNext());
+
+        for (Map.Entry<String, Integer> category : categoryCounts.entrySet()) {
+            addKeys(builder, category.getKey(), category.getValue(), suggestions.size());
+            suggestions.add(new SuggestionDTO(category.getKey(), "CATEGORY", null));
+        }
+
+        CompactTrie trie = builder.build();
+        index.set(new Index(trie, suggestions));
+        log.info("Autocomplete index built: {} suggestions, {} trie nodes in {} ms",
+                suggestions.size(), trie.nodeCount(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        // Bursts of writes collapse into a single rebuild
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.schedule(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.error("Autocomplete index rebuild failed", e);
+                }
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private static void merge(Map<Integer, CompactTrie.Match> target, List<CompactTrie.Match> matches) {
+        for (CompactTrie.Match match : matches) {
+            target.merge(match.payload(), match, (a, b) -> a.distance() <= b.distance() ? a : b);
+        }
+    }
+
+    // The full text plus suffixes starting at the next few words, so "науш" finds "Беспроводные наушники"
+    private static void addKeys(CompactTrie.Builder builder, String text, int weight, int payload) {
+        if (text == null) {
+            return;
+        }
+        String key = normalize(text);
+        builder.add(key, weight, payload);
+        int suffixes = 0;
+        for (int i = key.indexOf(' '); i >= 0 && suffixes < MAX_WORD_SUFFIXES; i = key.indexOf(' ', i + 1)) {
+            builder.add(key.substring(i + 1), weight, payload);
+            suffixes++;
+        }
+    }
+
+    private static void countCategory(Map<String, Integer> counts, String category) {
+        if (category != null && !category.isBlank()) {
+            counts.merge(category, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Lower-cases, collapses punctuation to single spaces and folds Cyrillic letters that look
+     * like Latin ones, so mixed-script input ("нaушники" with a Latin "a") still matches.
+     */
+    static String normalize(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder result = new StringBuilder(lower.length());
+        boolean separator = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                separator = true;
+                continue;
+            }
+            if (separator && result.length() > 0) {
+                result.append(' ');
+            }
+            separator = false;
+            result.append(fold(c));
+        }
+        return result.toString();
+    }
+
+    private static char fold(char c) {
+        switch (c) {
+            case 'ё':
+            case 'е':
+                return 'e';
+            case 'а':
+                return 'a';
+            case 'о':
+                return 'o';
+            case 'р':
+                return 'p';
+            case 'с':
+                return 'c';
+            case 'у':
+                return 'y';
+            case 'х':
+                return 'x';
+            case 'к':
+                return 'k';
+            default:
+                return c;
+        }
+    }
+
+    // Query typed with the wrong keyboard layout: "yfeiybrb" -> "наушники" and back
+    static String switchLayout(String query) {
+        String lower = query.toLowerCase(Locale.ROOT);
+        StringBuilder result = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            int latin = LATIN_LAYOUT.indexOf(c);
+            int cyrillic = CYRILLIC_LAYOUT.indexOf(c);
+            result.append(latin >= 0 ? CYRILLIC_LAYOUT.charAt(latin) : cyrillic >= 0 ? LATIN_LAYOUT.charAt(cyrillic) : c);
+        }
+        return result.toString();
+    }
+
+    private record Index(CompactTrie trie, List<SuggestionDTO> suggestions) {
+    }
+}
@@ -0,0 +1,244 @@
+package com.giftidea.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftidea.config.ReadYourWrites;
+import com.giftidea.dto.BatchRequestDTO;
+import com.giftidea.dto.BatchResultDTO;
+import com.giftidea.security.RateLimitFilter;
+import com.giftidea.service.BatchService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the sub-requests of POST /api/batch in parallel through the DispatcherServlet, so each one
+ * gets the same controllers, advice and error handling as a direct call. The security filters
+ * already ran for the batch request: its authentication is handed to every sub-request, which
+ * skips the filter chain. Rate limits are not skipped: every sub-request is charged to the route
+ * group of its own path, so a batch of searches costs as many search tokens as the searches
+ * sent one by one, on top of the token for the batch itself. Each sub-request has its own request
+ * attributes, parameters and response buffer (SubRequest, CapturingResponse), copied from the outer
+ * request before it is submitted; a sub-request cancelled on timeout may keep running, but it holds
+ * no reference to the outer request or response.
+ * Only GETs of allowed paths are dispatched.
+ *
+ * Virtual threads are used when the JVM has them, with a semaphore as the bound; otherwise a
+ * fixed pool with a bounded queue.
+ */
+@Service
+public class BatchServiceImpl implements BatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchServiceImpl.class);
+
+    private final DispatcherServlet dispatcherServlet;
+    private final RateLimitFilter rateLimitFilter;
+    private final ObjectMapper objectMapper;
+    private final List<String> allowedPaths;
+    private final List<String> deniedPaths;
+    private final int maxRequests;
+    private final long timeoutMs;
+    private final ExecutorService executor;
+    // Bounds virtual threads; the platform pool is bounded by its size
+    private final Semaphore permits;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final DistributionSummary batchSizes;
+
+    public BatchServiceImpl(DispatcherServlet dispatcherServlet, RateLimitFilter rateLimitFilter,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${batch.allowed-paths:/api/gifts/**,/api/products/**,/api/cart/**,/api/collections/**}") List<String> allowedPaths,
+                            @Value("${batch.denied-paths:/api/gifts/changes/stream}") List<String> deniedPaths,
+                            @Value("${batch.max-requests:10}") int maxRequests,
+                            @Value("${batch.timeout-ms:10000}") long timeoutMs,
+                            @Value("${batch.threads:16}") int threads,
+                            @Value("${batch.queue-capacity:256}") int queueCapacity) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.rateLimitFilter = rateLimitFilter;
+        this.objectMapper = objectMapper;
+        this.allowedPaths = allowedPaths;
+        this.deniedPaths = deniedPaths;
+        this.maxRequests = maxRequests;
+        this.timeoutMs = timeoutMs;
+        this.batchSizes = DistributionSummary.builder("batch.size").register(meterRegistry);
+
+        ExecutorService virtual = virtualThreadExecutor();
+        if (virtual != null) {
+            this.executor = virtual;
+            this.permits = new Semaphore(threads);
+            log.info("Batch sub-requests run on virtual threads, at most {} at a time", threads);
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, "batch-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.permits = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public List<BatchResultDTO> execute(List<BatchRequestDTO> requests, HttpServletRequest request) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one request is required");
+        }
+        if (requests.size() > maxRequests) {
+            throw new IllegalArgumentException("At most " + maxRequests + " requests are allowed in a batch");
+        }
+        batchSizes.record(requests.size());
+
+        SecurityContext context = SecurityContextHolder.getContext();
+        List<String> ids = new ArrayList<>(requests.size());
+        List<Future<BatchResultDTO>> futures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BatchRequestDTO item = requests.get(i);
+            String id = item.id() != null ? item.id() : Integer.toString(i);
+            ids.add(id);
+            String problem = validate(item);
+            if (problem != null) {
+                futures.add(CompletableFuture.completedFuture(error(id, HttpStatus.BAD_REQUEST, problem)));
+                continue;
+            }
+            long waitNanos = rateLimitFilter.acquire(pathOf(item.path()), request);
+            if (waitNanos > 0) {
+                futures.add(CompletableFuture.completedFuture(error(id, HttpStatus.TOO_MANY_REQUESTS,
+                        "Too many requests, retry in " + RateLimitFilter.retryAfterSeconds(waitNanos) + " s")));
+                continue;
+            }
+            // Built here, so the outer request is only read on its own thread and before it completes
+            SubRequest subRequest = new SubRequest(request, item.path(), context.getAuthentication());
+            CapturingResponse subResponse = new CapturingResponse();
+            try {
+                futures.add(executor.submit(() -> dispatch(id, subRequest, subResponse, context)));
+            } catch (RejectedExecutionException e) {
+                futures.add(CompletableFuture.completedFuture(error(id, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy")));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<BatchResultDTO> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            Future<BatchResultDTO> future = futures.get(i);
+            try {
+                results.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // A sub-request already in a handler may not stop; it only touches its own copies
+                future.cancel(true);
+                results.add(error(ids.get(i), HttpStatus.GATEWAY_TIMEOUT, "Timed out"));
+            } catch (ExecutionException e) {
+                results.add(error(ids.get(i), HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Interrupted while waiting for batch results");
+            }
+        }
+        return results;
+    }
+
+    private String validate(BatchRequestDTO item) {
+        if (item.method() != null && !"GET".equalsIgnoreCase(item.method())) {
+            return "Only GET requests can be batched";
+        }
+        String path = pathOf(item.path());
+        // Rejected rather than normalized, so the path matched here is the path the dispatcher routes
+        if (!path.startsWith("/") || path.contains("..") || path.contains("//") || path.contains("%")
+                || path.contains(";") || path.contains("\\")) {
+            return "Invalid path: " + item.path();
+        }
+        if (deniedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                || allowedPaths.stream().noneMatch(pattern -> pathMatcher.match(pattern, path))) {
+            return "Path is not allowed in a batch: " + path;
+        }
+        return null;
+    }
+
+    private BatchResultDTO dispatch(String id, SubRequest request, CapturingResponse response, SecurityContext context) {
+        try {
+            if (permits != null) {
+                permits.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(id, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy");
+        }
+        SecurityContextHolder.setContext(context);
+        try {
+            dispatcherServlet.service(request, response);
+            return new BatchResultDTO(id, response.getStatus(), body(response));
+        } catch (Exception e) {
+            log.debug("Batch sub-request {} failed", request.getRequestURI(), e);
+            return error(id, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+            ReadYourWrites.clear();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private Object body(CapturingResponse response) throws IOException {
+        byte[] bytes = response.body();
+        if (bytes.length == 0) {
+            return response.errorMessage();
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).getSubtype().endsWith("json")) {
+            return objectMapper.readTree(bytes);
+        }
+        return new String(bytes, response.charset());
+    }
+
+    private static BatchResultDTO error(String id, HttpStatus status, String message) {
+        return new BatchResultDTO(id, status.value(), message);
+    }
+
+    private static String pathOf(String pathAndQuery) {
+        int query = pathAndQuery.indexOf('?');
+        return query >= 0 ? pathAndQuery.substring(0, query) : pathAndQuery;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21
+            return null;
+        }
+    }
+}
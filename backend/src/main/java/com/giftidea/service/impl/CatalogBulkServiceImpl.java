@@ -0,0 +1,179 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.BulkUpdateDTO;
+import com.giftidea.dto.BulkUpdateResultDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.service.CatalogBulkService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalog updates without loading entities: target ids are read in keyset chunks and each
+ * chunk is one UPDATE ... WHERE id IN (...) in its own transaction, so locks are held briefly and
+ * a failure only rolls back the chunk it happened in (earlier chunks stay committed). Each chunk
+ * publishes a single catalog change event, so caches, indexes and the change log see one batch
+ * per chunk instead of one event per row.
+ */
+@Service
+public class CatalogBulkServiceImpl implements CatalogBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogBulkServiceImpl.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${catalog-bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Override
+    public BulkUpdateResultDTO adjustGiftPrices(BulkUpdateDTO request) {
+        PriceChange change = priceChange(request);
+        return run("price", CatalogChangeEvent.Entity.GIFT, request,
+                ids -> giftRepository.adjustPrices(ids, change.factor.doubleValue(), change.delta.doubleValue()));
+    }
+
+    @Override
+    public BulkUpdateResultDTO recategorizeGifts(BulkUpdateDTO request) {
+        String category = newCategory(request);
+        return run("category", CatalogChangeEvent.Entity.GIFT, request, ids -> giftRepository.updateCategory(ids, category));
+    }
+
+    @Override
+    public BulkUpdateResultDTO resetGiftFavorites(BulkUpdateDTO request) {
+        return run("favorites", CatalogChangeEvent.Entity.GIFT, request, giftRepository::clearFavorites);
+    }
+
+    @Override
+    public BulkUpdateResultDTO adjustProductPrices(BulkUpdateDTO request) {
+        PriceChange change = priceChange(request);
+        return run("price", CatalogChangeEvent.Entity.PRODUCT, request,
+                ids -> productRepository.adjustPrices(ids, change.factor, change.delta));
+    }
+
+    @Override
+    public BulkUpdateResultDTO recategorizeProducts(BulkUpdateDTO request) {
+        String category = newCategory(request);
+        return run("category", CatalogChangeEvent.Entity.PRODUCT, request,
+                ids -> productRepository.updateCategory(ids, category));
+    }
+
+    private BulkUpdateResultDTO run(String operation, CatalogChangeEvent.Entity entity, BulkUpdateDTO request,
+                                    ToIntFunction<List<Long>> update) {
+        int targets = (request.category() != null ? 1 : 0) + (request.ids() != null ? 1 : 0) + (request.all() ? 1 : 0);
+        if (targets != 1) {
+            throw new IllegalArgumentException("Exactly one of category, ids or all must be given");
+        }
+        long started = System.currentTimeMillis();
+        boolean gifts = entity == CatalogChangeEvent.Entity.GIFT;
+        Pageable page = PageRequest.of(0, chunkSize);
+        List<Long> requested = request.ids() == null ? null : request.ids().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+
+        int matched = 0;
+        int updated = 0;
+        int chunks = 0;
+        long lastId = 0;
+        int position = 0;
+        while (true) {
+            List<Long> chunk;
+            if (requested != null) {
+                if (position >= requested.size()) {
+                    break;
+                }
+                chunk = requested.subList(position, Math.min(position + chunkSize, requested.size()));
+                position += chunk.size();
+            } else {
+                chunk = request.all()
+                        ? (gifts ? giftRepository.findIdsAfter(lastId, page) : productRepository.findIdsAfter(lastId, page))
+                        : (gifts ? giftRepository.findIdsByCategoryAfter(request.category(), lastId, page)
+                                 : productRepository.findIdsByCategoryAfter(request.category(), lastId, page));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1);
+            }
+
+            List<Long> candidates = chunk;
+            int[] counts = transactionTemplate.execute(status -> {
+                // Requested ids may not exist; they must not reach the change event as upserts
+                List<Long> ids = requested == null ? candidates
+                        : gifts ? giftRepository.findExistingIds(candidates) : productRepository.findExistingIds(candidates);
+                if (ids.isEmpty()) {
+                    return new int[]{0, 0};
+                }
+                int changed = update.applyAsInt(ids);
+                eventPublisher.publishEvent(new CatalogChangeEvent(entity, CatalogChangeEvent.Type.UPSERT, ids));
+                return new int[]{ids.size(), changed};
+            });
+            matched += counts[0];
+            updated += counts[1];
+            chunks++;
+            if (requested == null && chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Bulk {} update of {}s: {} matched, {} updated in {} chunks, {} ms", operation,
+                entity.name().toLowerCase(Locale.ROOT), matched, updated, chunks, System.currentTimeMillis() - started);
+        return new BulkUpdateResultDTO(matched, updated, chunks);
+    }
+
+    private static PriceChange priceChange(BulkUpdateDTO request) {
+        if (request.value() == null) {
+            throw new IllegalArgumentException("Value is required");
+        }
+        String mode = request.mode() == null ? "" : request.mode().toUpperCase(Locale.ROOT);
+        switch (mode) {
+            case "PERCENT":
+                if (request.value().compareTo(HUNDRED.negate()) <= 0) {
+                    throw new IllegalArgumentException("Prices cannot drop by 100% or more");
+                }
+                return new PriceChange(BigDecimal.ONE.add(request.value().divide(HUNDRED, MathContext.DECIMAL64)),
+                        BigDecimal.ZERO);
+            case "AMOUNT":
+                return new PriceChange(BigDecimal.ONE, request.value());
+            default:
+                throw new IllegalArgumentException("Mode must be PERCENT or AMOUNT");
+        }
+    }
+
+    private static String newCategory(BulkUpdateDTO request) {
+        if (request.newCategory() == null || request.newCategory().isBlank()) {
+            throw new IllegalArgumentException("New category is required");
+        }
+        return request.newCategory().trim();
+    }
+
+    private record PriceChange(BigDecimal factor, BigDecimal delta) {
+    }
+}
@@ -0,0 +1,211 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.CatalogChangesDTO;
+import com.giftidea.dto.GiftDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.model.CatalogOutboxEvent;
+import com.giftidea.model.Product;
+import com.giftidea.repository.CatalogOutboxEventRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.service.CatalogChangeFeedService;
+import com.giftidea.service.GiftService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delta sync for app launches, served from the catalog change log. Several log rows for one id
+ * collapse into its current state: rows that still exist are upserts, the rest are deletions.
+ * A version is only handed out once every lower version is visible (or old enough to belong to
+ * a rolled back write), so a client never skips a change that commits late.
+ */
+@Service
+public class CatalogChangeFeedServiceImpl implements CatalogChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeFeedServiceImpl.class);
+
+    private static final String EVENT_NAME = "changes";
+
+    @Autowired
+    private CatalogOutboxEventRepository outboxRepository;
+
+    @Autowired
+    private GiftService giftService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${catalog-changes.max-events:5000}")
+    private int maxEvents;
+
+    @Value("${catalog-events.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${catalog-changes.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public CatalogChangesDTO getChanges(long since) {
+        return changesSince(since, false);
+    }
+
+    @Override
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        CatalogChangesDTO initial = getChanges(since);
+        if (send(subscriber, initial)) {
+            subscriber.version = initial.version();
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    // Subscribers usually share a version, so each distinct version is read once per push
+    @Scheduled(fixedDelayString = "${catalog-changes.push-interval-ms:1000}")
+    public void push() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Map<Long, CatalogChangesDTO> changesByVersion = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            CatalogChangesDTO changes = changesByVersion.computeIfAbsent(subscriber.version,
+                    version -> changesSince(version, true));
+            if (changes.version() != subscriber.version && send(subscriber, changes)) {
+                subscriber.version = changes.version();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog-changes.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        // Idle streams only notice a closed client when something is written
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private boolean send(Subscriber subscriber, CatalogChangesDTO changes) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(Long.toString(changes.version()))
+                    .name(EVENT_NAME)
+                    .data(changes));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping change feed subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    // Version 0 means "no catalog yet" from clients, but stream subscribers may hold a snapshot taken
+    // before anything was logged
+    private CatalogChangesDTO changesSince(long since, boolean clientHasCatalog) {
+        LogRead read = readSince(since, clientHasCatalog);
+        return read != null ? resolve(read) : snapshot();
+    }
+
+    // Null when the client has to start over from a snapshot
+    private LogRead readSince(long since, boolean clientHasCatalog) {
+        if (since < 0 || since == 0 && !clientHasCatalog) {
+            return null;
+        }
+        long minId = outboxRepository.findMinId();
+        if (minId == 0) {
+            // Nothing logged yet, so only a client at version 0 can be up to date
+            return since == 0 ? new LogRead(0, List.of(), false) : null;
+        }
+        if (since < minId - 1) {
+            // Pruned past the client's version
+            return null;
+        }
+        List<CatalogOutboxEvent> rows = outboxRepository.findByIdGreaterThanOrderByIdAsc(since,
+                PageRequest.of(0, maxEvents));
+        if (rows.isEmpty() && since > outboxRepository.findMaxId()) {
+            // A version this database never handed out
+            return null;
+        }
+        return readVisible(since, rows);
+    }
+
+    private LogRead readVisible(long after, List<CatalogOutboxEvent> rows) {
+        Instant settled = Instant.now().minus(Duration.ofMillis(gapTimeoutMs));
+        List<CatalogOutboxEvent> visible = new ArrayList<>(rows.size());
+        long version = after;
+        for (CatalogOutboxEvent row : rows) {
+            // A missing lower version may belong to a transaction that has not committed yet
+            if (row.getId() != version + 1 && row.getCreatedAt().isAfter(settled)) {
+                return new LogRead(version, visible, false);
+            }
+            visible.add(row);
+            version = row.getId();
+        }
+        return new LogRead(version, visible, rows.size() == maxEvents);
+    }
+
+    private CatalogChangesDTO resolve(LogRead read) {
+        Set<Long> giftIds = new LinkedHashSet<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (CatalogOutboxEvent row : read.rows) {
+            (row.getEntity() == CatalogChangeEvent.Entity.GIFT ? giftIds : productIds).add(row.getEntityId());
+        }
+
+        List<GiftDTO> gifts = giftIds.isEmpty() ? List.of() : giftService.getGiftsByIds(giftIds);
+        gifts.forEach(gift -> giftIds.remove(gift.id()));
+        List<Product> products = productIds.isEmpty() ? List.of() : productRepository.findAllById(productIds);
+        products.forEach(product -> productIds.remove(product.getId()));
+
+        return new CatalogChangesDTO(read.version, false, read.hasMore, gifts, new ArrayList<>(giftIds),
+                products, new ArrayList<>(productIds));
+    }
+
+    private CatalogChangesDTO snapshot() {
+        // Versions are settled before the catalog is read, so the snapshot holds at least everything
+        // up to the version; changes it already contains may be sent again, which is harmless
+        long base = outboxRepository.findMaxIdCreatedBefore(Instant.now().minus(Duration.ofMillis(gapTimeoutMs)));
+        long version = readVisible(base, outboxRepository.findByIdGreaterThanOrderByIdAsc(base,
+                PageRequest.of(0, maxEvents))).version;
+        return new CatalogChangesDTO(version, true, false, giftService.getAllGifts(), List.of(),
+                productRepository.findAll(), List.of());
+    }
+
+    private record LogRead(long version, List<CatalogOutboxEvent> rows, boolean hasMore) {
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        volatile long version;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.repository.CatalogOutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned log of catalog changes in the catalog_events table: one row per changed gift or
+ * product id, written in the same transaction as the change, with the row id as the version.
+ * Deletes stay in the log as tombstones until the retention period ends. The log feeds the
+ * client change feed and doubles as the outbox of the default cross-instance transport.
+ */
+@Component
+public class CatalogChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeLog.class);
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO catalog_events (entity, event_type, entity_id, origin, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private CatalogOutboxEventRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${catalog-events.node-id:${random.uuid}}")
+    private String nodeId;
+
+    @Value("${catalog-events.retention-ms:604800000}")
+    private long retentionMs;
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    // Remote events were logged by the node that made the change
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(event.ids().size());
+        for (Long id : event.ids()) {
+            rows.add(new Object[]{event.entity().name(), event.type().name(), id, nodeId, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog-events.prune-interval-ms:600000}")
+    public void prune() {
+        // The newest row is kept so the current version survives quiet periods
+        int deleted = outboxRepository.deleteCreatedBefore(Instant.now().minus(Duration.ofMillis(retentionMs)),
+                outboxRepository.findMaxId());
+        if (deleted > 0) {
+            log.info("Pruned {} catalog events older than {} ms", deleted, retentionMs);
+        }
+    }
+}
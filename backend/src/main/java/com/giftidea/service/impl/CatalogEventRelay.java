@@ -0,0 +1,83 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.event.CatalogEventMessage;
+import com.giftidea.service.CatalogEventTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bridges local catalog change events and the cross-instance transport. Local events are handed
+ * to the transport before their transaction commits; events from other nodes are polled in
+ * batches and republished here as remote CatalogChangeEvents, so the existing listeners refresh
+ * their caches and indexes exactly as they do for local writes.
+ */
+@Component
+public class CatalogEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogEventRelay.class);
+
+    private final CatalogEventTransport transport;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter sent;
+    private final Counter received;
+
+    @Value("${catalog-events.poll-batch-size:1000}")
+    private int pollBatchSize;
+
+    public CatalogEventRelay(CatalogEventTransport transport, ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.eventPublisher = eventPublisher;
+        this.sent = Counter.builder("catalog_events").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("catalog_events").tag("direction", "received").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!event.remote()) {
+            transport.send(event);
+            sent.increment(event.ids().size());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog-events.poll-interval-ms:1000}")
+    public void poll() {
+        List<CatalogEventMessage> messages;
+        do {
+            messages = transport.receive(pollBatchSize);
+            if (!messages.isEmpty()) {
+                republish(messages);
+                received.increment(messages.size());
+                log.debug("Applied {} remote catalog events up to version {}",
+                        messages.size(), messages.get(messages.size() - 1).version());
+            }
+        } while (messages.size() >= pollBatchSize);
+    }
+
+    // Consecutive messages of the same entity and type become one event, keeping their order
+    private void republish(List<CatalogEventMessage> messages) {
+        List<Long> ids = new ArrayList<>();
+        CatalogEventMessage first = messages.get(0);
+        for (CatalogEventMessage message : messages) {
+            if (message.entity() != first.entity() || message.type() != first.type()) {
+                eventPublisher.publishEvent(new CatalogChangeEvent(first.entity(), first.type(), ids, true));
+                ids.clear();
+                first = message;
+            }
+            ids.add(message.entityId());
+        }
+        eventPublisher.publishEvent(new CatalogChangeEvent(first.entity(), first.type(), ids, true));
+    }
+}
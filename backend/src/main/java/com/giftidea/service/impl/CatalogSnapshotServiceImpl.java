@@ -0,0 +1,223 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.CatalogStatsDTO;
+import com.giftidea.dto.PriceBucketDTO;
+import com.giftidea.service.CatalogSnapshotService;
+import com.giftidea.service.PriceHistogramService;
+import com.giftidea.util.ColumnarCatalog;
+import com.giftidea.util.ColumnarScan;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog analytics over a columnar snapshot. Gifts and products are exported on a schedule
+ * into one memory-mapped file (prices as doubles, dictionary-encoded categories, lower-cased
+ * names) and requests scan it in parallel chunks, so price-band and category breakdowns with
+ * keyword filters never load entities or touch the database. A new snapshot is written beside
+ * the current one and swapped in whole; scans that started on the old mapping finish on it.
+ * Results lag the catalog by up to the refresh interval.
+ */
+@Service
+public class CatalogSnapshotServiceImpl implements CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotServiceImpl.class);
+
+    private static final String GIFTS_SQL = "SELECT id, price, category, name FROM gift";
+    private static final String PRODUCTS_SQL = "SELECT id, price, category, name FROM products";
+    private static final byte GIFT = 0;
+    private static final byte PRODUCT = 1;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog-snapshot.file:catalog-snapshot/catalog.col}")
+    private String file;
+
+    @Value("${catalog-snapshot.chunk-rows:65536}")
+    private int chunkRows;
+
+    @Value("${catalog-snapshot.parallelism:0}")
+    private int parallelism;
+
+    @Value("${catalog-snapshot.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${price-histogram.bounds:500,1000,2000,3000,5000,7500,10000,15000,20000,30000,50000,100000}")
+    private double[] bounds;
+
+    private volatile ColumnarCatalog catalog;
+    private ForkJoinPool pool;
+    private Timer scans;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        scans = Timer.builder("catalog.snapshot.scan").register(meterRegistry);
+        Gauge.builder("catalog.snapshot.rows", this, service -> service.catalog == null ? 0 : service.catalog.rows())
+                .register(meterRegistry);
+        Gauge.builder("catalog.snapshot.age", this, CatalogSnapshotServiceImpl::ageSeconds)
+                .baseUnit("seconds").register(meterRegistry);
+
+        // Serve the last snapshot until the first refresh replaces it
+        Path path = Paths.get(file);
+        if (Files.exists(path)) {
+            try {
+                catalog = ColumnarCatalog.open(path);
+                log.info("Catalog snapshot opened from {}: {} rows built at {}", path.toAbsolutePath(),
+                        catalog.rows(), Instant.ofEpochMilli(catalog.builtAt()));
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable catalog snapshot {}: {}", path.toAbsolutePath(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+
+    @Override
+    public CatalogStatsDTO getStats(PriceHistogramService.Source source, String category,
+                                    Double minPrice, Double maxPrice, String keyword) {
+        ColumnarCatalog current = catalog;
+        if (current == null) {
+            throw new IllegalStateException("Catalog snapshot is not built yet");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+
+        String normalized = normalizeCategory(category);
+        int categoryCode = normalized == null ? -1 : current.categoryCode(normalized);
+        String needle = keyword == null || keyword.isBlank() ? null : keyword.trim().toLowerCase(Locale.ROOT);
+        ColumnarScan.Filter filter = new ColumnarScan.Filter(
+                source == PriceHistogramService.Source.GIFT ? GIFT : source == PriceHistogramService.Source.PRODUCT ? PRODUCT : -1,
+                categoryCode,
+                minPrice == null ? Double.NEGATIVE_INFINITY : minPrice,
+                maxPrice == null ? Double.POSITIVE_INFINITY : maxPrice,
+                needle == null ? null : needle.getBytes(StandardCharsets.UTF_8));
+
+        ColumnarScan.Result result;
+        if (normalized != null && categoryCode < 0) {
+            // No row has this category, nothing to scan
+            result = ColumnarScan.empty(current, bounds);
+        } else {
+            long started = System.nanoTime();
+            result = ColumnarScan.scan(current, filter, bounds, chunkRows, pool);
+            scans.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return toStats(current, result);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${catalog-snapshot.refresh-interval-ms:300000}",
+            fixedDelayString = "${catalog-snapshot.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        long started = System.currentTimeMillis();
+        Path path = Paths.get(file);
+        try (ColumnarCatalog.Writer writer = new ColumnarCatalog.Writer(path)) {
+            // Read-only, so the export is served by a replica when one is configured
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> {
+                export(writer, GIFTS_SQL, GIFT);
+                export(writer, PRODUCTS_SQL, PRODUCT);
+            });
+            writer.commit();
+            catalog = ColumnarCatalog.open(path);
+            log.info("Catalog snapshot built: {} rows, {} bytes in {} ms", writer.rows(), Files.size(path),
+                    System.currentTimeMillis() - started);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Catalog snapshot refresh failed, keeping the previous one", e);
+        }
+    }
+
+    private void export(ColumnarCatalog.Writer writer, String sql, byte source) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rs -> {
+            // wasNull() reports on the last column read, so it must follow getDouble directly
+            double value = rs.getDouble(2);
+            Double price = rs.wasNull() ? null : value;
+            try {
+                writer.add(rs.getLong(1), source, price, normalizeCategory(rs.getString(3)), rs.getString(4));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private CatalogStatsDTO toStats(ColumnarCatalog current, ColumnarScan.Result result) {
+        long[] counts = result.bands();
+        List<PriceBucketDTO> bands = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            bands.add(new PriceBucketDTO(i == 0 ? 0.0 : bounds[i - 1], i < bounds.length ? bounds[i] : null, counts[i]));
+        }
+
+        long[] perCategory = result.categories();
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < perCategory.length; code++) {
+            if (perCategory[code] > 0) {
+                codes.add(code);
+            }
+        }
+        codes.sort(Comparator.comparingLong((Integer code) -> perCategory[code]).reversed());
+        Map<String, Long> categories = new LinkedHashMap<>();
+        for (int code : codes) {
+            categories.put(current.category(code), perCategory[code]);
+        }
+
+        Double average = result.priced() == 0 ? null : result.sum() / result.priced();
+        return new CatalogStatsDTO(Instant.ofEpochMilli(current.builtAt()), current.rows(), result.matched(),
+                result.min(), result.max(), average, bands, categories);
+    }
+
+    private double ageSeconds() {
+        ColumnarCatalog current = catalog;
+        return current == null ? Double.NaN : (System.currentTimeMillis() - current.builtAt()) / 1000.0;
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,234 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.ReservationDTO;
+import com.giftidea.dto.ReservationLineDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.event.ReservationConfirmedEvent;
+import com.giftidea.event.ReservationCreatedEvent;
+import com.giftidea.event.ReservationReleasedEvent;
+import com.giftidea.model.CartItem;
+import com.giftidea.model.StockReservation;
+import com.giftidea.model.StockReservationLine;
+import com.giftidea.repository.CartItemRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.repository.StockReservationLineRepository;
+import com.giftidea.repository.StockReservationRepository;
+import com.giftidea.service.CartService;
+import com.giftidea.service.CheckoutService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout reserves stock for the whole cart in one transaction. Each product row is decremented
+ * with a conditional UPDATE (stock >= quantity), so the database row lock serializes concurrent
+ * buyers of the same SKU and stock can never go negative; rows are touched in product id order
+ * to avoid deadlocks between carts. Reservations that are not confirmed in time give their stock back.
+ */
+@Service
+public class CheckoutServiceImpl implements CheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutServiceImpl.class);
+
+    private static final int RELEASE_PAGE_SIZE = 500;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private StockReservationLineRepository reservationLineRepository;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${checkout.reservation-ttl-ms:900000}")
+    private long reservationTtlMs;
+
+    @Override
+    @Transactional
+    public ReservationDTO checkout(String userId) {
+        List<CartItem> items = cartItemRepository.findByUserId(userId);
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Cart is empty for user: " + userId);
+        }
+
+        // One line per product, in id order
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        for (CartItem item : items) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Invalid quantity for product " + item.getProduct().getId());
+            }
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            prices.put(item.getProduct().getId(), item.getProduct().getPrice());
+        }
+
+        List<Long> stockChanged = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (productRepository.reserveStock(line.getKey(), line.getValue()) == 1) {
+                stockChanged.add(line.getKey());
+            } else if (!productRepository.existsByIdAndStockQuantityIsNull(line.getKey())) {
+                // Rolls back the decrements already made for this cart
+                throw new IllegalStateException("Not enough stock for product " + line.getKey());
+            }
+        }
+
+        Instant now = Instant.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setUserId(userId);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plus(Duration.ofMillis(reservationTtlMs)));
+        reservation.setTotalAmount(quantities.entrySet().stream()
+                .map(line -> prices.get(line.getKey()).multiply(BigDecimal.valueOf(line.getValue())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        StockReservation saved = reservationRepository.save(reservation);
+
+        List<StockReservationLine> lines = quantities.entrySet().stream().map(line -> {
+            StockReservationLine reservationLine = new StockReservationLine();
+            reservationLine.setReservationId(saved.getId());
+            reservationLine.setProductId(line.getKey());
+            reservationLine.setQuantity(line.getValue());
+            reservationLine.setUnitPrice(prices.get(line.getKey()));
+            return reservationLine;
+        }).collect(Collectors.toList());
+        reservationLineRepository.saveAll(lines);
+
+        // Published before the cart is cleared, so the basket's co-occurrence moves to the
+        // reservation without dropping out of the recommendations in between
+        eventPublisher.publishEvent(new ReservationCreatedEvent(saved.getId(), userId,
+                new ArrayList<>(quantities.keySet())));
+        cartService.clearCart(userId);
+        publishStockChange(stockChanged);
+        return convertToDTO(saved, lines);
+    }
+
+    @Override
+    public ReservationDTO getReservation(Long id) {
+        StockReservation reservation = findReservation(id);
+        return convertToDTO(reservation, reservationLineRepository.findByReservationIdOrderByProductIdAsc(id));
+    }
+
+    @Override
+    @Transactional
+    public ReservationDTO confirm(Long reservationId) {
+        StockReservation reservation = findReservation(reservationId);
+        if (reservation.getStatus() == StockReservation.Status.RESERVED
+                && reservation.getExpiresAt().isBefore(Instant.now())) {
+            throw new IllegalStateException("Reservation " + reservationId + " has expired");
+        }
+        if (reservationRepository.updateStatus(reservationId, StockReservation.Status.RESERVED,
+                StockReservation.Status.CONFIRMED, Instant.now()) == 0) {
+            throw new IllegalStateException("Reservation " + reservationId + " is already "
+                    + reservation.getStatus().name().toLowerCase());
+        }
+        eventPublisher.publishEvent(new ReservationConfirmedEvent(reservationId, reservation.getUserId(),
+                reservation.getTotalAmount()));
+        return getReservation(reservationId);
+    }
+
+    @Override
+    @Transactional
+    public ReservationDTO cancel(Long reservationId) {
+        StockReservation reservation = findReservation(reservationId);
+        if (!release(reservationId)) {
+            throw new IllegalStateException("Reservation " + reservationId + " is already "
+                    + reservation.getStatus().name().toLowerCase());
+        }
+        return getReservation(reservationId);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${checkout.release-interval-ms:30000}")
+    public int releaseExpired() {
+        int released = 0;
+        List<Long> expired;
+        do {
+            expired = reservationRepository.findExpiredIds(StockReservation.Status.RESERVED, Instant.now(),
+                    PageRequest.of(0, RELEASE_PAGE_SIZE));
+            for (Long id : expired) {
+                // One transaction per reservation: a failure only holds back that reservation
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> release(id)))) {
+                    released++;
+                }
+            }
+        } while (expired.size() == RELEASE_PAGE_SIZE);
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+        return released;
+    }
+
+    // Must run inside a transaction; returns false when the reservation was already closed
+    private boolean release(Long reservationId) {
+        if (reservationRepository.updateStatus(reservationId, StockReservation.Status.RESERVED,
+                StockReservation.Status.RELEASED, Instant.now()) == 0) {
+            return false;
+        }
+        String userId = findReservation(reservationId).getUserId();
+        List<Long> stockChanged = new ArrayList<>();
+        for (StockReservationLine line : reservationLineRepository.findByReservationIdOrderByProductIdAsc(reservationId)) {
+            if (productRepository.returnStock(line.getProductId(), line.getQuantity()) == 1) {
+                stockChanged.add(line.getProductId());
+            }
+        }
+        publishStockChange(stockChanged);
+        eventPublisher.publishEvent(new ReservationReleasedEvent(reservationId, userId));
+        return true;
+    }
+
+    private void publishStockChange(List<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogChangeEvent(CatalogChangeEvent.Entity.PRODUCT,
+                    CatalogChangeEvent.Type.UPSERT, productIds));
+        }
+    }
+
+    private StockReservation findReservation(Long id) {
+        return reservationRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found with id: " + id));
+    }
+
+    private ReservationDTO convertToDTO(StockReservation reservation, List<StockReservationLine> lines) {
+        return new ReservationDTO(
+                reservation.getId(),
+                reservation.getUserId(),
+                reservation.getStatus().name(),
+                reservation.getTotalAmount(),
+                reservation.getCreatedAt(),
+                reservation.getExpiresAt(),
+                reservation.getClosedAt(),
+                lines.stream()
+                        .map(line -> new ReservationLineDTO(line.getProductId(), line.getQuantity(), line.getUnitPrice()))
+                        .collect(Collectors.toList())
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.service.ImageOrigin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Serves originals from a local directory: the path of the image URL (host ignored) is resolved
+ * under {@code thumbnails.file-origin.dir}, so catalog URLs work unchanged against local copies.
+ */
+@Component
+@ConditionalOnProperty(name = "thumbnails.origin", havingValue = "file")
+public class FileImageOrigin implements ImageOrigin {
+
+    @Value("${thumbnails.file-origin.dir:images}")
+    private String dir;
+
+    @Override
+    public byte[] fetch(String url) throws IOException {
+        String path;
+        try {
+            path = new URI(url).getPath();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid image URL: " + url);
+        }
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Image URL has no path: " + url);
+        }
+        Path base = Paths.get(dir).toAbsolutePath().normalize();
+        Path file = base.resolve(path.replaceFirst("^/+", "")).normalize();
+        if (!file.startsWith(base)) {
+            throw new IllegalArgumentException("Image path leaves the origin directory: " + url);
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Image not found: " + url);
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.GiftCollectionDTO;
+import com.giftidea.dto.GiftDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.model.Gift;
+import com.giftidea.model.GiftCollection;
+import com.giftidea.repository.GiftCollectionMemberRepository;
+import com.giftidea.repository.GiftCollectionRepository;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.service.GiftCollectionService;
+import com.giftidea.service.GiftService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Rule-based collections with materialized membership. Rules live in memory in a predicate index:
+ * a rule with keywords is filed under its first keyword tokens, one without under its category,
+ * and the rest in a list ordered by min price. A gift change only evaluates the rules its tokens,
+ * category and price can reach, plus the collections it currently belongs to, and writes the
+ * difference. Reading a collection reads its member ids; the rule is never run against the catalog
+ * except once, when the collection is created.
+ *
+ * Membership is written by the instance that changed the gift. Rules created on another instance
+ * are picked up within collections.refresh-interval-ms; gifts written here before then may be
+ * missing from such a collection until they change again.
+ */
+@Service
+public class GiftCollectionServiceImpl implements GiftCollectionService {
+
+    private static final Logger log = LoggerFactory.getLogger(GiftCollectionServiceImpl.class);
+
+    private static final String INSERT_MEMBER_SQL =
+            "INSERT INTO gift_collection_members (collection_id, gift_id) VALUES (?, ?)";
+    private static final String DELETE_MEMBER_SQL =
+            "DELETE FROM gift_collection_members WHERE collection_id = ? AND gift_id = ?";
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int SCAN_PAGE_SIZE = 1000;
+    private static final int MAX_KEYWORDS_LENGTH = 500;
+
+    @Autowired
+    private GiftCollectionRepository collectionRepository;
+
+    @Autowired
+    private GiftCollectionMemberRepository memberRepository;
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private GiftService giftService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Membership writes run one at a time, so a gift's rows always follow its latest committed state
+    private final Object materializeLock = new Object();
+
+    private volatile RuleIndex index = RuleIndex.of(List.of());
+
+    private Counter rulesEvaluated;
+
+    @PostConstruct
+    public void init() {
+        rulesEvaluated = Counter.builder("collections.rules.evaluated").register(meterRegistry);
+        refreshRules();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GiftCollectionDTO> getAllCollections() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : memberRepository.countByCollection()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return collectionRepository.findAll().stream()
+                .map(collection -> convertToDTO(collection, counts.getOrDefault(collection.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GiftCollectionDTO getCollection(Long id) {
+        return convertToDTO(findCollection(id), memberRepository.countByCollectionId(id));
+    }
+
+    @Override
+    public List<GiftDTO> getCollectionGifts(Long id) {
+        if (!collectionRepository.existsById(id)) {
+            throw new IllegalArgumentException("Collection not found with id: " + id);
+        }
+        List<Long> giftIds = memberRepository.findGiftIds(id);
+        return giftIds.isEmpty() ? List.of() : giftService.getGiftsByIds(giftIds);
+    }
+
+    @Override
+    public GiftCollectionDTO createCollection(GiftCollectionDTO collectionDTO) {
+        GiftCollection collection = convertToEntity(collectionDTO);
+        GiftCollection saved = collectionRepository.save(collection);
+        Rule rule = Rule.of(saved);
+        long count;
+        synchronized (materializeLock) {
+            register(rule);
+            try {
+                count = materialize(rule);
+            } catch (RuntimeException e) {
+                // Do not leave a collection behind with half its members
+                unregister(rule.id);
+                transactionTemplate.executeWithoutResult(status -> {
+                    memberRepository.deleteByCollection(saved.getId());
+                    collectionRepository.deleteById(saved.getId());
+                });
+                throw e;
+            }
+        }
+        log.info("Collection {} '{}' materialized with {} gifts", saved.getId(), saved.getName(), count);
+        return convertToDTO(saved, count);
+    }
+
+    @Override
+    public void deleteCollection(Long id) {
+        if (!collectionRepository.existsById(id)) {
+            throw new IllegalArgumentException("Collection not found with id: " + id);
+        }
+        synchronized (materializeLock) {
+            unregister(id);
+            transactionTemplate.executeWithoutResult(status -> {
+                memberRepository.deleteByCollection(id);
+                collectionRepository.deleteById(id);
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        // The instance that wrote the gift updates the shared membership rows
+        if (event.entity() != CatalogChangeEvent.Entity.GIFT || event.remote()) {
+            return;
+        }
+        try {
+            synchronized (materializeLock) {
+                // Not read-only, so the gift is read from the primary that just committed it
+                transactionTemplate.executeWithoutResult(status -> rematerialize(event.ids()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not update collections for gifts {}", event.ids(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${collections.refresh-interval-ms:30000}",
+            fixedDelayString = "${collections.refresh-interval-ms:30000}")
+    public void refreshRules() {
+        synchronized (materializeLock) {
+            // Read under the lock so a collection being created here is already stored
+            List<GiftCollection> collections = collectionRepository.findAll();
+            Set<Long> known = index.rules.keySet();
+            Set<Long> stored = collections.stream().map(GiftCollection::getId).collect(Collectors.toSet());
+            if (!known.equals(stored)) {
+                index = RuleIndex.of(collections.stream().map(Rule::of).collect(Collectors.toList()));
+                log.info("Loaded {} collection rules", collections.size());
+            }
+        }
+    }
+
+    // Must hold materializeLock and run inside a transaction; two queries however many gifts changed
+    private void rematerialize(List<Long> giftIds) {
+        Map<Long, Set<Long>> current = new HashMap<>();
+        for (Object[] row : memberRepository.findMemberships(giftIds)) {
+            current.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+        Map<Long, Set<Long>> target = new HashMap<>();
+        giftRepository.findAllById(giftIds).forEach(gift -> target.put(gift.getId(), matchingRules(gift)));
+
+        List<Object[]> removed = new ArrayList<>();
+        List<Object[]> added = new ArrayList<>();
+        for (Long giftId : giftIds) {
+            Set<Long> was = current.getOrDefault(giftId, Set.of());
+            Set<Long> now = target.getOrDefault(giftId, Set.of());
+            for (Long collectionId : was) {
+                if (!now.contains(collectionId)) {
+                    removed.add(new Object[]{collectionId, giftId});
+                }
+            }
+            for (Long collectionId : now) {
+                if (!was.contains(collectionId)) {
+                    added.add(new Object[]{collectionId, giftId});
+                }
+            }
+        }
+        if (!removed.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_MEMBER_SQL, removed);
+        }
+        if (!added.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_MEMBER_SQL, added);
+        }
+    }
+
+    private Set<Long> matchingRules(Gift gift) {
+        Set<Long> matched = new HashSet<>();
+        int evaluated = index.match(gift, tokens(gift.getName(), gift.getDescription()), matched);
+        rulesEvaluated.increment(evaluated);
+        return matched;
+    }
+
+    // The one full pass over the catalog, when a collection is created; must hold materializeLock
+    private long materialize(Rule rule) {
+        long count = 0;
+        long lastId = 0;
+        Slice<Gift> page;
+        do {
+            long after = lastId;
+            List<Object[]> rows = new ArrayList<>();
+            page = transactionTemplate.execute(status -> {
+                Slice<Gift> gifts = giftRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, SCAN_PAGE_SIZE));
+                for (Gift gift : gifts) {
+                    if (rule.matches(gift, tokens(gift.getName(), gift.getDescription()))) {
+                        rows.add(new Object[]{rule.id, gift.getId()});
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_MEMBER_SQL, rows);
+                }
+                return gifts;
+            });
+            count += rows.size();
+            if (page.hasContent()) {
+                lastId = page.getContent().get(page.getNumberOfElements() - 1).getId();
+            }
+        } while (page.hasNext());
+        return count;
+    }
+
+    private void register(Rule rule) {
+        Map<Long, Rule> rules = new HashMap<>(index.rules);
+        rules.put(rule.id, rule);
+        index = RuleIndex.of(rules.values());
+    }
+
+    private void unregister(Long id) {
+        Map<Long, Rule> rules = new HashMap<>(index.rules);
+        rules.remove(id);
+        index = RuleIndex.of(rules.values());
+    }
+
+    private GiftCollection findCollection(Long id) {
+        return collectionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Collection not found with id: " + id));
+    }
+
+    private static Set<String> tokens(String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    // Each keyword becomes its tokens joined by spaces; keywords with no letters or digits are dropped
+    private static List<String> normalizeKeywords(List<String> keywords) {
+        List<String> normalized = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (keyword == null) {
+                continue;
+            }
+            String joined = Arrays.stream(TOKEN_SEPARATOR.split(keyword.toLowerCase(Locale.ROOT)))
+                    .filter(token -> !token.isEmpty())
+                    .collect(Collectors.joining(" "));
+            if (!joined.isEmpty() && !normalized.contains(joined)) {
+                normalized.add(joined);
+            }
+        }
+        return normalized;
+    }
+
+    private GiftCollectionDTO convertToDTO(GiftCollection collection, long giftCount) {
+        return new GiftCollectionDTO(
+                collection.getId(),
+                collection.getName(),
+                collection.getCategory(),
+                collection.getMinPrice(),
+                collection.getMaxPrice(),
+                Rule.splitKeywords(collection.getKeywords()),
+                giftCount
+        );
+    }
+
+    private GiftCollection convertToEntity(GiftCollectionDTO collectionDTO) {
+        String keywords = String.join(",", normalizeKeywords(collectionDTO.keywords()));
+        if (keywords.length() > MAX_KEYWORDS_LENGTH) {
+            throw new IllegalArgumentException("Keywords must be at most " + MAX_KEYWORDS_LENGTH + " characters in total");
+        }
+        GiftCollection collection = new GiftCollection();
+        collection.setName(collectionDTO.name().trim());
+        String category = collectionDTO.category();
+        collection.setCategory(category == null || category.isBlank() ? null : category.trim());
+        collection.setMinPrice(collectionDTO.minPrice());
+        collection.setMaxPrice(collectionDTO.maxPrice());
+        collection.setKeywords(keywords.isEmpty() ? null : keywords);
+        collection.setCreatedAt(Instant.now());
+        return collection;
+    }
+
+    /**
+     * A collection's rule. Keywords are token lists: one matches when the gift has all its tokens.
+     */
+    private record Rule(long id, String category, Double minPrice, Double maxPrice, List<List<String>> keywords) {
+
+        static Rule of(GiftCollection collection) {
+            List<List<String>> keywords = splitKeywords(collection.getKeywords()).stream()
+                    .map(keyword -> List.of(keyword.split(" ")))
+                    .collect(Collectors.toList());
+            String category = collection.getCategory() == null ? null : collection.getCategory().toLowerCase(Locale.ROOT);
+            return new Rule(collection.getId(), category, collection.getMinPrice(), collection.getMaxPrice(), keywords);
+        }
+
+        static List<String> splitKeywords(String keywords) {
+            return keywords == null || keywords.isEmpty() ? List.of() : List.of(keywords.split(","));
+        }
+
+        double lowerBound() {
+            return minPrice == null ? Double.NEGATIVE_INFINITY : minPrice;
+        }
+
+        boolean matches(Gift gift, Set<String> tokens) {
+            if (category != null && (gift.getCategory() == null
+                    || !category.equals(gift.getCategory().toLowerCase(Locale.ROOT)))) {
+                return false;
+            }
+            if (minPrice != null || maxPrice != null) {
+                Double price = gift.getPrice();
+                if (price == null || minPrice != null && price < minPrice || maxPrice != null && price > maxPrice) {
+                    return false;
+                }
+            }
+            if (keywords.isEmpty()) {
+                return true;
+            }
+            for (List<String> keyword : keywords) {
+                if (tokens.containsAll(keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Immutable; replaced whole when a collection is added or removed.
+     */
+    private static final class RuleIndex {
+        final Map<Long, Rule> rules;
+        final Map<String, List<Rule>> byKeywordToken = new HashMap<>();
+        final Map<String, List<Rule>> byCategory = new HashMap<>();
+        final List<Rule> byMinPrice = new ArrayList<>();
+
+        private RuleIndex(Collection<Rule> rules) {
+            this.rules = rules.stream().collect(Collectors.toUnmodifiableMap(Rule::id, rule -> rule));
+            for (Rule rule : rules) {
+                if (!rule.keywords.isEmpty()) {
+                    // A matching gift has every token of some keyword, so it has that keyword's first one
+                    Set<String> firstTokens = rule.keywords.stream().map(keyword -> keyword.get(0))
+                            .collect(Collectors.toSet());
+                    firstTokens.forEach(token -> byKeywordToken.computeIfAbsent(token, t -> new ArrayList<>()).add(rule));
+                } else if (rule.category != null) {
+                    byCategory.computeIfAbsent(rule.category, c -> new ArrayList<>()).add(rule);
+                } else {
+                    byMinPrice.add(rule);
+                }
+            }
+            byMinPrice.sort(Comparator.comparingDouble(Rule::lowerBound));
+        }
+
+        static RuleIndex of(Collection<Rule> rules) {
+            return new RuleIndex(rules);
+        }
+
+        // Adds the ids of matching rules and returns how many rules were evaluated
+        int match(Gift gift, Set<String> tokens, Set<Long> matched) {
+            Set<Rule> candidates = new HashSet<>();
+            for (String token : tokens) {
+                candidates.addAll(byKeywordToken.getOrDefault(token, List.of()));
+            }
+            if (gift.getCategory() != null) {
+                candidates.addAll(byCategory.getOrDefault(gift.getCategory().toLowerCase(Locale.ROOT), List.of()));
+            }
+            Double price = gift.getPrice();
+            for (Rule rule : byMinPrice) {
+                if (price == null ? rule.minPrice != null : rule.lowerBound() > price) {
+                    break;
+                }
+                candidates.add(rule);
+            }
+            for (Rule rule : candidates) {
+                if (rule.matches(gift, tokens)) {
+                    matched.add(rule.id);
+                }
+            }
+            return candidates.size();
+        }
+    }
+}
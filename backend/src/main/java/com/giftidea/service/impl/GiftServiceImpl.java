@@ -1,14 +1,27 @@
 package com.giftidea.service.impl;
 
+import com.giftidea.config.ReadYourWrites;
 import com.giftidea.dto.GiftDTO;
+import com.giftidea.event.CatalogChangeEvent;
 import com.giftidea.model.Gift;
+import com.giftidea.repository.FieldProjections;
 import com.giftidea.repository.GiftRepository;
+import com.giftidea.service.CatalogExistenceFilter;
 import com.giftidea.service.GiftService;
+import com.giftidea.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,7 +30,27 @@ public class GiftServiceImpl implements GiftService {
     @Autowired
     private GiftRepository giftRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CatalogExistenceFilter existenceFilter;
+
+    // Concurrent reads of the same hot key share one database load
+    private final SingleFlight<Long, GiftDTO> giftLoads = new SingleFlight<>();
+    private final SingleFlight<String, List<GiftDTO>> listLoads = new SingleFlight<>();
+
+    @PostConstruct
+    void registerMetrics() {
+        giftLoads.registerMetrics(meterRegistry, "gift-by-id");
+        listLoads.registerMetrics(meterRegistry, "gift-lists");
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<GiftDTO> getAllGifts() {
         return giftRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -25,10 +58,31 @@ public class GiftServiceImpl implements GiftService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public GiftDTO getGiftById(Long id) {
-        Gift gift = giftRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Gift not found with id: " + id));
-        return convertToDTO(gift);
+        return findGiftById(id).orElseThrow(() -> new IllegalArgumentException("Gift not found with id: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<GiftDTO> findGiftById(Long id) {
+        if (existenceFilter.isAbsent(CatalogChangeEvent.Entity.GIFT, id)) {
+            return Optional.empty();
+        }
+        GiftDTO gift = load(giftLoads, id, () -> giftRepository.findById(id).map(this::convertToDTO).orElse(null));
+        if (gift == null) {
+            return Optional.empty();
+        }
+        existenceFilter.add(CatalogChangeEvent.Entity.GIFT, id);
+        return Optional.of(gift);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GiftDTO> getGiftsByIds(Collection<Long> ids) {
+        return giftRepository.findAllById(ids).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -36,6 +90,7 @@ public class GiftServiceImpl implements GiftService {
     public GiftDTO createGift(GiftDTO giftDTO) {
         Gift gift = convertToEntity(giftDTO);
         Gift savedGift = giftRepository.save(gift);
+        eventPublisher.publishEvent(CatalogChangeEvent.upsert(CatalogChangeEvent.Entity.GIFT, savedGift.getId()));
         return convertToDTO(savedGift);
     }
 
@@ -47,6 +102,7 @@ public class GiftServiceImpl implements GiftService {
         
         updateGiftFromDTO(existingGift, giftDTO);
         Gift updatedGift = giftRepository.save(existingGift);
+        eventPublisher.publishEvent(CatalogChangeEvent.upsert(CatalogChangeEvent.Entity.GIFT, id));
         return convertToDTO(updatedGift);
     }
 
@@ -57,23 +113,28 @@ public class GiftServiceImpl implements GiftService {
             throw new IllegalArgumentException("Gift not found with id: " + id);
         }
         giftRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.delete(CatalogChangeEvent.Entity.GIFT, id));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GiftDTO> getGiftsByCategory(String category) {
-        return giftRepository.findByCategory(category).stream()
+        // Shared between coalesced callers, hence unmodifiable
+        return load(listLoads, "category:" + category, () -> giftRepository.findByCategory(category).stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GiftDTO> getFavoriteGifts() {
-        return giftRepository.findByIsFavoriteTrue().stream()
+        return load(listLoads, "favorites", () -> giftRepository.findByIsFavoriteTrue().stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toUnmodifiableList()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GiftDTO> searchGiftsByName(String keyword) {
         return giftRepository.findByNameContainingIgnoreCase(keyword).stream()
                 .map(this::convertToDTO)
@@ -81,6 +142,7 @@ public class GiftServiceImpl implements GiftService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GiftDTO> getGiftsByMaxPrice(Double maxPrice) {
         return giftRepository.findByPriceLessThanEqual(maxPrice).stream()
                 .map(this::convertToDTO)
@@ -95,9 +157,57 @@ public class GiftServiceImpl implements GiftService {
         
         gift.setFavorite(!gift.isFavorite());
         Gift updatedGift = giftRepository.save(gift);
+        eventPublisher.publishEvent(CatalogChangeEvent.upsert(CatalogChangeEvent.Entity.GIFT, id));
         return convertToDTO(updatedGift);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllGifts(List<String> fields) {
+        return FieldProjections.query(() -> giftRepository.findFields(fields, null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGiftsByCategory(String category, List<String> fields) {
+        return FieldProjections.query(() -> giftRepository.findFields(fields,
+                (root, query, cb) -> cb.equal(root.get("category"), category)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getFavoriteGifts(List<String> fields) {
+        return FieldProjections.query(() -> giftRepository.findFields(fields,
+                (root, query, cb) -> cb.isTrue(root.get("isFavorite"))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchGiftsByName(String keyword, List<String> fields) {
+        return FieldProjections.query(() -> giftRepository.findFields(fields,
+                FieldProjections.containsIgnoreCase("name", keyword)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getGiftsByMaxPrice(Double maxPrice, List<String> fields) {
+        return FieldProjections.query(() -> giftRepository.findFields(fields,
+                (root, query, cb) -> cb.le(root.get("price"), maxPrice)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.entity() == CatalogChangeEvent.Entity.GIFT) {
+            event.ids().forEach(giftLoads::forget);
+            listLoads.forgetAll();
+        }
+    }
+
+    // A caller pinned to the primary after a write must not join a load that may have read a lagging replica
+    private static <K, V> V load(SingleFlight<K, V> flights, K key, Supplier<V> loader) {
+        return ReadYourWrites.isPinned() ? loader.get() : flights.load(key, loader);
+    }
+
     private GiftDTO convertToDTO(Gift gift) {
         return new GiftDTO(
                 gift.getId(),
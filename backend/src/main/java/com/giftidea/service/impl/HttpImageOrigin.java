@@ -0,0 +1,115 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.service.ImageOrigin;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches originals over HTTP(S). Only hosts on the allow list are contacted, redirects included,
+ * so the thumbnail endpoint cannot be used to reach arbitrary addresses.
+ */
+@Component
+@ConditionalOnProperty(name = "thumbnails.origin", havingValue = "http", matchIfMissing = true)
+public class HttpImageOrigin implements ImageOrigin {
+
+    private static final int MAX_REDIRECTS = 3;
+
+    @Value("${thumbnails.allowed-hosts:}")
+    private List<String> allowedHosts;
+
+    @Value("${thumbnails.max-origin-bytes:10485760}")
+    private int maxBytes;
+
+    @Value("${thumbnails.origin-timeout-ms:5000}")
+    private long timeoutMs;
+
+    private Set<String> hosts;
+    private HttpClient client;
+
+    @PostConstruct
+    public void init() {
+        hosts = allowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toSet());
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Override
+    public byte[] fetch(String url) throws IOException {
+        URI uri = checkAllowed(parse(url));
+        for (int redirects = 0; ; redirects++) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMillis(timeoutMs)).GET().build();
+            HttpResponse<InputStream> response = send(request);
+            try (InputStream body = response.body()) {
+                int status = response.statusCode();
+                if (status >= 300 && status < 400 && response.headers().firstValue("Location").isPresent()) {
+                    if (redirects == MAX_REDIRECTS) {
+                        throw new IOException("Too many redirects for " + url);
+                    }
+                    uri = checkAllowed(uri.resolve(response.headers().firstValue("Location").get()));
+                    continue;
+                }
+                if (status != 200) {
+                    throw new IOException("Origin returned " + status + " for " + url);
+                }
+                if (response.headers().firstValueAsLong("Content-Length").orElse(0) > maxBytes) {
+                    throw new IOException("Image is larger than " + maxBytes + " bytes: " + url);
+                }
+                byte[] bytes = body.readNBytes(maxBytes + 1);
+                if (bytes.length > maxBytes) {
+                    throw new IOException("Image is larger than " + maxBytes + " bytes: " + url);
+                }
+                return bytes;
+            }
+        }
+    }
+
+    private HttpResponse<InputStream> send(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + request.uri());
+        }
+    }
+
+    private static URI parse(String url) {
+        try {
+            return new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid image URL: " + url);
+        }
+    }
+
+    private URI checkAllowed(URI uri) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            throw new IllegalArgumentException("Only http and https image URLs are supported");
+        }
+        String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        if (!hosts.contains(host)) {
+            throw new IllegalArgumentException("Image host is not allowed: " + host);
+        }
+        return uri;
+    }
+}
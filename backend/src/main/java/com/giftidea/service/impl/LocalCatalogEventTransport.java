@@ -0,0 +1,27 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.event.CatalogEventMessage;
+import com.giftidea.service.CatalogEventTransport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Single-instance transport: there are no other nodes, so nothing is sent or received.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog-events.transport", havingValue = "local")
+public class LocalCatalogEventTransport implements CatalogEventTransport {
+
+    @Override
+    public void send(CatalogChangeEvent event) {
+    }
+
+    @Override
+    public List<CatalogEventMessage> receive(int maxEvents) {
+        return Collections.emptyList();
+    }
+}
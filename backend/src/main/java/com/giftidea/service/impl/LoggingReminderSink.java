@@ -0,0 +1,28 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.ReminderDTO;
+import com.giftidea.service.ReminderSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Local sink that only logs due reminders; used until a push provider is configured.
+ */
+@Component
+@ConditionalOnProperty(name = "reminders.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderSink.class);
+
+    @Override
+    public void deliver(List<ReminderDTO> reminders) {
+        for (ReminderDTO reminder : reminders) {
+            log.info("Reminder {} for user {}: {} ({}) on {}", reminder.id(), reminder.userId(),
+                    reminder.personName(), reminder.eventType(), reminder.eventDate());
+        }
+    }
+}
@@ -0,0 +1,451 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.LoyaltyAccountDTO;
+import com.giftidea.dto.LoyaltyEventDTO;
+import com.giftidea.event.ReservationConfirmedEvent;
+import com.giftidea.model.LoyaltyEvent;
+import com.giftidea.repository.LoyaltyEventRepository;
+import com.giftidea.service.LoyaltyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Loyalty ledger. Awards and redemptions are appended to loyalty_events by a writer thread with
+ * group commit: callers queue their row and wait, and everything queued while a batch commits goes
+ * into the next transaction. The same transaction moves each user's row in loyalty_snapshots by the
+ * batch's points, awards first, and a redemption only goes through if the stored balance covers it,
+ * so the stored balances are always the sum of the committed ledger. Row locks are taken once per
+ * batch and in user order, so several instances can each run a writer without deadlocking or
+ * approving two spends of the same points.
+ *
+ * Balances read from memory: the writer applies what its batches read back, and every
+ * refresh-interval-ms it picks up the rows other instances changed, so a balance written elsewhere
+ * shows up within about that long.
+ */
+@Service
+public class LoyaltyServiceImpl implements LoyaltyService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoyaltyServiceImpl.class);
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO loyalty_events (user_id, points, reason, reference, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_EVENT_SQL = "DELETE FROM loyalty_events WHERE id = ?";
+    private static final String CREATE_BALANCE_SQL =
+            "INSERT INTO loyalty_snapshots (user_id, balance, earned, as_of_event_id, updated_at) "
+            + "SELECT CAST(? AS VARCHAR(255)), 0, 0, 0, CAST(? AS TIMESTAMP) WHERE NOT EXISTS (SELECT 1 FROM loyalty_snapshots WHERE user_id = ?)";
+    private static final String ADD_BALANCE_SQL =
+            "UPDATE loyalty_snapshots SET balance = balance + ?, earned = earned + ?, "
+            + "as_of_event_id = GREATEST(as_of_event_id, ?), updated_at = ? WHERE user_id = ?";
+    // A spend that the stored balance does not cover updates nothing
+    private static final String APPLY_BALANCE_SQL = ADD_BALANCE_SQL + " AND balance + ? >= 0";
+    private static final String SELECT_BALANCES_SQL = "SELECT user_id, balance, earned FROM loyalty_snapshots";
+
+    private static final long IDLE_POLL_MS = 200;
+    private static final int MAX_REFERENCE_LENGTH = 100;
+    // Refreshes look back this far, for clock skew between instances and batches slow to commit
+    private static final long REFRESH_OVERLAP_MS = 30_000;
+
+    @Autowired
+    private LoyaltyEventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${loyalty.points-per-ruble:0.05}")
+    private double pointsPerRuble;
+
+    @Value("${loyalty.batch-size:500}")
+    private int batchSize;
+
+    @Value("${loyalty.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${loyalty.write-timeout-ms:5000}")
+    private long writeTimeoutMs;
+
+    @Value("${loyalty.refresh-interval-ms:1000}")
+    private long refreshIntervalMs;
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Writer thread only
+    private long nextRefreshAt;
+    private long lastRefresh;
+
+    private Counter earnedEvents;
+    private Counter spentEvents;
+    private Counter rejectedSpends;
+    private DistributionSummary batchSizes;
+
+    @PostConstruct
+    public void init() {
+        long started = System.currentTimeMillis();
+        // Not read-only, so a configured read replica is bypassed: balances must start from the primary
+        transactionTemplate.executeWithoutResult(status -> rebuild());
+        log.info("Loyalty balances loaded: {} accounts in {} ms", accounts.size(),
+                System.currentTimeMillis() - started);
+
+        earnedEvents = Counter.builder("loyalty.events").tag("direction", "earned").register(meterRegistry);
+        spentEvents = Counter.builder("loyalty.events").tag("direction", "spent").register(meterRegistry);
+        rejectedSpends = Counter.builder("loyalty.events").tag("direction", "rejected").register(meterRegistry);
+        batchSizes = DistributionSummary.builder("loyalty.batch.size").register(meterRegistry);
+        Gauge.builder("loyalty.accounts", accounts, Map::size).register(meterRegistry);
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("loyalty.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        lastRefresh = started;
+        nextRefreshAt = System.currentTimeMillis() + refreshIntervalMs;
+        running = true;
+        writer = new Thread(this::runWriter, "loyalty-writer");
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    @Override
+    public LoyaltyAccountDTO getAccount(String userId) {
+        Account account = accounts.get(userId);
+        return account == null ? new LoyaltyAccountDTO(userId, 0, 0)
+                : new LoyaltyAccountDTO(userId, account.balance, account.earned);
+    }
+
+    @Override
+    public List<LoyaltyEventDTO> getHistory(String userId, int limit) {
+        return eventRepository.findByUserIdOrderByIdDesc(userId, PageRequest.of(0, limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public LoyaltyEventDTO award(String userId, long points, LoyaltyEvent.Reason reason, String reference) {
+        if (reason == LoyaltyEvent.Reason.REDEEM) {
+            throw new IllegalArgumentException("Use redeem to spend points");
+        }
+        validate(userId, points, reference);
+        return submit(userId, points, reason, reference);
+    }
+
+    @Override
+    public LoyaltyEventDTO redeem(String userId, long points, String reference) {
+        validate(userId, points, reference);
+        // The balance is checked by the writer against the stored one, which every instance updates;
+        // a spend that times out here stays queued and is still checked when it is written
+        return submit(userId, -points, LoyaltyEvent.Reason.REDEEM, reference);
+    }
+
+    @TransactionalEventListener
+    public void onReservationConfirmed(ReservationConfirmedEvent event) {
+        if (event.totalAmount() == null) {
+            return;
+        }
+        long points = event.totalAmount().multiply(BigDecimal.valueOf(pointsPerRuble)).longValue();
+        if (points <= 0) {
+            return;
+        }
+        try {
+            award(event.userId(), points, LoyaltyEvent.Reason.CHECKOUT, "reservation:" + event.reservationId());
+        } catch (RuntimeException e) {
+            // The purchase is already confirmed; a lost award must not fail it
+            log.error("Could not award {} points to {} for reservation {}", points, event.userId(),
+                    event.reservationId(), e);
+        }
+    }
+
+    private static void validate(String userId, long points, String reference) {
+        if (userId == null || userId.isBlank()) {
+            throw new IllegalArgumentException("User id is required");
+        }
+        if (points <= 0) {
+            throw new IllegalArgumentException("Points must be positive");
+        }
+        if (reference != null && reference.length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException("Reference must be at most " + MAX_REFERENCE_LENGTH + " characters");
+        }
+    }
+
+    private LoyaltyEventDTO submit(String userId, long points, LoyaltyEvent.Reason reason, String reference) {
+        Pending pending = new Pending(userId, points, reason, reference, new CompletableFuture<>());
+        if (!running) {
+            throw new IllegalStateException("Loyalty ledger is shutting down");
+        }
+        if (!queue.offer(pending)) {
+            throw new IllegalStateException("Loyalty ledger is overloaded, try again later");
+        }
+        try {
+            return pending.result.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InsufficientPoints rejected) {
+                throw new IllegalStateException(rejected.getMessage());
+            }
+            throw new IllegalStateException("Could not record loyalty points: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued, so it may be recorded later
+            throw new IllegalStateException("Timed out recording loyalty points");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recording loyalty points");
+        }
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                    batch.clear();
+                }
+                if (System.currentTimeMillis() >= nextRefreshAt) {
+                    refresh();
+                    nextRefreshAt = System.currentTimeMillis() + refreshIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        Timestamp now = Timestamp.from(Instant.now());
+        Written written;
+        try {
+            written = transactionTemplate.execute(status -> apply(batch, now));
+        } catch (DuplicateKeyException e) {
+            // Another instance created the balance row of a new user first; it exists now
+            try {
+                written = transactionTemplate.execute(status -> apply(batch, now));
+            } catch (RuntimeException retryFailure) {
+                fail(batch, retryFailure);
+                return;
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+            return;
+        }
+        batchSizes.record(batch.size());
+        written.balances.forEach((userId, balance) -> {
+            Account account = accounts.computeIfAbsent(userId, id -> new Account());
+            account.balance = balance[0];
+            account.earned = balance[1];
+        });
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            if (written.rejected[i]) {
+                rejectedSpends.increment();
+                pending.result.completeExceptionally(new InsufficientPoints("Not enough points: balance "
+                        + written.balances.get(pending.userId)[0] + ", requested " + -pending.points));
+                continue;
+            }
+            if (pending.points > 0) {
+                earnedEvents.increment();
+            } else {
+                spentEvents.increment();
+            }
+            pending.result.complete(new LoyaltyEventDTO(written.ids[i], pending.userId, pending.points,
+                    pending.reason.name(), pending.reference, now.toInstant()));
+        }
+    }
+
+    private void fail(List<Pending> batch, RuntimeException e) {
+        log.warn("Loyalty batch of {} rows failed: {}", batch.size(), e.getMessage());
+        batch.forEach(pending -> pending.result.completeExceptionally(e));
+    }
+
+    // One transaction: the rows, the balance changes they make, and the balances read back
+    private Written apply(List<Pending> batch, Timestamp now) {
+        long[] ids = insert(batch, now);
+
+        List<Object[]> created = batch.stream()
+                .map(Pending::userId)
+                .filter(userId -> !accounts.containsKey(userId))
+                .distinct()
+                .sorted()
+                .map(userId -> new Object[]{userId, now, userId})
+                .collect(Collectors.toList());
+        if (!created.isEmpty()) {
+            jdbcTemplate.batchUpdate(CREATE_BALANCE_SQL, created);
+        }
+
+        // Locks balance rows in user order, the same on every instance; a user's awards go before
+        // their spends, and spends keep the order they were queued in
+        Integer[] order = new Integer[batch.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer, String>comparing(i -> batch.get(i).userId)
+                .thenComparing(i -> batch.get(i).points < 0));
+        List<Object[]> changes = new ArrayList<>(order.length);
+        for (int i : order) {
+            Pending pending = batch.get(i);
+            changes.add(new Object[]{pending.points, Math.max(pending.points, 0), ids[i], now, pending.userId,
+                    pending.points});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_BALANCE_SQL, changes);
+
+        boolean[] rejected = new boolean[batch.size()];
+        List<Object[]> deleted = new ArrayList<>();
+        for (int k = 0; k < order.length; k++) {
+            int i = order[k];
+            if (updated[k] != 0) {
+                continue;
+            }
+            if (batch.get(i).points > 0) {
+                throw new IllegalStateException("No loyalty balance row for " + batch.get(i).userId);
+            }
+            rejected[i] = true;
+            deleted.add(new Object[]{ids[i]});
+        }
+        if (!deleted.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_EVENT_SQL, deleted);
+        }
+
+        List<String> users = batch.stream().map(Pending::userId).distinct().collect(Collectors.toList());
+        Map<String, long[]> balances = new HashMap<>();
+        jdbcTemplate.query(SELECT_BALANCES_SQL + " WHERE user_id IN (" + "?, ".repeat(users.size() - 1) + "?)",
+                rs -> {
+                    balances.put(rs.getString(1), new long[]{rs.getLong(2), rs.getLong(3)});
+                }, users.toArray());
+        return new Written(ids, rejected, balances);
+    }
+
+    private long[] insert(List<Pending> batch, Timestamp now) {
+        return jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_EVENT_SQL, new String[]{"id"})) {
+                for (Pending pending : batch) {
+                    statement.setString(1, pending.userId);
+                    statement.setLong(2, pending.points);
+                    statement.setString(3, pending.reason.name());
+                    statement.setString(4, pending.reference);
+                    statement.setTimestamp(5, now);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                long[] ids = new long[batch.size()];
+                int count = 0;
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next() && count < ids.length) {
+                        ids[count++] = keys.getLong(1);
+                    }
+                }
+                if (count != ids.length) {
+                    throw new SQLException("Expected " + ids.length + " generated ids, got " + count);
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Runs on the writer between batches: picks up balances other instances changed
+    private void refresh() {
+        long started = System.currentTimeMillis();
+        try {
+            jdbcTemplate.query(SELECT_BALANCES_SQL + " WHERE updated_at >= ?", this::load,
+                    new Timestamp(lastRefresh - REFRESH_OVERLAP_MS));
+            lastRefresh = started;
+        } catch (RuntimeException e) {
+            log.warn("Loyalty balance refresh failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        // Rows recorded before balances were kept in the same transaction: add them once
+        for (Object[] row : eventRepository.sumUnappliedByUser()) {
+            Timestamp now = Timestamp.from(Instant.now());
+            String userId = (String) row[0];
+            jdbcTemplate.update(CREATE_BALANCE_SQL, userId, now, userId);
+            jdbcTemplate.update(ADD_BALANCE_SQL, row[1], row[2], row[3], now, userId);
+        }
+        jdbcTemplate.query(SELECT_BALANCES_SQL, this::load);
+    }
+
+    private void load(ResultSet rs) throws SQLException {
+        Account account = accounts.computeIfAbsent(rs.getString(1), id -> new Account());
+        account.balance = rs.getLong(2);
+        account.earned = rs.getLong(3);
+    }
+
+    private LoyaltyEventDTO convertToDTO(LoyaltyEvent event) {
+        return new LoyaltyEventDTO(
+                event.getId(),
+                event.getUserId(),
+                event.getPoints(),
+                event.getReason().name(),
+                event.getReference(),
+                event.getCreatedAt()
+        );
+    }
+
+    private record Pending(String userId, long points, LoyaltyEvent.Reason reason, String reference,
+                           CompletableFuture<LoyaltyEventDTO> result) {
+    }
+
+    // ids and rejected follow the batch order; balances are {balance, earned} after the batch
+    private record Written(long[] ids, boolean[] rejected, Map<String, long[]> balances) {
+    }
+
+    // A spend the stored balance did not cover; its row is not kept
+    private static final class InsufficientPoints extends RuntimeException {
+        InsufficientPoints(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    // Written only by the writer thread; readers see the latest balances it read back
+    private static final class Account {
+        volatile long balance;
+        volatile long earned;
+    }
+}
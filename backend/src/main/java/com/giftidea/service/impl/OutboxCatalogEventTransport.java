@@ -0,0 +1,161 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.event.CatalogEventMessage;
+import com.giftidea.model.CatalogOutboxEvent;
+import com.giftidea.repository.CatalogOutboxEventRepository;
+import com.giftidea.service.CatalogEventTransport;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Default transport: the catalog change log already writes every change to the catalog_events
+ * table in the writing transaction, so sending is a no-op and every node polls the table for
+ * rows from other nodes. Identity ids are handed out before commit, so a lower id can become
+ * visible after a higher one; ids above a gap are remembered until the gap fills. A gap older
+ * than gap-timeout-ms no longer holds the watermark back, but its ids are still re-polled for
+ * gap-recheck-ms in case a slow transaction commits them late. Only then are they given up as
+ * rolled back, with a warning and the catalog_events.gaps{outcome=expired} counter.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog-events.transport", havingValue = "outbox", matchIfMissing = true)
+public class OutboxCatalogEventTransport implements CatalogEventTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxCatalogEventTransport.class);
+
+    // Skipped ids re-polled at most; ids of a larger gap are given up right away
+    private static final int MAX_RECHECK_IDS = 1000;
+
+    @Autowired
+    private CatalogOutboxEventRepository outboxRepository;
+
+    @Autowired
+    private CatalogChangeLog changeLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog-events.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${catalog-events.gap-recheck-ms:300000}")
+    private long gapRecheckMs;
+
+    // Receive-side state, guarded by this: every id <= watermark has been handled
+    private long watermark;
+    private final TreeSet<Long> seenAboveWatermark = new TreeSet<>();
+    private long gapSeenAt;
+    // Ids below the watermark that were skipped, with the time they were skipped
+    private final TreeMap<Long, Long> skipped = new TreeMap<>();
+
+    private Counter recovered;
+    private Counter expired;
+
+    @PostConstruct
+    void init() {
+        recovered = Counter.builder("catalog_events.gaps").tag("outcome", "recovered").register(meterRegistry);
+        expired = Counter.builder("catalog_events.gaps").tag("outcome", "expired").register(meterRegistry);
+        // Indexes are built from the tables at startup, so older events need no replay
+        watermark = outboxRepository.findMaxId();
+        log.info("Catalog event outbox: node {}, starting after version {}", changeLog.nodeId(), watermark);
+    }
+
+    @Override
+    public void send(CatalogChangeEvent event) {
+        // Already in the table: the change log writes it before the same transaction commits
+    }
+
+    @Override
+    public synchronized List<CatalogEventMessage> receive(int maxEvents) {
+        // Own rows are read too: they are needed to tell gaps from events that are already handled
+        List<CatalogOutboxEvent> rows = outboxRepository.findByIdGreaterThanOrderByIdAsc(watermark,
+                PageRequest.of(0, maxEvents + seenAboveWatermark.size()));
+        List<CatalogEventMessage> messages = new ArrayList<>();
+        recheckSkipped(messages);
+        for (CatalogOutboxEvent row : rows) {
+            if (seenAboveWatermark.add(row.getId()) && !changeLog.nodeId().equals(row.getOrigin())) {
+                messages.add(new CatalogEventMessage(row.getId(), row.getEntity(), row.getType(),
+                        row.getEntityId(), row.getOrigin()));
+            }
+        }
+        advanceWatermark();
+        return messages;
+    }
+
+    // Late commits below the watermark come first: their versions are older than the new rows
+    private void recheckSkipped(List<CatalogEventMessage> messages) {
+        if (skipped.isEmpty()) {
+            return;
+        }
+        for (CatalogOutboxEvent row : outboxRepository.findByIdInOrderByIdAsc(skipped.keySet())) {
+            skipped.remove(row.getId());
+            recovered.increment();
+            if (!changeLog.nodeId().equals(row.getOrigin())) {
+                messages.add(new CatalogEventMessage(row.getId(), row.getEntity(), row.getType(),
+                        row.getEntityId(), row.getOrigin()));
+            }
+        }
+        long now = System.currentTimeMillis();
+        int given = 0;
+        for (Iterator<Map.Entry<Long, Long>> it = skipped.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Long> entry = it.next();
+            if (now - entry.getValue() >= gapRecheckMs) {
+                it.remove();
+                given++;
+            }
+        }
+        if (given > 0) {
+            expired.increment(given);
+            log.warn("Gave up on {} catalog event versions after {} ms; treating them as rolled back", given,
+                    gapTimeoutMs + gapRecheckMs);
+        }
+    }
+
+    private void advanceWatermark() {
+        while (!seenAboveWatermark.isEmpty() && seenAboveWatermark.first() == watermark + 1) {
+            watermark = seenAboveWatermark.pollFirst();
+        }
+        if (seenAboveWatermark.isEmpty()) {
+            gapSeenAt = 0;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (gapSeenAt == 0) {
+            gapSeenAt = now;
+        } else if (now - gapSeenAt >= gapTimeoutMs) {
+            long from = watermark + 1;
+            long to = seenAboveWatermark.first() - 1;
+            long missing = to - from + 1;
+            long untracked = missing - Math.min(missing, MAX_RECHECK_IDS - skipped.size());
+            if (untracked > 0) {
+                expired.increment(untracked);
+                log.warn("Catalog event versions {}..{} stayed missing for {} ms and are too many to re-poll; "
+                        + "giving up on {} of them", from, to, gapTimeoutMs, untracked);
+            } else {
+                log.debug("Skipping catalog event versions {}..{}, re-polling them for {} ms", from, to, gapRecheckMs);
+            }
+            for (long id = from; id <= to && skipped.size() < MAX_RECHECK_IDS; id++) {
+                skipped.put(id, now);
+            }
+            watermark = to;
+            gapSeenAt = 0;
+            advanceWatermark();
+        }
+    }
+
+}
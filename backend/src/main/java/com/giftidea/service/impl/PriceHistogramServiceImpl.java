@@ -0,0 +1,173 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.PriceBucketDTO;
+import com.giftidea.dto.PriceHistogramDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.model.Gift;
+import com.giftidea.model.Product;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.service.PriceHistogramService;
+import com.giftidea.util.PriceHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Price distribution for the budget slider. Gift and product prices are kept in fixed-bucket
+ * histograms per source and category, updated from catalog change events; requests only read
+ * the latest histogram snapshot.
+ */
+@Service
+public class PriceHistogramServiceImpl implements PriceHistogramService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistogramServiceImpl.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final String ANY_CATEGORY = "*";
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${price-histogram.bounds:500,1000,2000,3000,5000,7500,10000,15000,20000,30000,50000,100000}")
+    private double[] bounds;
+
+    private volatile State state = new State();
+
+    @Override
+    public PriceHistogramDTO getHistogram(Source source, String category) {
+        String normalized = normalizeCategory(category);
+        PriceHistogram histogram = state.histograms.get(key(source, normalized));
+        PriceHistogram.Snapshot snapshot = histogram != null ? histogram.snapshot() : new PriceHistogram(bounds).snapshot();
+
+        double[] edges = snapshot.bounds();
+        long[] counts = snapshot.counts();
+        List<PriceBucketDTO> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new PriceBucketDTO(i == 0 ? 0.0 : edges[i - 1], i < edges.length ? edges[i] : null, counts[i]));
+        }
+        return new PriceHistogramDTO(source.name(), normalized, snapshot.total(), snapshot.min(), snapshot.max(), buckets);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        State rebuilt = new State();
+        Pageable page = PageRequest.of(0, LOAD_PAGE_SIZE);
+
+        long lastId = 0;
+        Slice<Gift> gifts;
+        do {
+            gifts = giftRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            for (Gift gift : gifts) {
+                rebuilt.put(Source.GIFT, gift.getId(), priced(gift));
+                lastId = gift.getId();
+            }
+        } while (gifts.hasNext());
+
+        lastId = 0;
+        Slice<Product> products;
+        do {
+            products = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            for (Product product : products) {
+                rebuilt.put(Source.PRODUCT, product.getId(), priced(product));
+                lastId = product.getId();
+            }
+        } while (products.hasNext());
+
+        state = rebuilt;
+        log.info("Price histograms built: {} gifts, {} products, {} histograms in {} ms",
+                rebuilt.gifts.size(), rebuilt.products.size(), rebuilt.histograms.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        Source source = event.entity() == CatalogChangeEvent.Entity.GIFT ? Source.GIFT : Source.PRODUCT;
+        Map<Long, Priced> updated = new HashMap<>();
+        if (event.type() == CatalogChangeEvent.Type.UPSERT) {
+            if (source == Source.GIFT) {
+                giftRepository.findAllById(event.ids()).forEach(gift -> updated.put(gift.getId(), priced(gift)));
+            } else {
+                productRepository.findAllById(event.ids()).forEach(product -> updated.put(product.getId(), priced(product)));
+            }
+        }
+        synchronized (this) {
+            for (Long id : event.ids()) {
+                state.put(source, id, updated.get(id));
+            }
+        }
+    }
+
+    private Priced priced(Gift gift) {
+        return gift.getPrice() == null ? null : new Priced(normalizeCategory(gift.getCategory()), gift.getPrice());
+    }
+
+    private Priced priced(Product product) {
+        return product.getPrice() == null ? null
+                : new Priced(normalizeCategory(product.getCategory()), product.getPrice().doubleValue());
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(Source source, String category) {
+        return source.name() + "|" + (category == null ? ANY_CATEGORY : category);
+    }
+
+    private record Priced(String category, double price) {
+    }
+
+    // Histograms plus the last indexed price of every item, so updates and deletes can be undone
+    private final class State {
+        final Map<String, PriceHistogram> histograms = new ConcurrentHashMap<>();
+        final Map<Long, Priced> gifts = new HashMap<>();
+        final Map<Long, Priced> products = new HashMap<>();
+
+        void put(Source source, long id, Priced priced) {
+            Map<Long, Priced> items = source == Source.GIFT ? gifts : products;
+            Priced previous = priced != null ? items.put(id, priced) : items.remove(id);
+            if (previous != null) {
+                for (String key : keys(source, previous.category())) {
+                    histograms.get(key).remove(previous.price());
+                }
+            }
+            if (priced != null) {
+                for (String key : keys(source, priced.category())) {
+                    histograms.computeIfAbsent(key, k -> new PriceHistogram(bounds)).add(priced.price());
+                }
+            }
+        }
+
+        private List<String> keys(Source source, String category) {
+            List<String> keys = new ArrayList<>(4);
+            keys.add(key(source, null));
+            keys.add(key(Source.ALL, null));
+            if (category != null) {
+                keys.add(key(source, category));
+                keys.add(key(Source.ALL, category));
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.CartLineDTO;
+import com.giftidea.dto.PurchaseLineDTO;
+import com.giftidea.dto.RecommendedProductDTO;
+import com.giftidea.event.CartChangedEvent;
+import com.giftidea.event.ReservationConfirmedEvent;
+import com.giftidea.event.ReservationCreatedEvent;
+import com.giftidea.event.ReservationReleasedEvent;
+import com.giftidea.model.StockReservation;
+import com.giftidea.repository.CartItemRepository;
+import com.giftidea.repository.StockReservationLineRepository;
+import com.giftidea.service.RecommendationService;
+import com.giftidea.util.LongIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Item-to-item recommendations from cart co-occurrence.
+ * Products that sit in the same user's cart are counted as bought together;
+ * the top neighbours of every product are precomputed and served from memory.
+ * Checkout moves a cart's basket to its stock reservation: confirmed reservations stay counted
+ * for good, released ones are retracted.
+ */
+@Service
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationServiceImpl.class);
+
+    private static final long[] EMPTY_BASKET = new long[0];
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StockReservationLineRepository reservationLineRepository;
+
+    @Value("${recommendations.top-n:20}")
+    private int topN;
+
+    @Value("${recommendations.max-basket-size:200}")
+    private int maxBasketSize;
+
+    // Co-occurrence matrix and baskets are guarded by this lock; readers only touch neighbours
+    private final Object lock = new Object();
+    private final Map<Long, LongIntHashMap> cooccurrence = new HashMap<>();
+    private final Map<String, long[]> baskets = new HashMap<>();
+    // Baskets of reservations not yet confirmed or released, by reservation id
+    private final Map<Long, long[]> reserved = new HashMap<>();
+
+    private final Map<Long, Neighbours> neighbours = new ConcurrentHashMap<>();
+
+    @Override
+    public List<RecommendedProductDTO> getRelatedProducts(Long productId, int limit) {
+        Neighbours row = neighbours.get(productId);
+        if (row == null) {
+            return Collections.emptyList();
+        }
+        int count = Math.min(limit, row.ids.length);
+        List<RecommendedProductDTO> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new RecommendedProductDTO(row.ids[i], row.scores[i]));
+        }
+        return result;
+    }
+
+    @Override
+    public List<RecommendedProductDTO> getRecommendationsForUser(String userId, int limit) {
+        long[] basket;
+        synchronized (lock) {
+            basket = baskets.getOrDefault(userId, EMPTY_BASKET);
+        }
+        if (basket.length == 0) {
+            return Collections.emptyList();
+        }
+
+        LongIntHashMap scores = new LongIntHashMap(basket.length * topN);
+        for (long productId : basket) {
+            Neighbours row = neighbours.get(productId);
+            if (row == null) {
+                continue;
+            }
+            for (int i = 0; i < row.ids.length; i++) {
+                if (Arrays.binarySearch(basket, row.ids[i]) < 0) {
+                    scores.addTo(row.ids[i], row.scores[i]);
+                }
+            }
+        }
+
+        Neighbours top = selectTop(scores, limit);
+        List<RecommendedProductDTO> result = new ArrayList<>(top.ids.length);
+        for (int i = 0; i < top.ids.length; i++) {
+            result.add(new RecommendedProductDTO(top.ids[i], top.scores[i]));
+        }
+        return result;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<String, long[]> loaded = new HashMap<>();
+        List<CartLineDTO> lines = cartItemRepository.findAllCartLines();
+        group(lines, CartLineDTO::userId, CartLineDTO::productId, loaded::put);
+        Map<Long, long[]> pending = new HashMap<>();
+        group(reservationLineRepository.findLinesByStatus(StockReservation.Status.RESERVED),
+                PurchaseLineDTO::reservationId, PurchaseLineDTO::productId, pending::put);
+        List<long[]> purchased = new ArrayList<>();
+        group(reservationLineRepository.findLinesByStatus(StockReservation.Status.CONFIRMED),
+                PurchaseLineDTO::reservationId, PurchaseLineDTO::productId, (id, basket) -> purchased.add(basket));
+
+        synchronized (lock) {
+            cooccurrence.clear();
+            baskets.clear();
+            baskets.putAll(loaded);
+            reserved.clear();
+            reserved.putAll(pending);
+            for (long[] basket : loaded.values()) {
+                long[] counted = counted(basket);
+                applyPairs(counted, counted, 1);
+            }
+            for (long[] basket : pending.values()) {
+                long[] counted = counted(basket);
+                applyPairs(counted, counted, 1);
+            }
+            for (long[] basket : purchased) {
+                long[] counted = counted(basket);
+                applyPairs(counted, counted, 1);
+            }
+            neighbours.clear();
+            for (Map.Entry<Long, LongIntHashMap> row : cooccurrence.entrySet()) {
+                neighbours.put(row.getKey(), selectTop(row.getValue(), topN));
+            }
+        }
+        log.info("Recommendation index built: {} carts, {} reserved and {} purchased baskets, {} products in {} ms",
+                loaded.size(), pending.size(), purchased.size(), neighbours.size(), System.currentTimeMillis() - started);
+    }
+
+    // Splits lines ordered by key into one sorted basket per key
+    private static <L, K> void group(List<L> lines, Function<L, K> key, ToLongFunction<L> productId,
+                                     BiConsumer<K, long[]> sink) {
+        int from = 0;
+        for (int i = 1; i <= lines.size(); i++) {
+            if (i == lines.size() || !key.apply(lines.get(i)).equals(key.apply(lines.get(from)))) {
+                long[] basket = new long[i - from];
+                for (int j = from; j < i; j++) {
+                    basket[j - from] = productId.applyAsLong(lines.get(j));
+                }
+                Arrays.sort(basket);
+                sink.accept(key.apply(lines.get(from)), basket);
+                from = i;
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationCreated(ReservationCreatedEvent event) {
+        long[] basket = event.productIds().stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        synchronized (lock) {
+            reserved.put(event.reservationId(), basket);
+            long[] counted = counted(basket);
+            applyPairs(counted, counted, 1);
+            refreshNeighbours(counted);
+        }
+    }
+
+    // A confirmed basket is a purchase: its pairs stay counted and it is no longer tracked
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationConfirmed(ReservationConfirmedEvent event) {
+        synchronized (lock) {
+            reserved.remove(event.reservationId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationReleased(ReservationReleasedEvent event) {
+        synchronized (lock) {
+            long[] basket = reserved.remove(event.reservationId());
+            if (basket == null) {
+                return;
+            }
+            long[] counted = counted(basket);
+            applyPairs(counted, counted, -1);
+            refreshNeighbours(counted);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCartChanged(CartChangedEvent event) {
+        long[] current = cartItemRepository.findProductIdsByUserId(event.userId()).stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+
+        synchronized (lock) {
+            long[] previous = baskets.getOrDefault(event.userId(), EMPTY_BASKET);
+            if (Arrays.equals(previous, current)) {
+                return;
+            }
+            long[] countedBefore = counted(previous);
+            long[] countedAfter = counted(current);
+            long[] removed = difference(countedBefore, countedAfter);
+            long[] added = difference(countedAfter, countedBefore);
+
+            // Retract pairs of the old basket that involve removed items, then count new ones
+            applyPairs(removed, countedBefore, -1);
+            applyPairs(added, countedAfter, 1);
+
+            if (current.length == 0) {
+                baskets.remove(event.userId());
+            } else {
+                baskets.put(event.userId(), current);
+            }
+
+            refreshNeighbours(countedBefore);
+            refreshNeighbours(added);
+        }
+    }
+
+    /**
+     * Adjusts co-occurrence for every pair (a, b) with a in items and b in basket.
+     * Both directions are updated, pairs inside items are counted once.
+     */
+    private void applyPairs(long[] items, long[] basket, int delta) {
+        for (long a : items) {
+            for (long b : basket) {
+                if (a == b) {
+                    continue;
+                }
+                adjust(a, b, delta);
+                if (Arrays.binarySearch(items, b) < 0) {
+                    adjust(b, a, delta);
+                }
+            }
+        }
+    }
+
+    // Oversized baskets (bulk orders, bots) carry little signal and are left out of the matrix
+    private long[] counted(long[] basket) {
+        return basket.length > maxBasketSize ? EMPTY_BASKET : basket;
+    }
+
+    private void adjust(long a, long b, int delta) {
+        LongIntHashMap row = cooccurrence.computeIfAbsent(a, id -> new LongIntHashMap());
+        row.addTo(b, delta);
+        if (row.isEmpty()) {
+            cooccurrence.remove(a);
+        }
+    }
+
+    private void refreshNeighbours(long[] productIds) {
+        for (long productId : productIds) {
+            LongIntHashMap row = cooccurrence.get(productId);
+            if (row == null) {
+                neighbours.remove(productId);
+            } else {
+                neighbours.put(productId, selectTop(row, topN));
+            }
+        }
+    }
+
+    // Elements of sorted a that are missing from sorted b
+    private static long[] difference(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        int count = 0;
+        for (long value : a) {
+            if (Arrays.binarySearch(b, value) < 0) {
+                result[count++] = value;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Picks the n highest-scored entries with a bounded min-heap over primitive arrays.
+     */
+    private static Neighbours selectTop(LongIntHashMap row, int n) {
+        int capacity = Math.min(n, row.size());
+        long[] heapIds = new long[capacity];
+        int[] heapScores = new int[capacity];
+        int[] size = {0};
+
+        row.forEach((id, score) -> {
+            if (capacity == 0 || score <= 0) {
+                return;
+            }
+            if (size[0] < capacity) {
+                int i = size[0]++;
+                heapIds[i] = id;
+                heapScores[i] = score;
+                siftUp(heapIds, heapScores, i);
+            } else if (score > heapScores[0] || (score == heapScores[0] && id < heapIds[0])) {
+                heapIds[0] = id;
+                heapScores[0] = score;
+                siftDown(heapIds, heapScores, 0, capacity);
+            }
+        });
+
+        int count = size[0];
+        long[] ids = new long[count];
+        int[] scores = new int[count];
+        for (int last = count - 1; last >= 0; last--) {
+            ids[last] = heapIds[0];
+            scores[last] = heapScores[0];
+            heapIds[0] = heapIds[last];
+            heapScores[0] = heapScores[last];
+            siftDown(heapIds, heapScores, 0, last);
+        }
+        return new Neighbours(ids, scores);
+    }
+
+    // Heap order: lower score first, ties broken so that smaller ids rank higher
+    private static boolean below(long[] ids, int[] scores, int i, int j) {
+        return scores[i] < scores[j] || (scores[i] == scores[j] && ids[i] > ids[j]);
+    }
+
+    private static void siftUp(long[] ids, int[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!below(ids, scores, i, parent)) {
+                return;
+            }
+            swap(ids, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] ids, int[] scores, int i, int size) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && below(ids, scores, right, left)) {
+                smallest = right;
+            }
+            if (!below(ids, scores, smallest, i)) {
+                return;
+            }
+            swap(ids, scores, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(long[] ids, int[] scores, int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        int score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    private record Neighbours(long[] ids, int[] scores) {
+    }
+}
@@ -0,0 +1,353 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.ReminderDTO;
+import com.giftidea.dto.ReminderStatsDTO;
+import com.giftidea.model.Reminder;
+import com.giftidea.repository.ReminderRepository;
+import com.giftidea.service.ReminderService;
+import com.giftidea.service.ReminderSink;
+import com.giftidea.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Server-side reminders. Pending rows due within the horizon are kept in a hierarchical
+ * timing wheel (bounded by reminders.max-in-memory); the rest stay in the database and are
+ * paged in as the horizon moves forward. Expired ids go through a bounded queue to a
+ * dispatcher thread that delivers them to the configured sink in batches and marks them sent.
+ */
+@Service
+public class ReminderServiceImpl implements ReminderService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderServiceImpl.class);
+
+    private static final int DEFAULT_NOTIFY_DAYS_BEFORE = 1;
+
+    @Autowired
+    private ReminderRepository reminderRepository;
+
+    @Autowired
+    private ReminderSink reminderSink;
+
+    @Value("${reminders.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${reminders.horizon-ms:604800000}")
+    private long horizonMs;
+
+    @Value("${reminders.max-in-memory:2000000}")
+    private int maxInMemory;
+
+    @Value("${reminders.load-page-size:5000}")
+    private int loadPageSize;
+
+    @Value("${reminders.dispatch-batch-size:500}")
+    private int dispatchBatchSize;
+
+    @Value("${reminders.dispatch-queue-capacity:50000}")
+    private int dispatchQueueCapacity;
+
+    @Value("${reminders.retry-delay-ms:60000}")
+    private long retryDelayMs;
+
+    @Value("${reminders.notify-time:09:00}")
+    private LocalTime notifyTime;
+
+    // Guards the wheel and the load cursor
+    private final Object lock = new Object();
+    private TimingWheel wheel;
+    // Every pending row up to (cursorFireAt, cursorId) that fits is in the wheel; rows before loadedUntil are all covered
+    private Instant cursorFireAt = Instant.EPOCH;
+    private long cursorId;
+    private volatile Instant loadedUntil = Instant.EPOCH;
+
+    private BlockingQueue<Long> dispatchQueue;
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong dispatchFailures = new AtomicLong();
+
+    private final ScheduledExecutorService tickExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-tick");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dispatchQueue = new ArrayBlockingQueue<>(dispatchQueueCapacity);
+        synchronized (lock) {
+            wheel = new TimingWheel(tickMs, maxInMemory, System.currentTimeMillis());
+        }
+        dispatchExecutor.submit(this::dispatchLoop);
+        tickExecutor.scheduleWithFixedDelay(this::tick, 0, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tickExecutor.shutdownNow();
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Override
+    public ReminderDTO createReminder(ReminderDTO reminderDTO) {
+        Reminder reminder = new Reminder();
+        reminder.setUserId(reminderDTO.userId());
+        reminder.setPersonName(reminderDTO.personName());
+        reminder.setEventType(reminderDTO.eventType());
+        reminder.setEventDate(reminderDTO.eventDate());
+        reminder.setNotifyDaysBefore(reminderDTO.notifyDaysBefore() != null
+                ? reminderDTO.notifyDaysBefore() : DEFAULT_NOTIFY_DAYS_BEFORE);
+        reminder.setNotes(reminderDTO.notes());
+        reminder.setFireAt(reminderDTO.fireAt() != null ? reminderDTO.fireAt() : fireAt(reminder));
+        Reminder saved = reminderRepository.save(reminder);
+        schedule(saved.getId(), saved.getFireAt());
+        return convertToDTO(saved);
+    }
+
+    @Override
+    public List<ReminderDTO> getRemindersForUser(String userId) {
+        return reminderRepository.findByUserIdOrderByFireAtAsc(userId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void cancelReminder(Long id) {
+        Reminder reminder = reminderRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Reminder not found with id: " + id));
+        if (reminder.getStatus() != Reminder.Status.PENDING) {
+            throw new IllegalArgumentException("Reminder is already " + reminder.getStatus().name().toLowerCase());
+        }
+        reminder.setStatus(Reminder.Status.CANCELLED);
+        reminderRepository.save(reminder);
+        synchronized (lock) {
+            if (wheel != null) {
+                wheel.cancel(id);
+            }
+        }
+    }
+
+    @Override
+    public ReminderStatsDTO getStats() {
+        synchronized (lock) {
+            return new ReminderStatsDTO(
+                    wheel != null ? wheel.size() : 0,
+                    maxInMemory,
+                    loadedUntil,
+                    dispatchQueue != null ? dispatchQueue.size() : 0,
+                    dispatched.get(),
+                    dispatchFailures.get()
+            );
+        }
+    }
+
+    private void schedule(long id, Instant fireAt) {
+        boolean due;
+        synchronized (lock) {
+            if (wheel == null || !fireAt.isBefore(loadedUntil)) {
+                // Beyond the loaded range: the loader picks it up when the horizon gets there
+                return;
+            }
+            if (wheel.schedule(id, fireAt.toEpochMilli())) {
+                return;
+            }
+            due = !wheel.isFull();
+            if (!due) {
+                // No room: move the cursor back so the loader retries this row once timers drain
+                rewindCursor(fireAt, id);
+                return;
+            }
+        }
+        enqueue(id);
+    }
+
+    private void rewindCursor(Instant fireAt, long id) {
+        if (fireAt.isBefore(cursorFireAt) || (fireAt.equals(cursorFireAt) && id <= cursorId)) {
+            cursorFireAt = fireAt;
+            cursorId = id - 1;
+        }
+        if (fireAt.isBefore(loadedUntil)) {
+            loadedUntil = fireAt;
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            List<Long> expired = new ArrayList<>();
+            synchronized (lock) {
+                wheel.advance(now, expired::add);
+            }
+            for (Long id : expired) {
+                enqueue(id);
+            }
+            if (loadedUntil.toEpochMilli() - now < horizonMs / 2) {
+                loadPending(Instant.ofEpochMilli(now + horizonMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Reminder tick failed", e);
+        }
+    }
+
+    /**
+     * Pages pending rows after the cursor into the wheel, up to the new horizon or until the wheel is full.
+     * Rows that are already due go straight to the dispatch queue.
+     */
+    private void loadPending(Instant until) throws InterruptedException {
+        long started = System.currentTimeMillis();
+        int loaded = 0;
+        while (true) {
+            Instant afterFireAt;
+            long afterId;
+            synchronized (lock) {
+                if (wheel.isFull()) {
+                    loadedUntil = cursorFireAt;
+                    break;
+                }
+                afterFireAt = cursorFireAt;
+                afterId = cursorId;
+            }
+            List<Object[]> page = reminderRepository.findPage(Reminder.Status.PENDING, afterFireAt, afterId, until,
+                    PageRequest.of(0, loadPageSize));
+            List<Long> due = new ArrayList<>();
+            boolean full = false;
+            synchronized (lock) {
+                for (Object[] row : page) {
+                    long id = (Long) row[0];
+                    Instant fireAt = (Instant) row[1];
+                    if (!wheel.schedule(id, fireAt.toEpochMilli())) {
+                        if (wheel.isFull()) {
+                            full = true;
+                            break;
+                        }
+                        due.add(id);
+                    }
+                    cursorFireAt = fireAt;
+                    cursorId = id;
+                    loaded++;
+                }
+                if (!full && page.size() < loadPageSize) {
+                    loadedUntil = until;
+                }
+            }
+            for (Long id : due) {
+                enqueue(id);
+            }
+            if (full || page.size() < loadPageSize) {
+                if (full) {
+                    synchronized (lock) {
+                        loadedUntil = cursorFireAt;
+                    }
+                }
+                break;
+            }
+        }
+        if (loaded > 0) {
+            log.info("Loaded {} pending reminders up to {} in {} ms", loaded, loadedUntil,
+                    System.currentTimeMillis() - started);
+        }
+    }
+
+    private void enqueue(long id) {
+        try {
+            // Blocks the tick thread when the sink falls behind instead of growing without bound
+            dispatchQueue.put(id);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        List<Long> batch = new ArrayList<>(dispatchBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(dispatchQueue.take());
+                dispatchQueue.drainTo(batch, dispatchBatchSize - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Reminder dispatch failed for {} reminders", batch.size(), e);
+                dispatchFailures.addAndGet(batch.size());
+                retry(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Long> ids) {
+        List<ReminderDTO> due = reminderRepository.findAllById(ids).stream()
+                .filter(reminder -> reminder.getStatus() == Reminder.Status.PENDING)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        if (due.isEmpty()) {
+            return;
+        }
+        reminderSink.deliver(due);
+        reminderRepository.updateStatus(due.stream().map(ReminderDTO::id).collect(Collectors.toList()),
+                Reminder.Status.PENDING, Reminder.Status.SENT, Instant.now());
+        dispatched.addAndGet(due.size());
+    }
+
+    private void retry(List<Long> ids) {
+        long retryAt = System.currentTimeMillis() + retryDelayMs;
+        synchronized (lock) {
+            for (Long id : ids) {
+                if (!wheel.schedule(id, retryAt)) {
+                    // Stays pending in the table and is picked up again after a restart
+                    log.warn("Reminder {} could not be rescheduled, wheel is full", id);
+                }
+            }
+        }
+    }
+
+    private Instant fireAt(Reminder reminder) {
+        return reminder.getEventDate()
+                .minusDays(reminder.getNotifyDaysBefore())
+                .atTime(notifyTime)
+                .atZone(ZoneId.systemDefault())
+                .toInstant();
+    }
+
+    private ReminderDTO convertToDTO(Reminder reminder) {
+        return new ReminderDTO(
+                reminder.getId(),
+                reminder.getUserId(),
+                reminder.getPersonName(),
+                reminder.getEventType(),
+                reminder.getEventDate(),
+                reminder.getNotifyDaysBefore(),
+                reminder.getNotes(),
+                reminder.getFireAt(),
+                reminder.getStatus().name()
+        );
+    }
+}
@@ -0,0 +1,285 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.DistributionPairDTO;
+import com.giftidea.dto.DistributionResultDTO;
+import com.giftidea.dto.ExclusionDTO;
+import com.giftidea.dto.ParticipantDTO;
+import com.giftidea.dto.SecretSantaGroupDTO;
+import com.giftidea.model.SecretSantaExclusion;
+import com.giftidea.model.SecretSantaGroup;
+import com.giftidea.model.SecretSantaPair;
+import com.giftidea.model.SecretSantaParticipant;
+import com.giftidea.repository.SecretSantaExclusionRepository;
+import com.giftidea.repository.SecretSantaGroupRepository;
+import com.giftidea.repository.SecretSantaPairRepository;
+import com.giftidea.repository.SecretSantaParticipantRepository;
+import com.giftidea.service.SecretSantaService;
+import com.giftidea.util.ConstrainedDerangement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+@Service
+public class SecretSantaServiceImpl implements SecretSantaService {
+
+    private static final Logger log = LoggerFactory.getLogger(SecretSantaServiceImpl.class);
+
+    private static final String INSERT_PAIR_SQL =
+            "INSERT INTO secret_santa_pairs (group_id, santa_id, recipient_id) VALUES (?, ?, ?)";
+
+    @Autowired
+    private SecretSantaGroupRepository groupRepository;
+
+    @Autowired
+    private SecretSantaParticipantRepository participantRepository;
+
+    @Autowired
+    private SecretSantaExclusionRepository exclusionRepository;
+
+    @Autowired
+    private SecretSantaPairRepository pairRepository;
+
+    // Pairs are written with JDBC batches: identity ids disable Hibernate insert batching
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${secret-santa.rotation-attempts:10}")
+    private int rotationAttempts;
+
+    @Value("${secret-santa.insert-batch-size:5000}")
+    private int insertBatchSize;
+
+    private final SecureRandom seeds = new SecureRandom();
+
+    @Override
+    @Transactional
+    public SecretSantaGroupDTO createGroup(SecretSantaGroupDTO groupDTO) {
+        if (groupDTO.previousGroupId() != null && !groupRepository.existsById(groupDTO.previousGroupId())) {
+            throw new IllegalArgumentException("Group not found with id: " + groupDTO.previousGroupId());
+        }
+        SecretSantaGroup group = new SecretSantaGroup();
+        group.setName(groupDTO.name());
+        group.setCreatedBy(groupDTO.createdBy());
+        group.setPreviousGroupId(groupDTO.previousGroupId());
+        group.setExcludeSameTeam(groupDTO.excludeSameTeam());
+        return convertToDTO(groupRepository.save(group), 0);
+    }
+
+    @Override
+    public SecretSantaGroupDTO getGroupById(Long id) {
+        SecretSantaGroup group = findGroup(id);
+        return convertToDTO(group, participantRepository.countByGroupId(id));
+    }
+
+    @Override
+    @Transactional
+    public List<ParticipantDTO> addParticipants(Long groupId, List<ParticipantDTO> participants) {
+        SecretSantaGroup group = findGroup(groupId);
+        if (group.getStatus() != SecretSantaGroup.Status.ACTIVE) {
+            throw new IllegalArgumentException("Participants cannot join a group that is already distributed");
+        }
+        List<SecretSantaParticipant> entities = participants.stream().map(dto -> {
+            SecretSantaParticipant participant = new SecretSantaParticipant();
+            participant.setGroupId(groupId);
+            participant.setName(dto.name());
+            participant.setEmail(dto.email());
+            participant.setWishlist(dto.wishlist());
+            participant.setTeam(dto.team());
+            participant.setUserId(dto.userId());
+            return participant;
+        }).collect(Collectors.toList());
+        return participantRepository.saveAll(entities).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<ParticipantDTO> getParticipants(Long groupId) {
+        findGroup(groupId);
+        return participantRepository.findByGroupIdOrderByIdAsc(groupId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public void addExclusions(Long groupId, List<ExclusionDTO> exclusions) {
+        findGroup(groupId);
+        List<SecretSantaExclusion> entities = new ArrayList<>();
+        for (ExclusionDTO dto : exclusions) {
+            entities.add(createExclusion(groupId, dto.participantId(), dto.excludedId()));
+            if (dto.mutual()) {
+                entities.add(createExclusion(groupId, dto.excludedId(), dto.participantId()));
+            }
+        }
+        exclusionRepository.saveAll(entities);
+    }
+
+    @Override
+    @Transactional
+    public DistributionResultDTO distribute(Long groupId) {
+        long started = System.currentTimeMillis();
+        SecretSantaGroup group = findGroup(groupId);
+        List<SecretSantaParticipant> participants = participantRepository.findByGroupIdOrderByIdAsc(groupId);
+        int n = participants.size();
+
+        Map<Long, Integer> indexById = new HashMap<>(n * 2);
+        Map<String, Integer> indexByIdentity = new HashMap<>(n * 2);
+        Map<String, Integer> teamCodes = new HashMap<>();
+        int[] teams = new int[n];
+        for (int i = 0; i < n; i++) {
+            SecretSantaParticipant participant = participants.get(i);
+            indexById.put(participant.getId(), i);
+            String identity = identity(participant);
+            if (identity != null) {
+                indexByIdentity.put(identity, i);
+            }
+            if (group.isExcludeSameTeam() && participant.getTeam() != null && !participant.getTeam().isBlank()) {
+                teams[i] = teamCodes.computeIfAbsent(participant.getTeam().trim().toLowerCase(Locale.ROOT),
+                        team -> teamCodes.size() + 1);
+            }
+        }
+
+        // Giver/receiver index pairs packed into one long each
+        Set<Long> excluded = new HashSet<>();
+        for (SecretSantaExclusion exclusion : exclusionRepository.findByGroupId(groupId)) {
+            Integer giver = indexById.get(exclusion.getGiverId());
+            Integer receiver = indexById.get(exclusion.getReceiverId());
+            if (giver != null && receiver != null) {
+                excluded.add(pack(giver, receiver));
+            }
+        }
+        if (group.getPreviousGroupId() != null) {
+            excluded.addAll(previousPairs(group.getPreviousGroupId(), indexByIdentity));
+        }
+
+        ConstrainedDerangement.Result result = ConstrainedDerangement.solve(teams,
+                (giver, receiver) -> !excluded.contains(pack(giver, receiver)),
+                new SplittableRandom(seeds.nextLong()), rotationAttempts);
+
+        pairRepository.deleteByGroupId(groupId);
+        int[] receivers = result.receivers();
+        for (int from = 0; from < n; from += insertBatchSize) {
+            List<Object[]> batch = new ArrayList<>(Math.min(insertBatchSize, n - from));
+            for (int giver = from; giver < Math.min(n, from + insertBatchSize); giver++) {
+                batch.add(new Object[]{groupId, participants.get(giver).getId(), participants.get(receivers[giver]).getId()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_PAIR_SQL, batch);
+        }
+
+        group.setStatus(SecretSantaGroup.Status.DISTRIBUTED);
+        group.setDistributedAt(LocalDateTime.now());
+        groupRepository.save(group);
+
+        long elapsed = System.currentTimeMillis() - started;
+        log.info("Secret Santa group {} distributed: {} participants, {} exclusions, strategy {}, {} ms",
+                groupId, n, excluded.size(), result.strategy(), elapsed);
+        return new DistributionResultDTO(groupId, n, result.strategy().name(), elapsed, group.getDistributedAt());
+    }
+
+    @Override
+    public List<DistributionPairDTO> getDistribution(Long groupId, int page, int size) {
+        findGroup(groupId);
+        return pairRepository.findByGroupId(groupId, PageRequest.of(page, size, Sort.by("santaId"))).stream()
+                .map(pair -> new DistributionPairDTO(pair.getSantaId(), pair.getRecipientId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public DistributionPairDTO getRecipient(Long groupId, Long santaId) {
+        SecretSantaPair pair = pairRepository.findByGroupIdAndSantaId(groupId, santaId)
+                .orElseThrow(() -> new IllegalArgumentException("No recipient assigned for participant: " + santaId));
+        return new DistributionPairDTO(pair.getSantaId(), pair.getRecipientId());
+    }
+
+    // Last year's pairs, translated to this group's participant indexes by user id or email
+    private Set<Long> previousPairs(Long previousGroupId, Map<String, Integer> indexByIdentity) {
+        Map<Long, String> identities = new HashMap<>();
+        for (SecretSantaParticipant participant : participantRepository.findByGroupIdOrderByIdAsc(previousGroupId)) {
+            String identity = identity(participant);
+            if (identity != null) {
+                identities.put(participant.getId(), identity);
+            }
+        }
+        Set<Long> pairs = new HashSet<>();
+        for (SecretSantaPair pair : pairRepository.findByGroupId(previousGroupId)) {
+            Integer giver = indexByIdentity.get(identities.get(pair.getSantaId()));
+            Integer receiver = indexByIdentity.get(identities.get(pair.getRecipientId()));
+            if (giver != null && receiver != null) {
+                pairs.add(pack(giver, receiver));
+            }
+        }
+        return pairs;
+    }
+
+    private static String identity(SecretSantaParticipant participant) {
+        if (participant.getUserId() != null && !participant.getUserId().isBlank()) {
+            return "user:" + participant.getUserId();
+        }
+        if (participant.getEmail() != null && !participant.getEmail().isBlank()) {
+            return "email:" + participant.getEmail().trim().toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+
+    private static long pack(int giver, int receiver) {
+        return ((long) giver << 32) | receiver;
+    }
+
+    private SecretSantaGroup findGroup(Long id) {
+        return groupRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found with id: " + id));
+    }
+
+    private SecretSantaExclusion createExclusion(Long groupId, Long giverId, Long receiverId) {
+        SecretSantaExclusion exclusion = new SecretSantaExclusion();
+        exclusion.setGroupId(groupId);
+        exclusion.setGiverId(giverId);
+        exclusion.setReceiverId(receiverId);
+        return exclusion;
+    }
+
+    private SecretSantaGroupDTO convertToDTO(SecretSantaGroup group, long participantCount) {
+        return new SecretSantaGroupDTO(
+                group.getId(),
+                group.getName(),
+                group.getCreatedBy(),
+                group.getCreatedAt(),
+                group.getStatus().name(),
+                group.getPreviousGroupId(),
+                group.isExcludeSameTeam(),
+                group.getDistributedAt(),
+                participantCount
+        );
+    }
+
+    private ParticipantDTO convertToDTO(SecretSantaParticipant participant) {
+        return new ParticipantDTO(
+                participant.getId(),
+                participant.getName(),
+                participant.getEmail(),
+                participant.getWishlist(),
+                participant.getTeam(),
+                participant.getUserId(),
+                participant.getJoinedAt()
+        );
+    }
+}
@@ -0,0 +1,144 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.GiftDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.model.Gift;
+import com.giftidea.model.Product;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.service.SimilarityService;
+import com.giftidea.util.MinHashLshIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "More like this" lookups backed by MinHash LSH indexes over gift and product texts.
+ */
+@Service
+public class SimilarityServiceImpl implements SimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarityServiceImpl.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final MinHashLshIndex giftIndex;
+    private final MinHashLshIndex productIndex;
+
+    public SimilarityServiceImpl(@Value("${similarity.bands:32}") int bands,
+                                 @Value("${similarity.rows:4}") int rows,
+                                 @Value("${similarity.max-candidates:500}") int maxCandidates) {
+        this.giftIndex = new MinHashLshIndex(bands, rows, maxCandidates);
+        this.productIndex = new MinHashLshIndex(bands, rows, maxCandidates);
+    }
+
+    @Override
+    public List<GiftDTO> findSimilarGifts(Long giftId, int limit) {
+        List<Long> ids = giftIndex.findSimilar(giftId, limit).stream()
+                .map(MinHashLshIndex.Match::id)
+                .collect(Collectors.toList());
+        Map<Long, Gift> gifts = giftRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Gift::getId, Function.identity()));
+        return ids.stream()
+                .map(gifts::get)
+                .filter(Objects::nonNull)
+                .map(gift -> new GiftDTO(gift.getId(), gift.getName(), gift.getDescription(), gift.getCategory(),
+                        gift.getPrice(), gift.getImageUrl(), gift.isFavorite()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Product> findSimilarProducts(Long productId, int limit) {
+        List<Long> ids = productIndex.findSimilar(productId, limit).stream()
+                .map(MinHashLshIndex.Match::id)
+                .collect(Collectors.toList());
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        giftIndex.clear();
+        productIndex.clear();
+
+        Pageable page = PageRequest.of(0, LOAD_PAGE_SIZE);
+        long lastId = 0;
+        Slice<Gift> gifts;
+        do {
+            gifts = giftRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            Map<Long, String> texts = new HashMap<>();
+            for (Gift gift : gifts) {
+                texts.put(gift.getId(), giftText(gift));
+                lastId = gift.getId();
+            }
+            giftIndex.putAll(texts, ForkJoinPool.commonPool());
+        } while (gifts.hasNext());
+
+        lastId = 0;
+        Slice<Product> products;
+        do {
+            products = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            Map<Long, String> texts = new HashMap<>();
+            for (Product product : products) {
+                texts.put(product.getId(), productText(product));
+                lastId = product.getId();
+            }
+            productIndex.putAll(texts, ForkJoinPool.commonPool());
+        } while (products.hasNext());
+
+        log.info("Similarity index built: {} gifts, {} products in {} ms",
+                giftIndex.size(), productIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        MinHashLshIndex index = event.entity() == CatalogChangeEvent.Entity.GIFT ? giftIndex : productIndex;
+        if (event.type() == CatalogChangeEvent.Type.DELETE) {
+            event.ids().forEach(index::remove);
+            return;
+        }
+        if (event.entity() == CatalogChangeEvent.Entity.GIFT) {
+            giftRepository.findAllById(event.ids()).forEach(gift -> index.put(gift.getId(), giftText(gift)));
+        } else {
+            productRepository.findAllById(event.ids()).forEach(product -> index.put(product.getId(), productText(product)));
+        }
+    }
+
+    private static String giftText(Gift gift) {
+        return String.join(" ", Objects.toString(gift.getName(), ""),
+                Objects.toString(gift.getDescription(), ""), Objects.toString(gift.getCategory(), ""));
+    }
+
+    private static String productText(Product product) {
+        return String.join(" ", Objects.toString(product.getName(), ""),
+                Objects.toString(product.getDescription(), ""), Objects.toString(product.getCategory(), ""));
+    }
+}
@@ -0,0 +1,313 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.NearbyStoreDTO;
+import com.giftidea.dto.StoreDTO;
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.model.Product;
+import com.giftidea.model.Store;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.repository.StoreRepository;
+import com.giftidea.service.StoreService;
+import com.giftidea.util.GeoGridIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Store lookups for the map gift finder. Every filter combination (any store, stores with stock,
+ * stores selling a category, stores with that category in stock) has its own grid index, and a
+ * store sits in a grid while it has at least one matching product. Product and store writes update
+ * the affected grids in place; queries only read immutable grid cells.
+ */
+@Service
+public class StoreServiceImpl implements StoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(StoreServiceImpl.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final String ALL_STORES = "*";
+    private static final String IN_STOCK_SUFFIX = "|in-stock";
+
+    @Autowired
+    private StoreRepository storeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${stores.grid-cell-degrees:0.05}")
+    private double cellDegrees;
+
+    @Value("${stores.max-radius-km:200}")
+    private double maxRadiusKm;
+
+    private final Map<Long, StoreDTO> stores = new ConcurrentHashMap<>();
+    private final Map<String, GeoGridIndex> grids = new ConcurrentHashMap<>();
+
+    // Write-side state, guarded by this
+    private final Map<Long, Placement> placements = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> matchingProducts = new HashMap<>();
+
+    @Override
+    public StoreDTO createStore(StoreDTO storeDTO) {
+        Store store = new Store();
+        applyFields(store, storeDTO);
+        StoreDTO saved = convertToDTO(storeRepository.save(store));
+        indexStore(saved);
+        return saved;
+    }
+
+    @Override
+    public StoreDTO getStoreById(Long id) {
+        return convertToDTO(findStore(id));
+    }
+
+    @Override
+    public List<StoreDTO> getAllStores() {
+        return storeRepository.findAll().stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public StoreDTO updateStore(Long id, StoreDTO storeDTO) {
+        Store store = findStore(id);
+        applyFields(store, storeDTO);
+        StoreDTO saved = convertToDTO(storeRepository.save(store));
+        indexStore(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteStore(Long id) {
+        findStore(id);
+        productRepository.detachFromStore(id);
+        storeRepository.deleteById(id);
+        synchronized (this) {
+            Map<String, Integer> keys = matchingProducts.remove(id);
+            if (keys != null) {
+                keys.keySet().forEach(key -> grid(key).remove(id));
+            }
+            grid(ALL_STORES).remove(id);
+            placements.values().removeIf(placement -> placement.storeId == id);
+            stores.remove(id);
+        }
+    }
+
+    @Override
+    public List<NearbyStoreDTO> findNearest(double latitude, double longitude, int limit, String category,
+                                            boolean inStockOnly, double radiusKm) {
+        GeoGridIndex grid = grids.get(filterKey(category, inStockOnly));
+        if (grid == null) {
+            return Collections.emptyList();
+        }
+        return toResults(grid.nearest(latitude, longitude, limit, Math.min(radiusKm, maxRadiusKm)), true);
+    }
+
+    @Override
+    public List<NearbyStoreDTO> findWithin(double minLatitude, double minLongitude, double maxLatitude,
+                                           double maxLongitude, String category, boolean inStockOnly, int limit) {
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Bounding box minimum must not exceed maximum");
+        }
+        GeoGridIndex grid = grids.get(filterKey(category, inStockOnly));
+        if (grid == null) {
+            return Collections.emptyList();
+        }
+        return toResults(grid.within(minLatitude, minLongitude, maxLatitude, maxLongitude, limit), false);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildIndex() {
+        long started = System.currentTimeMillis();
+        stores.clear();
+        grids.clear();
+        placements.clear();
+        matchingProducts.clear();
+
+        Pageable page = PageRequest.of(0, LOAD_PAGE_SIZE);
+        long lastId = 0;
+        Slice<Store> storePage;
+        do {
+            storePage = storeRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            for (Store store : storePage) {
+                indexStore(convertToDTO(store));
+                lastId = store.getId();
+            }
+        } while (storePage.hasNext());
+
+        lastId = 0;
+        Slice<Product> products;
+        do {
+            products = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, page);
+            for (Product product : products) {
+                place(product.getId(), placementOf(product));
+                lastId = product.getId();
+            }
+        } while (products.hasNext());
+
+        log.info("Store index built: {} stores, {} placed products, {} filter grids in {} ms",
+                stores.size(), placements.size(), grids.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.entity() != CatalogChangeEvent.Entity.PRODUCT) {
+            return;
+        }
+        Map<Long, Placement> updated = new HashMap<>();
+        if (event.type() == CatalogChangeEvent.Type.UPSERT) {
+            productRepository.findAllById(event.ids())
+                    .forEach(product -> updated.put(product.getId(), placementOf(product)));
+        }
+        synchronized (this) {
+            for (Long id : event.ids()) {
+                place(id, updated.get(id));
+            }
+        }
+    }
+
+    // Adds or moves the store in the catch-all grid and in every filter grid it currently matches
+    private synchronized void indexStore(StoreDTO store) {
+        stores.put(store.id(), store);
+        grid(ALL_STORES).put(store.id(), store.latitude(), store.longitude());
+        Map<String, Integer> keys = matchingProducts.get(store.id());
+        if (keys != null) {
+            keys.keySet().forEach(key -> grid(key).put(store.id(), store.latitude(), store.longitude()));
+        }
+    }
+
+    private void place(long productId, Placement placement) {
+        Placement previous = placement != null ? placements.put(productId, placement) : placements.remove(productId);
+        if (Objects.equals(previous, placement)) {
+            return;
+        }
+        if (previous != null) {
+            previous.keys().forEach(key -> decrement(previous.storeId, key));
+        }
+        if (placement != null) {
+            placement.keys().forEach(key -> increment(placement.storeId, key));
+        }
+    }
+
+    private void increment(long storeId, String key) {
+        int count = matchingProducts.computeIfAbsent(storeId, id -> new HashMap<>()).merge(key, 1, Integer::sum);
+        StoreDTO store = stores.get(storeId);
+        if (count == 1 && store != null) {
+            grid(key).put(storeId, store.latitude(), store.longitude());
+        }
+    }
+
+    private void decrement(long storeId, String key) {
+        Map<String, Integer> keys = matchingProducts.get(storeId);
+        if (keys == null) {
+            return;
+        }
+        Integer count = keys.computeIfPresent(key, (k, value) -> value > 1 ? value - 1 : null);
+        if (count == null) {
+            GeoGridIndex grid = grids.get(key);
+            if (grid != null) {
+                grid.remove(storeId);
+            }
+            if (keys.isEmpty()) {
+                matchingProducts.remove(storeId);
+            }
+        }
+    }
+
+    private GeoGridIndex grid(String key) {
+        return grids.computeIfAbsent(key, k -> new GeoGridIndex(cellDegrees));
+    }
+
+    private List<NearbyStoreDTO> toResults(List<GeoGridIndex.Hit> hits, boolean withDistance) {
+        List<NearbyStoreDTO> results = new ArrayList<>(hits.size());
+        for (GeoGridIndex.Hit hit : hits) {
+            StoreDTO store = stores.get(hit.id());
+            if (store != null) {
+                results.add(new NearbyStoreDTO(store.id(), store.name(), store.address(),
+                        store.latitude(), store.longitude(), withDistance ? hit.distanceKm() : null));
+            }
+        }
+        return results;
+    }
+
+    private static Placement placementOf(Product product) {
+        if (product.getStoreId() == null) {
+            return null;
+        }
+        boolean inStock = product.getStockQuantity() == null || product.getStockQuantity() > 0;
+        return new Placement(product.getStoreId(), normalizeCategory(product.getCategory()), inStock);
+    }
+
+    private static String filterKey(String category, boolean inStockOnly) {
+        String normalized = normalizeCategory(category);
+        String key = normalized == null ? ALL_STORES : "category:" + normalized;
+        return inStockOnly ? key + IN_STOCK_SUFFIX : key;
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null || category.isBlank() ? null : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Store findStore(Long id) {
+        return storeRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Store not found with id: " + id));
+    }
+
+    private static void applyFields(Store store, StoreDTO storeDTO) {
+        store.setName(storeDTO.name());
+        store.setAddress(storeDTO.address());
+        store.setLatitude(storeDTO.latitude());
+        store.setLongitude(storeDTO.longitude());
+    }
+
+    private StoreDTO convertToDTO(Store store) {
+        return new StoreDTO(
+                store.getId(),
+                store.getName(),
+                store.getAddress(),
+                store.getLatitude(),
+                store.getLongitude()
+        );
+    }
+
+    // Where a product counts towards store filters: its store, category and stock state
+    private record Placement(long storeId, String category, boolean inStock) {
+
+        Set<String> keys() {
+            Set<String> keys = new HashSet<>(4);
+            if (inStock) {
+                keys.add(ALL_STORES + IN_STOCK_SUFFIX);
+            }
+            if (category != null) {
+                keys.add(filterKey(category, false));
+                if (inStock) {
+                    keys.add(filterKey(category, true));
+                }
+            }
+            return keys;
+        }
+    }
+}
@@ -0,0 +1,478 @@
+package com.giftidea.service.impl;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletMapping;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A GET for one path, detached from the outer request: everything a handler may read is copied
+ * when the sub-request is built, on the thread serving the batch, and the wrapped request is a
+ * placeholder that refuses every call. A sub-request still running after its batch timed out
+ * therefore never reads a request object the container has already recycled.
+ */
+final class SubRequest extends HttpServletRequestWrapper {
+
+    private final String path;
+    private final String queryString;
+    private final String contextPath;
+    private final String scheme;
+    private final String serverName;
+    private final int serverPort;
+    private final boolean secure;
+    private final String remoteAddr;
+    private final int remotePort;
+    private final String localAddr;
+    private final String localName;
+    private final int localPort;
+    private final String protocol;
+    private final String requestId;
+    private final Locale locale;
+    private final ServletContext servletContext;
+    private final HttpServletMapping mapping;
+    private final Authentication authentication;
+    private final Map<String, String[]> parameters = new LinkedHashMap<>();
+    private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    SubRequest(HttpServletRequest outer, String pathAndQuery, Authentication authentication) {
+        super(detached(HttpServletRequest.class));
+        int query = pathAndQuery.indexOf('?');
+        this.path = query >= 0 ? pathAndQuery.substring(0, query) : pathAndQuery;
+        this.queryString = query >= 0 ? pathAndQuery.substring(query + 1) : null;
+        this.contextPath = outer.getContextPath();
+        this.scheme = outer.getScheme();
+        this.serverName = outer.getServerName();
+        this.serverPort = outer.getServerPort();
+        this.secure = outer.isSecure();
+        this.remoteAddr = outer.getRemoteAddr();
+        this.remotePort = outer.getRemotePort();
+        this.localAddr = outer.getLocalAddr();
+        this.localName = outer.getLocalName();
+        this.localPort = outer.getLocalPort();
+        this.protocol = outer.getProtocol();
+        this.requestId = outer.getRequestId();
+        this.locale = outer.getLocale();
+        this.servletContext = outer.getServletContext();
+        // Immutable, and the same for every path the dispatcher serves
+        this.mapping = outer.getHttpServletMapping();
+        this.authentication = authentication;
+        // Sub-responses are embedded in the batch response, which has its own encoding
+        headers.put(HttpHeaders.ACCEPT, List.of(MediaType.APPLICATION_JSON_VALUE));
+        String language = outer.getHeader(HttpHeaders.ACCEPT_LANGUAGE);
+        if (language != null) {
+            headers.put(HttpHeaders.ACCEPT_LANGUAGE, List.of(language));
+        }
+        parseQuery();
+    }
+
+    /**
+     * Stands in for a request or response a wrapper must not reach: every call fails.
+     */
+    static <T> T detached(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(SubRequest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "detached " + type.getSimpleName();
+                    default -> throw new IllegalStateException(
+                            method.getName() + " is not available to batch sub-requests");
+                }));
+    }
+
+    private void parseQuery() {
+        if (queryString == null || queryString.isEmpty()) {
+            return;
+        }
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        for (String pair : queryString.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals >= 0 ? pair.substring(0, equals) : pair, StandardCharsets.UTF_8);
+            String value = equals >= 0 ? URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8) : "";
+            values.computeIfAbsent(name, n -> new ArrayList<>()).add(value);
+        }
+        values.forEach((name, list) -> parameters.put(name, list.toArray(new String[0])));
+    }
+
+    @Override
+    public String getMethod() {
+        return "GET";
+    }
+
+    @Override
+    public String getRequestURI() {
+        return contextPath + path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(scheme).append("://").append(serverName).append(':').append(serverPort)
+                .append(getRequestURI());
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return path;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.enumeration(headers.getOrDefault(name, List.of()));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1;
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return -1;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return true;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new IllegalStateException("Batch sub-requests have no body");
+            }
+
+            @Override
+            public int read() {
+                return -1;
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new StringReader(""));
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(List.of(locale));
+    }
+
+    @Override
+    public String getScheme() {
+        return scheme;
+    }
+
+    @Override
+    public String getServerName() {
+        return serverName;
+    }
+
+    @Override
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return secure;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteAddr;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return remotePort;
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return localAddr;
+    }
+
+    @Override
+    public String getLocalName() {
+        return localName;
+    }
+
+    @Override
+    public int getLocalPort() {
+        return localPort;
+    }
+
+    @Override
+    public String getProtocol() {
+        return protocol;
+    }
+
+    @Override
+    public String getRequestId() {
+        return requestId;
+    }
+
+    @Override
+    public String getProtocolRequestId() {
+        return "";
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public HttpServletMapping getHttpServletMapping() {
+        return mapping;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public Map<String, String> getTrailerFields() {
+        return Map.of();
+    }
+
+    @Override
+    public boolean isTrailerFieldsReady() {
+        return true;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return authentication;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return authentication == null ? null : authentication.getName();
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return null;
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    // The API is stateless; nothing a batched GET runs needs a session
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new IllegalStateException("Batch sub-requests have no session");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Batch sub-requests cannot be asynchronous");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("Batch sub-requests cannot be asynchronous");
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Batch sub-requests cannot be asynchronous");
+    }
+}
@@ -0,0 +1,221 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.service.ImageOrigin;
+import com.giftidea.service.ThumbnailService;
+import com.giftidea.util.DiskLruCache;
+import com.giftidea.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Catalog thumbnails in a size-bounded on-disk cache. An entry is addressed by the SHA-256 of the
+ * source URL and width, which also serves as its ETag: catalog image URLs are treated as immutable,
+ * so a changed image needs a new URL. Concurrent misses for one entry fetch and scale it once.
+ */
+@Service
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailServiceImpl.class);
+
+    private static final long TOUCH_INTERVAL_MS = 3_600_000;
+
+    @Autowired
+    private ImageOrigin origin;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${thumbnails.widths:160,320,640}")
+    private List<Integer> widths;
+
+    @Value("${thumbnails.cache-dir:thumbnail-cache}")
+    private String cacheDir;
+
+    @Value("${thumbnails.cache-max-bytes:1073741824}")
+    private long cacheMaxBytes;
+
+    @Value("${thumbnails.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    @Value("${thumbnails.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    private DiskLruCache cache;
+    private final SingleFlight<String, Thumbnail> creations = new SingleFlight<>();
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() throws IOException {
+        cache = new DiskLruCache(Paths.get(cacheDir), cacheMaxBytes, TOUCH_INTERVAL_MS);
+        hits = Counter.builder("thumbnails.requests").tag("outcome", "hit").register(meterRegistry);
+        misses = Counter.builder("thumbnails.requests").tag("outcome", "miss").register(meterRegistry);
+        Gauge.builder("thumbnails.cache.bytes", cache, DiskLruCache::totalBytes).register(meterRegistry);
+        Gauge.builder("thumbnails.cache.entries", cache, DiskLruCache::size).register(meterRegistry);
+        FunctionCounter.builder("thumbnails.cache.evictions", cache, DiskLruCache::evictions).register(meterRegistry);
+        creations.registerMetrics(meterRegistry, "thumbnails");
+        log.info("Thumbnail cache at {}: {} entries, {} bytes", Paths.get(cacheDir).toAbsolutePath(),
+                cache.size(), cache.totalBytes());
+    }
+
+    @Override
+    public Thumbnail getThumbnail(String url, int width) throws IOException {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("Image URL is required");
+        }
+        if (!widths.contains(width)) {
+            throw new IllegalArgumentException("Unsupported thumbnail width " + width + ", use one of " + widths);
+        }
+        String key = key(url, width);
+        Thumbnail cached = cached(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        try {
+            return creations.load(key, () -> {
+                try {
+                    return create(url, width, key);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public List<Integer> getWidths() {
+        return widths;
+    }
+
+    private Thumbnail cached(String key) throws IOException {
+        Path file = cache.get(key);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new Thumbnail(file, Files.size(file), key);
+        } catch (NoSuchFileException e) {
+            // Evicted since the lookup; create it again
+            return null;
+        }
+    }
+
+    private Thumbnail create(String url, int width, String key) throws IOException {
+        // Another request may have finished creating it since our lookup
+        Thumbnail cached = cached(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] jpeg = encode(scale(decode(origin.fetch(url), url), width));
+        return new Thumbnail(cache.put(key, jpeg), jpeg.length, key);
+    }
+
+    private BufferedImage decode(byte[] bytes, String url) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + url);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Checked from the header, before any pixels are decoded
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxSourcePixels) {
+                    throw new IOException("Image has too many pixels to scale: " + url);
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halving steps keep bilinear sampling from skipping source pixels on large reductions;
+    // images narrower than the width are not enlarged
+    private static BufferedImage scale(BufferedImage source, int width) {
+        int targetWidth = Math.min(width, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                // JPEG has no alpha, transparent areas become white
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String key(String url, int width) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest((width + "\n" + url).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.model.TokenRevocation;
+import com.giftidea.repository.TokenRevocationRepository;
+import com.giftidea.service.TokenRevocationService;
+import com.giftidea.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Token revocation without a database query per request. Revoke-all is a per-user watermark: tokens
+ * issued before it are rejected. Single tokens go by jti into Bloom filters bucketed by token expiry,
+ * so a check reads one bucket and whole buckets are dropped once their tokens have expired. A Bloom
+ * false positive (see jwt.revocation.false-positive-rate) only forces that user to log in again.
+ * Revocations are stored in token_revocations, loaded on startup and polled from other instances.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    @Autowired
+    private TokenRevocationRepository revocationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.expiration:86400000}")
+    private long jwtExpiration;
+
+    @Value("${jwt.revocation.bucket-ms:3600000}")
+    private long bucketMs;
+
+    @Value("${jwt.revocation.expected-per-bucket:10000}")
+    private int expectedPerBucket;
+
+    @Value("${jwt.revocation.false-positive-rate:0.000001}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.sync-overlap-ms:30000}")
+    private long syncOverlapMs;
+
+    // Username -> epoch millis; tokens issued before it are revoked
+    private final Map<String, Long> watermarks = new ConcurrentHashMap<>();
+    // Expiry bucket -> revoked jtis of tokens expiring in it
+    private final Map<Long, Bucket> buckets = new ConcurrentHashMap<>();
+    private volatile Instant lastSync;
+    private Counter rejectedByWatermark;
+    private Counter rejectedByJti;
+
+    @PostConstruct
+    public void init() {
+        Instant now = Instant.now();
+        List<TokenRevocation> active = revocationRepository.findByExpiresAtAfter(now);
+        active.forEach(this::apply);
+        lastSync = now;
+
+        rejectedByWatermark = Counter.builder("jwt.revocation.rejected").tag("reason", "revoke-all").register(meterRegistry);
+        rejectedByJti = Counter.builder("jwt.revocation.rejected").tag("reason", "jti").register(meterRegistry);
+        Gauge.builder("jwt.revocation.watermarks", watermarks, Map::size).register(meterRegistry);
+        Gauge.builder("jwt.revocation.buckets", buckets, Map::size).register(meterRegistry);
+        log.info("Loaded {} active token revocations", active.size());
+    }
+
+    @Override
+    public boolean isRevoked(String username, String jti, Date issuedAt, Date expiration) {
+        Long revokedBefore = watermarks.get(username);
+        if (revokedBefore != null && (issuedAt == null || issuedAt.getTime() < revokedBefore)) {
+            rejectedByWatermark.increment();
+            return true;
+        }
+        if (jti != null && expiration != null) {
+            Bucket bucket = buckets.get(bucketOf(expiration.getTime()));
+            if (bucket != null && bucket.mightContain(jti)) {
+                rejectedByJti.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void revoke(String username, String jti, Date expiration) {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUsername(username);
+        revocation.setJti(jti);
+        revocation.setExpiresAt(expiration.toInstant());
+        revocation.setRevokedAt(Instant.now());
+        apply(revocationRepository.save(revocation));
+    }
+
+    @Override
+    public void revokeAll(String username) {
+        Instant now = Instant.now();
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setUsername(username);
+        // Tokens carry their issue time in milliseconds, so only those issued up to this one are revoked
+        revocation.setRevokedBefore(Instant.ofEpochMilli(now.toEpochMilli() + 1));
+        revocation.setExpiresAt(revocation.getRevokedBefore().plusMillis(jwtExpiration));
+        revocation.setRevokedAt(now);
+        apply(revocationRepository.save(revocation));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        Instant now = Instant.now();
+        // Windows overlap to catch rows that committed late; applying one twice is harmless
+        revocationRepository.findByRevokedAtGreaterThanEqual(lastSync.minusMillis(syncOverlapMs)).forEach(this::apply);
+        lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        buckets.keySet().removeIf(bucket -> (bucket + 1) * bucketMs <= now);
+        watermarks.values().removeIf(revokedBefore -> revokedBefore + jwtExpiration <= now);
+        int deleted = revocationRepository.deleteExpired(Instant.ofEpochMilli(now));
+        if (deleted > 0) {
+            log.info("Pruned {} expired token revocations", deleted);
+        }
+    }
+
+    private void apply(TokenRevocation revocation) {
+        if (revocation.getRevokedBefore() != null) {
+            watermarks.merge(revocation.getUsername(), revocation.getRevokedBefore().toEpochMilli(), Math::max);
+        }
+        if (revocation.getJti() != null) {
+            buckets.computeIfAbsent(bucketOf(revocation.getExpiresAt().toEpochMilli()), bucket -> new Bucket())
+                    .add(revocation.getJti());
+        }
+    }
+
+    private long bucketOf(long expiresAtMillis) {
+        return Math.floorDiv(expiresAtMillis, bucketMs);
+    }
+
+    // Grows by another filter when the current one is full, so the false positive rate holds
+    private final class Bucket {
+        private final List<BloomFilter> filters = new CopyOnWriteArrayList<>();
+
+        synchronized void add(String jti) {
+            if (mightContain(jti)) {
+                return;
+            }
+            BloomFilter current = filters.isEmpty() ? null : filters.get(filters.size() - 1);
+            if (current == null || current.isFull()) {
+                current = BloomFilter.create(expectedPerBucket, falsePositiveRate);
+                filters.add(current);
+            }
+            current.add(jti);
+        }
+
+        boolean mightContain(String jti) {
+            for (BloomFilter filter : filters) {
+                if (filter.mightContain(jti)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
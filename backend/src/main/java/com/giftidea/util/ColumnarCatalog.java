@@ -0,0 +1,380 @@
+package com.giftidea.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only columnar catalog file, memory-mapped so scans read prices, categories and names
+ * straight from the page cache without creating objects per row. Layout, little-endian:
+ *
+ * <pre>
+ * header (128 bytes): magic, version, rows, categories, built-at millis, section offsets
+ * ids           long   per row
+ * prices        double per row, NaN when unknown
+ * category      int    per row, index into the dictionary, -1 when unknown
+ * name offsets  int    per row + 1, into the name bytes
+ * sources       byte   per row
+ * name bytes    lower-cased UTF-8
+ * dictionary    count, then length-prefixed UTF-8 category names
+ * </pre>
+ *
+ * Files are written by {@link Writer} next to the target and moved into place, so a reader only
+ * ever maps a complete file. The whole file is one mapping, which limits it to 2 GB.
+ */
+public final class ColumnarCatalog {
+
+    private static final int MAGIC = 0x47434F4C;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 128;
+
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final long builtAt;
+    private final int idsAt;
+    private final int pricesAt;
+    private final int categoriesAt;
+    private final int nameOffsetsAt;
+    private final int sourcesAt;
+    private final int namesAt;
+    private final String[] dictionary;
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private ColumnarCatalog(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a columnar catalog file");
+        }
+        this.rows = buffer.getInt(8);
+        int categoryCount = buffer.getInt(12);
+        this.builtAt = buffer.getLong(16);
+        this.idsAt = (int) buffer.getLong(24);
+        this.pricesAt = (int) buffer.getLong(32);
+        this.categoriesAt = (int) buffer.getLong(40);
+        this.nameOffsetsAt = (int) buffer.getLong(48);
+        this.sourcesAt = (int) buffer.getLong(56);
+        this.namesAt = (int) buffer.getLong(64);
+        int position = (int) buffer.getLong(72);
+        if (buffer.getInt(position) != categoryCount) {
+            throw new IOException("Corrupt columnar catalog dictionary");
+        }
+        position += Integer.BYTES;
+        this.dictionary = new String[categoryCount];
+        for (int i = 0; i < categoryCount; i++) {
+            int length = buffer.getInt(position);
+            byte[] bytes = new byte[length];
+            buffer.get(position + Integer.BYTES, bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+            codes.put(dictionary[i], i);
+            position += Integer.BYTES + length;
+        }
+    }
+
+    public static ColumnarCatalog open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed and after the file is replaced
+            return new ColumnarCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public long builtAt() {
+        return builtAt;
+    }
+
+    public int categoryCount() {
+        return dictionary.length;
+    }
+
+    public String category(int code) {
+        return dictionary[code];
+    }
+
+    /**
+     * Dictionary code of a category, or -1 when no row has it.
+     */
+    public int categoryCode(String category) {
+        return codes.getOrDefault(category, -1);
+    }
+
+    public long id(int row) {
+        return buffer.getLong(idsAt + row * Long.BYTES);
+    }
+
+    public double price(int row) {
+        return buffer.getDouble(pricesAt + row * Double.BYTES);
+    }
+
+    public int categoryCode(int row) {
+        return buffer.getInt(categoriesAt + row * Integer.BYTES);
+    }
+
+    public byte source(int row) {
+        return buffer.get(sourcesAt + row);
+    }
+
+    /**
+     * Whether the row's name contains the (lower-cased UTF-8) needle; compares bytes in place.
+     */
+    public boolean nameContains(int row, byte[] needle) {
+        int start = namesAt + buffer.getInt(nameOffsetsAt + row * Integer.BYTES);
+        int end = namesAt + buffer.getInt(nameOffsetsAt + (row + 1) * Integer.BYTES);
+        int last = end - needle.length;
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < needle.length && buffer.get(i + j) == needle[j]) {
+                j++;
+            }
+            if (j == needle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Streams rows into per-column temp files, then concatenates them into the target with an
+     * atomic move. Heap use does not grow with the number of rows, apart from the dictionary.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path directory;
+        private final Column ids;
+        private final Column prices;
+        private final Column categories;
+        private final Column nameOffsets;
+        private final Column sources;
+        private final Column names;
+        private final List<Column> columns = new ArrayList<>();
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private int rows;
+        private boolean committed;
+
+        public Writer(Path target) throws IOException {
+            this.target = target;
+            this.directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.ids = column();
+            this.prices = column();
+            this.categories = column();
+            this.nameOffsets = column();
+            this.sources = column();
+            this.names = column();
+            nameOffsets.putInt(0);
+        }
+
+        private Column column() throws IOException {
+            Column column = new Column(Files.createTempFile(directory, "column", ".tmp"));
+            columns.add(column);
+            return column;
+        }
+
+        /**
+         * Appends a row; a null price or category is stored as unknown. The category should already
+         * be normalized, the name is lower-cased here.
+         */
+        public void add(long id, byte source, Double price, String category, String name) throws IOException {
+            ids.putLong(id);
+            prices.putDouble(price == null ? Double.NaN : price);
+            categories.putInt(category == null ? -1 : dictionary.computeIfAbsent(category, c -> dictionary.size()));
+            sources.put(source);
+            if (name != null) {
+                names.put(name.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            }
+            if (names.size() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog names exceed 2 GB");
+            }
+            nameOffsets.putInt((int) names.size());
+            rows++;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public void commit() throws IOException {
+            for (Column column : columns) {
+                column.flush();
+            }
+            ByteBuffer dictionaryBytes = encodeDictionary();
+            long[] offsets = new long[7];
+            long position = HEADER_BYTES;
+            Column[] order = {ids, prices, categories, nameOffsets, sources, names};
+            for (int i = 0; i < order.length; i++) {
+                offsets[i] = position;
+                position += order[i].size();
+            }
+            offsets[6] = position;
+            if (position + dictionaryBytes.remaining() > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot exceeds 2 GB");
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(dictionary.size()).putLong(System.currentTimeMillis());
+            for (long offset : offsets) {
+                header.putLong(offset);
+            }
+            header.clear();
+
+            Path temp = Files.createTempFile(directory, "catalog", ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    writeFully(out, header);
+                    for (Column column : order) {
+                        column.transferTo(out);
+                    }
+                    writeFully(out, dictionaryBytes);
+                    out.force(true);
+                }
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                committed = true;
+            } finally {
+                if (!committed) {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (Column column : columns) {
+                try {
+                    column.delete();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private ByteBuffer encodeDictionary() {
+            List<byte[]> encoded = new ArrayList<>(dictionary.size());
+            int length = Integer.BYTES;
+            for (String category : dictionary.keySet()) {
+                byte[] bytes = category.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                length += Integer.BYTES + bytes.length;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(encoded.size());
+            for (byte[] bytes : encoded) {
+                buffer.putInt(bytes.length).put(bytes);
+            }
+            return buffer.flip();
+        }
+
+        private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * One column being written: a buffered, append-only temp file.
+     */
+    private static final class Column {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        private long size;
+
+        Column(Path file) throws IOException {
+            this.file = file;
+            this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            size += Long.BYTES;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+            size += Double.BYTES;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            size += Integer.BYTES;
+        }
+
+        void put(byte value) throws IOException {
+            ensure(1);
+            buffer.put(value);
+            size++;
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+            size += bytes.length;
+        }
+
+        long size() {
+            return size;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void transferTo(FileChannel target) throws IOException {
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
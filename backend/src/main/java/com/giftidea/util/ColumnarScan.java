@@ -0,0 +1,170 @@
+package com.giftidea.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Filter-and-aggregate scan over a {@link ColumnarCatalog}. Rows are split into fixed chunks that
+ * run as fork-join tasks; each chunk reads the mapped columns directly and fills one partial
+ * result, so the only allocations are a few arrays per chunk.
+ */
+public final class ColumnarScan {
+
+    private ColumnarScan() {
+    }
+
+    /**
+     * Row predicate. A negative source or category code matches any row; price limits are
+     * inclusive, and when either is set rows without a price are skipped. The keyword is
+     * lower-cased UTF-8, or null for no name filter.
+     */
+    public record Filter(int source, int categoryCode, double minPrice, double maxPrice, byte[] keyword) {
+
+        boolean pricesLimited() {
+            return minPrice > Double.NEGATIVE_INFINITY || maxPrice < Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Aggregates of the matching rows. Price statistics and bands cover rows with a price;
+     * categories are counted by dictionary code. Bands follow {@link PriceHistogram}: bounds are
+     * exclusive upper limits and the last band is open-ended.
+     */
+    public static final class Result {
+
+        private long matched;
+        private long priced;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private final long[] bands;
+        private final long[] categories;
+
+        Result(int bandCount, int categoryCount) {
+            this.bands = new long[bandCount];
+            this.categories = new long[categoryCount];
+        }
+
+        public long matched() {
+            return matched;
+        }
+
+        public long priced() {
+            return priced;
+        }
+
+        public double sum() {
+            return sum;
+        }
+
+        public Double min() {
+            return priced == 0 ? null : min;
+        }
+
+        public Double max() {
+            return priced == 0 ? null : max;
+        }
+
+        public long[] bands() {
+            return bands;
+        }
+
+        public long[] categories() {
+            return categories;
+        }
+
+        void merge(Result other) {
+            matched += other.matched;
+            priced += other.priced;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            for (int i = 0; i < bands.length; i++) {
+                bands[i] += other.bands[i];
+            }
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] += other.categories[i];
+            }
+        }
+    }
+
+    public static Result empty(ColumnarCatalog catalog, double[] bounds) {
+        return new Result(bounds.length + 1, catalog.categoryCount());
+    }
+
+    public static Result scan(ColumnarCatalog catalog, Filter filter, double[] bounds, int chunkRows, ForkJoinPool pool) {
+        return pool.invoke(new Chunk(catalog, filter, bounds, Math.max(1, chunkRows), 0, catalog.rows()));
+    }
+
+    private static final class Chunk extends RecursiveTask<Result> {
+
+        private final ColumnarCatalog catalog;
+        private final Filter filter;
+        private final double[] bounds;
+        private final int chunkRows;
+        private final int from;
+        private final int to;
+
+        Chunk(ColumnarCatalog catalog, Filter filter, double[] bounds, int chunkRows, int from, int to) {
+            this.catalog = catalog;
+            this.filter = filter;
+            this.bounds = bounds;
+            this.chunkRows = chunkRows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from <= chunkRows) {
+                return scanRange();
+            }
+            int middle = (from + to) >>> 1;
+            Chunk left = new Chunk(catalog, filter, bounds, chunkRows, from, middle);
+            left.fork();
+            Result result = new Chunk(catalog, filter, bounds, chunkRows, middle, to).compute();
+            result.merge(left.join());
+            return result;
+        }
+
+        private Result scanRange() {
+            Result result = new Result(bounds.length + 1, catalog.categoryCount());
+            boolean pricesLimited = filter.pricesLimited();
+            for (int row = from; row < to; row++) {
+                if (filter.source() >= 0 && catalog.source(row) != filter.source()) {
+                    continue;
+                }
+                int category = catalog.categoryCode(row);
+                if (filter.categoryCode() >= 0 && category != filter.categoryCode()) {
+                    continue;
+                }
+                double price = catalog.price(row);
+                boolean hasPrice = !Double.isNaN(price);
+                if (pricesLimited && (!hasPrice || price < filter.minPrice() || price > filter.maxPrice())) {
+                    continue;
+                }
+                if (filter.keyword() != null && !catalog.nameContains(row, filter.keyword())) {
+                    continue;
+                }
+                result.matched++;
+                if (category >= 0) {
+                    result.categories[category]++;
+                }
+                if (hasPrice) {
+                    result.priced++;
+                    result.sum += price;
+                    result.min = Math.min(result.min, price);
+                    result.max = Math.max(result.max, price);
+                    result.bands[band(price)]++;
+                }
+            }
+            return result;
+        }
+
+        private int band(double price) {
+            int index = Arrays.binarySearch(bounds, price);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.giftidea.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable weighted trie flattened into parallel arrays. Children of a node are stored
+ * contiguously and sorted by label, every node keeps the best weight found in its subtree
+ * so top-k completion is a best-first walk. Supports prefix lookups within a bounded
+ * Levenshtein distance. Safe for concurrent reads once built.
+ */
+public final class CompactTrie {
+
+    private static final int MAX_PAYLOADS_PER_KEY = 4;
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] terminal;
+    private final int[] maxWeight;
+    private final int[] keyWeights;
+    private final int[][] keyPayloads;
+
+    private CompactTrie(char[] labels, int[] firstChild, int[] childCount, int[] terminal, int[] maxWeight,
+                        int[] keyWeights, int[][] keyPayloads) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.terminal = terminal;
+        this.maxWeight = maxWeight;
+        this.keyWeights = keyWeights;
+        this.keyPayloads = keyPayloads;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    /**
+     * Returns payloads of keys that start with a string within maxEdits of prefix,
+     * closest matches first, then by weight.
+     */
+    public List<Match> search(String prefix, int maxEdits, int limit, int nodeBudget) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        Map<Integer, Match> results = new LinkedHashMap<>();
+        int m = prefix.length();
+        int[] row = new int[m + 1];
+        for (int i = 0; i <= m; i++) {
+            row[i] = i;
+        }
+        // Subtrees below a collected node are already matched at that node's distance
+        int covered = maxEdits + 1;
+        if (m <= maxEdits) {
+            collect(0, m, limit, results);
+            covered = m;
+        }
+        if (covered > 0) {
+            int[] budget = {nodeBudget};
+            descend(0, prefix, row, covered, limit, results, budget);
+        }
+
+        List<Match> matches = new ArrayList<>(results.values());
+        matches.sort(Comparator.comparingInt(Match::distance).thenComparing(Match::weight, Comparator.reverseOrder()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private void descend(int node, String prefix, int[] parentRow, int covered, int limit,
+                         Map<Integer, Match> results, int[] budget) {
+        int m = prefix.length();
+        int end = firstChild[node] + childCount[node];
+        for (int child = firstChild[node]; child < end; child++) {
+            if (budget[0]-- <= 0) {
+                return;
+            }
+            char label = labels[child];
+            int[] row = new int[m + 1];
+            row[0] = parentRow[0] + 1;
+            int rowMin = row[0];
+            for (int i = 1; i <= m; i++) {
+                int cost = prefix.charAt(i - 1) == label ? 0 : 1;
+                row[i] = Math.min(Math.min(row[i - 1] + 1, parentRow[i] + 1), parentRow[i - 1] + cost);
+                rowMin = Math.min(rowMin, row[i]);
+            }
+            int childCovered = covered;
+            if (row[m] < covered) {
+                // The whole prefix is matched here, everything below is a completion
+                collect(child, row[m], limit, results);
+                childCovered = row[m];
+            }
+            // No node below matches closer than rowMin, so go on while that could still improve;
+            // "kitc" then reaches its exact completions after "kit" matched them with one edit
+            if (rowMin < childCovered) {
+                descend(child, prefix, row, childCovered, limit, results, budget);
+            }
+        }
+    }
+
+    // Best-first walk ordered by subtree weight; keys are emitted in descending weight
+    private void collect(int root, int distance, int limit, Map<Integer, Match> results) {
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+        queue.add(new long[]{maxWeight[root], root, 0});
+        int emitted = 0;
+        while (!queue.isEmpty() && emitted < limit) {
+            long[] head = queue.poll();
+            int index = (int) head[1];
+            if (head[2] == 1) {
+                for (int payload : keyPayloads[index]) {
+                    Match existing = results.get(payload);
+                    if (existing == null || existing.distance() > distance) {
+                        results.put(payload, new Match(payload, keyWeights[index], distance));
+                        emitted++;
+                    }
+                }
+                continue;
+            }
+            if (terminal[index] >= 0) {
+                queue.add(new long[]{keyWeights[terminal[index]], terminal[index], 1});
+            }
+            int end = firstChild[index] + childCount[index];
+            for (int child = firstChild[index]; child < end; child++) {
+                queue.add(new long[]{maxWeight[child], child, 0});
+            }
+        }
+    }
+
+    public record Match(int payload, int weight, int distance) {
+    }
+
+    public static final class Builder {
+
+        private final Map<String, KeyEntry> keys = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder add(String key, int weight, int payload) {
+            if (key == null || key.isEmpty()) {
+                return this;
+            }
+            keys.computeIfAbsent(key, k -> new KeyEntry()).add(weight, payload);
+            return this;
+        }
+
+        public CompactTrie build() {
+            String[] sorted = keys.keySet().toArray(new String[0]);
+            Arrays.sort(sorted);
+
+            int capacity = 1;
+            for (String key : sorted) {
+                capacity += key.length();
+            }
+            char[] labels = new char[capacity];
+            int[] firstChild = new int[capacity];
+            int[] childCount = new int[capacity];
+            int[] terminal = new int[capacity];
+            int[] maxWeight = new int[capacity];
+            Arrays.fill(terminal, -1);
+
+            int[] keyWeights = new int[sorted.length];
+            int[][] keyPayloads = new int[sorted.length][];
+            for (int i = 0; i < sorted.length; i++) {
+                KeyEntry entry = keys.get(sorted[i]);
+                keyWeights[i] = entry.weight;
+                keyPayloads[i] = entry.payloads();
+            }
+
+            // Breadth-first layout keeps siblings adjacent; each queue item is {node, from, to, depth}
+            int nodes = 1;
+            ArrayDeque<int[]> queue = new ArrayDeque<>();
+            queue.add(new int[]{0, 0, sorted.length, 0});
+            while (!queue.isEmpty()) {
+                int[] item = queue.poll();
+                int node = item[0];
+                int from = item[1];
+                int to = item[2];
+                int depth = item[3];
+                if (from < to && sorted[from].length() == depth) {
+                    terminal[node] = from++;
+                }
+                firstChild[node] = nodes;
+                int start = from;
+                while (start < to) {
+                    char label = sorted[start].charAt(depth);
+                    int stop = start + 1;
+                    while (stop < to && sorted[stop].charAt(depth) == label) {
+                        stop++;
+                    }
+                    labels[nodes] = label;
+                    queue.add(new int[]{nodes, start, stop, depth + 1});
+                    nodes++;
+                    start = stop;
+                }
+                childCount[node] = nodes - firstChild[node];
+            }
+
+            // Children always follow their parent, so a reverse pass sees subtrees first
+            for (int node = nodes - 1; node >= 0; node--) {
+                int best = terminal[node] >= 0 ? keyWeights[terminal[node]] : 0;
+                int end = firstChild[node] + childCount[node];
+                for (int child = firstChild[node]; child < end; child++) {
+                    best = Math.max(best, maxWeight[child]);
+                }
+                maxWeight[node] = best;
+            }
+
+            return new CompactTrie(
+                    Arrays.copyOf(labels, nodes),
+                    Arrays.copyOf(firstChild, nodes),
+                    Arrays.copyOf(childCount, nodes),
+                    Arrays.copyOf(terminal, nodes),
+                    Arrays.copyOf(maxWeight, nodes),
+                    keyWeights,
+                    keyPayloads);
+        }
+    }
+
+    private static final class KeyEntry {
+        private int weight;
+        private final int[] payloads = new int[MAX_PAYLOADS_PER_KEY];
+        private final int[] weights = new int[MAX_PAYLOADS_PER_KEY];
+        private int size;
+
+        void add(int payloadWeight, int payload) {
+            weight = Math.max(weight, payloadWeight);
+            if (size < payloads.length) {
+                payloads[size] = payload;
+                weights[size++] = payloadWeight;
+                return;
+            }
+            // Keep the heaviest payloads when a key is shared by many items
+            int lightest = 0;
+            for (int i = 1; i < size; i++) {
+                if (weights[i] < weights[lightest]) {
+                    lightest = i;
+                }
+            }
+            if (payloadWeight > weights[lightest]) {
+                payloads[lightest] = payload;
+                weights[lightest] = payloadWeight;
+            }
+        }
+
+        int[] payloads() {
+            return Arrays.copyOf(payloads, size);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.giftidea.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Finds a permutation of 0..n-1 where nobody is mapped to themselves or to their own team and
+ * every giver -> receiver edge passes an extra constraint check (explicit exclusions).
+ * <p>
+ * Participants are grouped by team, the largest team is laid out first and the other groups
+ * follow in random order, each shuffled inside; everyone gives to the participant k positions
+ * ahead, where k is the size of the largest team. No group is longer than k and k is at most
+ * n/2, so the rotation never lands inside the giver's own group: a valid assignment in O(n)
+ * whatever the team sizes. Without teams k is 1 and the rotation is a single random cycle.
+ * <p>
+ * When exclusions break some edges of every rotation tried, those givers are unassigned and
+ * matched again with augmenting paths. The search skips the giver's own team as a whole, so
+ * each repaired giver costs O(n + excluded pairs) rather than a scan of the team.
+ */
+public final class ConstrainedDerangement {
+
+    private ConstrainedDerangement() {
+    }
+
+    @FunctionalInterface
+    public interface Constraint {
+        boolean allowed(int giver, int receiver);
+    }
+
+    public enum Strategy { TEAM_ROTATION, MATCHING }
+
+    public record Result(int[] receivers, Strategy strategy) {
+    }
+
+    /**
+     * Returns receivers[giver] for participants with the given team codes (0 means no team), or
+     * throws IllegalStateException when no valid assignment exists. A team larger than half of
+     * the participants is rejected before any search.
+     */
+    public static Result solve(int[] teams, Constraint constraint, SplittableRandom random, int rotationAttempts) {
+        int n = teams.length;
+        if (n < 2) {
+            throw new IllegalStateException("At least two participants are required");
+        }
+        Groups groups = new Groups(teams);
+        int largest = groups.size(groups.largest);
+        if (largest * 2 > n) {
+            throw new IllegalStateException("A team of " + largest + " out of " + n
+                    + " participants leaves no assignment without gifting inside the team");
+        }
+
+        // Keep the rotation with the fewest excluded edges for the repair
+        int[] best = null;
+        int bestViolations = Integer.MAX_VALUE;
+        for (int attempt = 0; attempt < Math.max(1, rotationAttempts) && bestViolations > 0; attempt++) {
+            int[] receivers = rotation(groups, random);
+            int violations = 0;
+            for (int giver = 0; giver < n; giver++) {
+                if (!constraint.allowed(giver, receivers[giver])) {
+                    violations++;
+                }
+            }
+            if (violations < bestViolations) {
+                best = receivers;
+                bestViolations = violations;
+            }
+        }
+        if (bestViolations == 0) {
+            return new Result(best, Strategy.TEAM_ROTATION);
+        }
+        return new Result(repair(best, groups, constraint), Strategy.MATCHING);
+    }
+
+    private static int[] rotation(Groups groups, SplittableRandom random) {
+        int n = groups.groupOf.length;
+        int[] groupOrder = new int[groups.count];
+        groupOrder[0] = groups.largest;
+        for (int g = 0, i = 1; g < groups.count; g++) {
+            if (g != groups.largest) {
+                groupOrder[i++] = g;
+            }
+        }
+        shuffle(groupOrder, 1, groupOrder.length, random);
+
+        int[] order = new int[n];
+        int position = 0;
+        for (int g : groupOrder) {
+            int size = groups.size(g);
+            System.arraycopy(groups.members, groups.start[g], order, position, size);
+            shuffle(order, position, position + size, random);
+            position += size;
+        }
+
+        int shift = groups.size(groups.largest);
+        int[] receivers = new int[n];
+        for (int i = 0; i < n; i++) {
+            receivers[order[i]] = order[(i + shift) % n];
+        }
+        return receivers;
+    }
+
+    private static int[] repair(int[] receivers, Groups groups, Constraint constraint) {
+        int n = receivers.length;
+        int[] receiverOf = receivers.clone();
+        int[] giverOf = new int[n];
+        for (int giver = 0; giver < n; giver++) {
+            giverOf[receiverOf[giver]] = giver;
+        }
+        int[] free = new int[n];
+        int freeCount = 0;
+        for (int giver = 0; giver < n; giver++) {
+            if (!constraint.allowed(giver, receiverOf[giver])) {
+                giverOf[receiverOf[giver]] = -1;
+                receiverOf[giver] = -1;
+                free[freeCount++] = giver;
+            }
+        }
+
+        Search search = new Search(groups);
+        for (int i = 0; i < freeCount; i++) {
+            if (!search.augment(free[i], constraint, receiverOf, giverOf)) {
+                throw new IllegalStateException("No assignment satisfies the exclusion rules");
+            }
+        }
+        return receiverOf;
+    }
+
+    /**
+     * Participants grouped by team, members of a group stored contiguously. Every participant
+     * without a team is a group of their own.
+     */
+    private static final class Groups {
+
+        final int[] groupOf;
+        final int[] members;
+        final int[] start;
+        final int count;
+        final int largest;
+
+        Groups(int[] teams) {
+            int n = teams.length;
+            groupOf = new int[n];
+            Map<Integer, Integer> byTeam = new HashMap<>();
+            int next = 0;
+            for (int i = 0; i < n; i++) {
+                if (teams[i] == 0) {
+                    groupOf[i] = next++;
+                } else {
+                    Integer group = byTeam.get(teams[i]);
+                    if (group == null) {
+                        group = next++;
+                        byTeam.put(teams[i], group);
+                    }
+                    groupOf[i] = group;
+                }
+            }
+            count = next;
+
+            start = new int[count + 1];
+            for (int i = 0; i < n; i++) {
+                start[groupOf[i] + 1]++;
+            }
+            for (int g = 0; g < count; g++) {
+                start[g + 1] += start[g];
+            }
+            int biggest = 0;
+            for (int g = 1; g < count; g++) {
+                if (size(g) > size(biggest)) {
+                    biggest = g;
+                }
+            }
+            largest = biggest;
+
+            members = new int[n];
+            int[] fill = start.clone();
+            for (int i = 0; i < n; i++) {
+                members[fill[groupOf[i]]++] = i;
+            }
+        }
+
+        int size(int group) {
+            return start[group + 1] - start[group];
+        }
+    }
+
+    /**
+     * Breadth-first search for augmenting paths. Receivers not reached yet are kept per group
+     * with a list of groups that still have some, so a giver skips their own team in O(1) and
+     * every other receiver it checks is either claimed for the search or an excluded pair.
+     */
+    private static final class Search {
+
+        private final Groups groups;
+        private final int[] pool;
+        private final int[] left;
+        private final int[] active;
+        private final int[] parent;
+        private final int[] queue;
+
+        Search(Groups groups) {
+            this.groups = groups;
+            int n = groups.groupOf.length;
+            this.pool = new int[n];
+            this.left = new int[groups.count];
+            this.active = new int[groups.count];
+            this.parent = new int[n];
+            this.queue = new int[n];
+        }
+
+        boolean augment(int start, Constraint constraint, int[] receiverOf, int[] giverOf) {
+            System.arraycopy(groups.members, 0, pool, 0, pool.length);
+            for (int g = 0; g < groups.count; g++) {
+                left[g] = groups.size(g);
+                active[g] = g;
+            }
+            int activeCount = groups.count;
+
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            while (head < tail) {
+                int giver = queue[head++];
+                int own = groups.groupOf[giver];
+                int a = 0;
+                while (a < activeCount) {
+                    int group = active[a];
+                    if (group == own) {
+                        a++;
+                        continue;
+                    }
+                    int base = groups.start[group];
+                    int i = 0;
+                    while (i < left[group]) {
+                        int receiver = pool[base + i];
+                        if (!constraint.allowed(giver, receiver)) {
+                            i++;
+                            continue;
+                        }
+                        pool[base + i] = pool[base + --left[group]];
+                        parent[receiver] = giver;
+                        if (giverOf[receiver] < 0) {
+                            // Flip matched and unmatched edges along the path back to start
+                            int current = receiver;
+                            while (current >= 0) {
+                                int owner = parent[current];
+                                int previous = receiverOf[owner];
+                                receiverOf[owner] = current;
+                                giverOf[current] = owner;
+                                current = owner == start ? -1 : previous;
+                            }
+                            return true;
+                        }
+                        queue[tail++] = giverOf[receiver];
+                    }
+                    if (left[group] == 0) {
+                        active[a] = active[--activeCount];
+                    } else {
+                        a++;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static void shuffle(int[] values, int from, int to, SplittableRandom random) {
+        for (int i = to - 1; i > from; i--) {
+            swap(values, i, from + random.nextInt(i - from + 1));
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,191 @@
+package com.giftidea.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded LRU cache of immutable files under one directory. Keys are hex digests, stored as
+ * {@code ab/abcdef...} so no directory grows too large. Files are written to a temp file and moved
+ * into place, so a reader never sees a partial entry. Access order is kept in memory and rebuilt
+ * from modification times on startup; hits refresh the time at most once per touch interval.
+ * A hit moves the entry to the most recently used end, so the file being served is the last one
+ * eviction would pick.
+ */
+public class DiskLruCache {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final long maxBytes;
+    private final long touchIntervalMs;
+
+    // Guarded by this
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+    private long evictions;
+
+    public DiskLruCache(Path root, long maxBytes, long touchIntervalMs) throws IOException {
+        this.root = root;
+        this.maxBytes = maxBytes;
+        this.touchIntervalMs = touchIntervalMs;
+        Files.createDirectories(root);
+        load();
+    }
+
+    /**
+     * The cached file for the key, or null on a miss.
+     */
+    public Path get(String key) {
+        Entry entry;
+        boolean touch;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            long now = System.currentTimeMillis();
+            touch = now - entry.touchedAt >= touchIntervalMs;
+            if (touch) {
+                entry.touchedAt = now;
+            }
+        }
+        if (touch) {
+            try {
+                Files.setLastModifiedTime(entry.path, FileTime.fromMillis(entry.touchedAt));
+            } catch (IOException e) {
+                // Only the order after a restart is affected
+            }
+        }
+        return entry.path;
+    }
+
+    public Path put(String key, byte[] data) throws IOException {
+        Path target = path(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), key, TEMP_SUFFIX);
+        try {
+            Files.write(temp, data);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        List<Path> evicted;
+        synchronized (this) {
+            Entry previous = entries.put(key, new Entry(target, data.length, System.currentTimeMillis()));
+            if (previous != null) {
+                totalBytes -= previous.size;
+            }
+            totalBytes += data.length;
+            evicted = evictOverflow(key);
+        }
+        for (Path path : evicted) {
+            Files.deleteIfExists(path);
+        }
+        return target;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // The entry just written is kept even when it alone exceeds the bound
+    private List<Path> evictOverflow(String keep) {
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> candidate = eldest.next();
+            if (candidate.getKey().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= candidate.getValue().size;
+            evictions++;
+            evicted.add(candidate.getValue().path);
+        }
+        return evicted;
+    }
+
+    private Path path(String key) {
+        if (key.length() < 3 || !key.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Cache keys must be hex digests: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private void load() throws IOException {
+        List<Loaded> found = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        // Left behind by a write that did not finish
+                        Files.deleteIfExists(file);
+                        return;
+                    }
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    found.add(new Loaded(file.getFileName().toString(), file, attributes.size(),
+                            attributes.lastModifiedTime().toMillis()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        found.sort(Comparator.comparingLong(Loaded::modifiedAt));
+        List<Path> evicted;
+        synchronized (this) {
+            for (Loaded file : found) {
+                entries.put(file.key, new Entry(file.path, file.size, file.modifiedAt));
+                totalBytes += file.size;
+            }
+            evicted = evictOverflow(null);
+        }
+        for (Path path : evicted) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private record Loaded(String key, Path path, long size, long modifiedAt) {
+    }
+
+    private static final class Entry {
+        final Path path;
+        final long size;
+        long touchedAt;
+
+        Entry(Path path, long size, long touchedAt) {
+            this.path = path;
+            this.size = size;
+            this.touchedAt = touchedAt;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.giftidea.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket limiter in its GCRA form: each key stores only its theoretical arrival time,
+ * updated with a CAS loop, so checks are lock-free and allocation-free for known keys.
+ * A key whose bucket has refilled completely carries no information and may be evicted;
+ * the map is kept under maxKeys that way. When it is still full, a new key is let through
+ * untracked and counted instead of growing the map: sharing one bucket among all new keys would
+ * let a client that rotates keys throttle every newcomer at once.
+ */
+public class GcraRateLimiter {
+
+    private static final long FRESH = Long.MIN_VALUE;
+    // A full map is swept on insert at most this often; a sweep walks every key
+    private static final long SWEEP_BACKOFF_NANOS = 1_000_000;
+
+    private final int maxKeys;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(FRESH);
+    private final LongAdder untracked = new LongAdder();
+
+    public GcraRateLimiter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Requests let through without a bucket because the map was full.
+     */
+    public long untracked() {
+        return untracked.sum();
+    }
+
+    /**
+     * Takes one token from the key's bucket. Returns 0 when allowed, otherwise the nanoseconds
+     * until a token becomes available. A new key that finds the map full is allowed.
+     */
+    public long tryAcquire(String key, Limit limit, long nowNanos) {
+        AtomicLong bucket = bucket(key, nowNanos);
+        if (bucket == null) {
+            untracked.increment();
+            return 0;
+        }
+        long interval = limit.intervalNanos();
+        long burst = limit.burstNanos();
+        while (true) {
+            long tat = bucket.get();
+            long newTat = Math.max(tat, nowNanos) + interval;
+            long excess = newTat - nowNanos - burst;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops keys whose bucket is full again, i.e. that have been idle long enough.
+     */
+    public int evictExpired(long nowNanos) {
+        int before = buckets.size();
+        buckets.entrySet().removeIf(entry -> entry.getValue().get() <= nowNanos);
+        return before - buckets.size();
+    }
+
+    // Null when the key is new and the map is still full after a sweep
+    private AtomicLong bucket(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            // One thread sweeps; new keys on the others, and until the backoff passes, go untracked
+            long last = lastSweep.get();
+            if ((last == FRESH || nowNanos - last >= SWEEP_BACKOFF_NANOS) && lastSweep.compareAndSet(last, nowNanos)) {
+                evictExpired(nowNanos);
+            }
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(FRESH));
+    }
+
+    /**
+     * Allows capacity requests in a burst, refilled at refillPerSecond.
+     */
+    public record Limit(String name, long intervalNanos, long burstNanos) {
+
+        public static Limit of(String name, int capacity, double refillPerSecond) {
+            if (capacity <= 0 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and refill rate");
+            }
+            long interval = (long) Math.ceil(1_000_000_000L / refillPerSecond);
+            return new Limit(name, interval, interval * capacity);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.giftidea.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uniform lat/lon grid of point ids. Each cell holds its points in immutable primitive arrays
+ * that are replaced on write, so queries run without locks and always see a consistent cell.
+ * Writes are serialized on the index. k-nearest-neighbour search walks rings of cells outwards
+ * and stops once the next ring cannot hold anything closer than the current k-th result.
+ */
+public class GeoGridIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int cols;
+    private final ConcurrentHashMap<Long, Cell> cells = new ConcurrentHashMap<>();
+    // Point id -> cell key, for moves and removals
+    private final ConcurrentHashMap<Long, Long> cellOf = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.cols = (int) Math.ceil(360 / cellDegrees);
+    }
+
+    public int size() {
+        return cellOf.size();
+    }
+
+    public synchronized void put(long id, double lat, double lon) {
+        remove(id);
+        long key = key(row(lat), col(lon));
+        cells.compute(key, (k, cell) -> cell == null ? Cell.of(id, lat, lon) : cell.with(id, lat, lon));
+        cellOf.put(id, key);
+    }
+
+    public synchronized void remove(long id) {
+        Long key = cellOf.remove(id);
+        if (key != null) {
+            cells.computeIfPresent(key, (k, cell) -> cell.without(id));
+        }
+    }
+
+    /**
+     * Up to k points closest to (lat, lon) within maxDistanceKm, nearest first.
+     */
+    public List<Hit> nearest(double lat, double lon, int k, double maxDistanceKm) {
+        if (k <= 0 || cells.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int centerRow = row(lat);
+        int centerCol = col(lon);
+        // A ring r cells out is at least (r - 1) cells away; longitude cells shrink towards the poles
+        double rowKm = cellDegrees * KM_PER_DEGREE;
+        double farthestLat = Math.min(89.9, Math.abs(lat) + maxDistanceKm / KM_PER_DEGREE + cellDegrees);
+        double colKm = rowKm * Math.cos(Math.toRadians(farthestLat));
+        double ringKm = Math.max(1e-6, Math.min(rowKm, colKm));
+        int maxRing = (int) Math.min(Math.max(rows, cols), Math.ceil(maxDistanceKm / ringKm) + 1);
+
+        TopK top = new TopK(k);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (top.isFull() && (ring - 1) * ringKm > top.worst()) {
+                break;
+            }
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                if (row < 0 || row >= rows) {
+                    continue;
+                }
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int col = centerCol - ring; col <= centerCol + ring; col += step) {
+                    Cell cell = cells.get(key(row, Math.floorMod(col, cols)));
+                    if (cell != null) {
+                        scan(cell, lat, lon, maxDistanceKm, top);
+                    }
+                }
+            }
+            if (2 * ring + 1 >= cols && centerRow - ring <= 0 && centerRow + ring >= rows - 1) {
+                break;
+            }
+        }
+        return top.sorted();
+    }
+
+    /**
+     * Points inside the box, up to limit. The box must not cross the antimeridian.
+     */
+    public List<Hit> within(double minLat, double minLon, double maxLat, double maxLon, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        int minRow = row(minLat);
+        int maxRow = row(maxLat);
+        int minCol = Math.max(0, (int) Math.floor((minLon + 180) / cellDegrees));
+        int maxCol = Math.min(cols - 1, (int) Math.floor((maxLon + 180) / cellDegrees));
+        long boxCells = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (boxCells > cells.size()) {
+            // Large boxes: walking the occupied cells is cheaper than walking the box
+            for (Cell cell : cells.values()) {
+                if (collect(cell, minLat, minLon, maxLat, maxLon, limit, hits)) {
+                    break;
+                }
+            }
+            return hits;
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                Cell cell = cells.get(key(row, col));
+                if (cell != null && collect(cell, minLat, minLon, maxLat, maxLon, limit, hits)) {
+                    return hits;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static boolean collect(Cell cell, double minLat, double minLon, double maxLat, double maxLon,
+                                   int limit, List<Hit> hits) {
+        for (int i = 0; i < cell.ids.length; i++) {
+            double lat = cell.lats[i];
+            double lon = cell.lons[i];
+            if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+                hits.add(new Hit(cell.ids[i], 0));
+                if (hits.size() >= limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void scan(Cell cell, double lat, double lon, double maxDistanceKm, TopK top) {
+        for (int i = 0; i < cell.ids.length; i++) {
+            double distance = distanceKm(lat, lon, cell.lats[i], cell.lons[i]);
+            if (distance <= maxDistanceKm) {
+                top.offer(cell.ids[i], distance);
+            }
+        }
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private int row(double lat) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((lat + 90) / cellDegrees)));
+    }
+
+    private int col(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / cellDegrees), cols);
+    }
+
+    private long key(int row, int col) {
+        return (long) row * cols + col;
+    }
+
+    public record Hit(long id, double distanceKm) {
+    }
+
+    private static final class Cell {
+        final long[] ids;
+        final double[] lats;
+        final double[] lons;
+
+        private Cell(long[] ids, double[] lats, double[] lons) {
+            this.ids = ids;
+            this.lats = lats;
+            this.lons = lons;
+        }
+
+        static Cell of(long id, double lat, double lon) {
+            return new Cell(new long[]{id}, new double[]{lat}, new double[]{lon});
+        }
+
+        Cell with(long id, double lat, double lon) {
+            int n = ids.length;
+            long[] newIds = Arrays.copyOf(ids, n + 1);
+            double[] newLats = Arrays.copyOf(lats, n + 1);
+            double[] newLons = Arrays.copyOf(lons, n + 1);
+            newIds[n] = id;
+            newLats[n] = lat;
+            newLons[n] = lon;
+            return new Cell(newIds, newLats, newLons);
+        }
+
+        // Returns null when the cell becomes empty, which drops it from the map
+        Cell without(long id) {
+            int n = ids.length;
+            int at = -1;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] == id) {
+                    at = i;
+                    break;
+                }
+            }
+            if (at < 0) {
+                return this;
+            }
+            if (n == 1) {
+                return null;
+            }
+            long[] newIds = Arrays.copyOf(ids, n - 1);
+            double[] newLats = Arrays.copyOf(lats, n - 1);
+            double[] newLons = Arrays.copyOf(lons, n - 1);
+            if (at < n - 1) {
+                newIds[at] = ids[n - 1];
+                newLats[at] = lats[n - 1];
+                newLons[at] = lons[n - 1];
+            }
+            return new Cell(newIds, newLats, newLons);
+        }
+    }
+
+    // Bounded max-heap on distance keeping the k closest points seen so far
+    private static final class TopK {
+        private final long[] ids;
+        private final double[] distances;
+        private int size;
+
+        TopK(int k) {
+            ids = new long[k];
+            distances = new double[k];
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(long id, double distance) {
+            if (size < ids.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) / 2;
+                    if (distances[parent] >= distance) {
+                        break;
+                    }
+                    ids[i] = ids[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                ids[i] = id;
+                distances[i] = distance;
+                return;
+            }
+            if (distance >= distances[0]) {
+                return;
+            }
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                ids[i] = ids[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            ids[i] = id;
+            distances[i] = distance;
+        }
+
+        List<Hit> sorted() {
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new Hit(ids[i], distances[i]));
+            }
+            hits.sort((a, b) -> Double.compare(a.distanceKm(), b.distanceKm()));
+            return hits;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.giftidea.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent set of positive long ids as a paged bitmap, for dense database identity ids:
+ * 8 KB per 65536 ids. Lookups and updates are lock-free; only allocating a page takes a lock.
+ * Also tracks the highest id ever added, which removals do not lower.
+ */
+public class IdBitmap {
+
+    private static final int PAGE_BITS = 16;
+    private static final int PAGE_WORDS = (1 << PAGE_BITS) >>> 6;
+
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+    private volatile long maxId;
+
+    public boolean contains(long id) {
+        if (id <= 0) {
+            return false;
+        }
+        AtomicLongArray[] current = pages;
+        long page = id >>> PAGE_BITS;
+        if (page >= current.length || current[(int) page] == null) {
+            return false;
+        }
+        return (current[(int) page].get(word(id)) & mask(id)) != 0;
+    }
+
+    public void add(long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Ids must be positive: " + id);
+        }
+        AtomicLongArray page = page(id);
+        int word = word(id);
+        long mask = mask(id);
+        long value = page.get(word);
+        while ((value & mask) == 0 && !page.compareAndSet(word, value, value | mask)) {
+            value = page.get(word);
+        }
+        if (id > maxId) {
+            raiseMaxId(id);
+        }
+    }
+
+    public void remove(long id) {
+        if (id <= 0) {
+            return;
+        }
+        AtomicLongArray[] current = pages;
+        long page = id >>> PAGE_BITS;
+        if (page >= current.length || current[(int) page] == null) {
+            return;
+        }
+        int word = word(id);
+        long mask = mask(id);
+        long value = current[(int) page].get(word);
+        while ((value & mask) != 0 && !current[(int) page].compareAndSet(word, value, value & ~mask)) {
+            value = current[(int) page].get(word);
+        }
+    }
+
+    public long maxId() {
+        return maxId;
+    }
+
+    public long size() {
+        long size = 0;
+        for (AtomicLongArray page : pages) {
+            if (page != null) {
+                for (int i = 0; i < page.length(); i++) {
+                    size += Long.bitCount(page.get(i));
+                }
+            }
+        }
+        return size;
+    }
+
+    private AtomicLongArray page(long id) {
+        long index = id >>> PAGE_BITS;
+        AtomicLongArray[] current = pages;
+        if (index < current.length && current[(int) index] != null) {
+            return current[(int) index];
+        }
+        synchronized (this) {
+            current = pages;
+            if (index >= current.length) {
+                if (index >= Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Id too large for a bitmap: " + id);
+                }
+                AtomicLongArray[] grown = new AtomicLongArray[(int) Math.max(index + 1, current.length * 2L)];
+                System.arraycopy(current, 0, grown, 0, current.length);
+                current = grown;
+            }
+            if (current[(int) index] == null) {
+                current[(int) index] = new AtomicLongArray(PAGE_WORDS);
+            }
+            pages = current;
+            return current[(int) index];
+        }
+    }
+
+    private synchronized void raiseMaxId(long id) {
+        if (id > maxId) {
+            maxId = id;
+        }
+    }
+
+    private static int word(long id) {
+        return (int) (id & ((1 << PAGE_BITS) - 1)) >>> 6;
+    }
+
+    private static long mask(long id) {
+        return 1L << (id & 63);
+    }
+}
@@ -0,0 +1,278 @@
+package com.giftidea.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Text similarity index: MinHash signatures over word and character shingles,
+ * bucketed by locality-sensitive hashing so that a lookup only compares a bounded
+ * number of candidates instead of the whole catalog. Thread-safe.
+ */
+public class MinHashLshIndex {
+
+    private static final int BUILD_CHUNK = 512;
+
+    private final int bands;
+    private final int rows;
+    private final int maxCandidates;
+    private final long[] seeds;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    public MinHashLshIndex(int bands, int rows, int maxCandidates) {
+        this.bands = bands;
+        this.rows = rows;
+        this.maxCandidates = maxCandidates;
+        this.seeds = new long[bands * rows];
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong() | 1L;
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public void put(long id, String text) {
+        Document document = createDocument(text);
+        Document previous = documents.put(id, document);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+        link(id, document);
+    }
+
+    public void remove(long id) {
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+    }
+
+    public void clear() {
+        documents.clear();
+        buckets.clear();
+    }
+
+    /**
+     * Indexes all texts in parallel on the given pool.
+     */
+    public void putAll(Map<Long, String> texts, ForkJoinPool pool) {
+        long[] ids = new long[texts.size()];
+        String[] values = new String[texts.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : texts.entrySet()) {
+            ids[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        pool.invoke(new BuildTask(ids, values, 0, ids.length));
+    }
+
+    /**
+     * Returns up to limit items sharing an LSH bucket with id, ordered by exact Jaccard similarity.
+     */
+    public List<Match> findSimilar(long id, int limit) {
+        Document document = documents.get(id);
+        if (document == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (long bucketKey : document.bucketKeys) {
+            Set<Long> bucket = buckets.get(bucketKey);
+            if (bucket == null) {
+                continue;
+            }
+            for (Long candidate : bucket) {
+                if (candidates.size() >= maxCandidates) {
+                    break;
+                }
+                if (candidate != id) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(candidates.size());
+        for (Long candidate : candidates) {
+            Document other = documents.get(candidate);
+            if (other != null) {
+                matches.add(new Match(candidate, jaccard(document.shingles, other.shingles)));
+            }
+        }
+        matches.sort((a, b) -> a.similarity() != b.similarity()
+                ? Double.compare(b.similarity(), a.similarity())
+                : Long.compare(a.id(), b.id()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private void link(long id, Document document) {
+        // Texts without shingles would all collide in the same buckets
+        if (document.shingles.length == 0) {
+            return;
+        }
+        for (long bucketKey : document.bucketKeys) {
+            buckets.compute(bucketKey, (key, bucket) -> {
+                Set<Long> members = bucket != null ? bucket : ConcurrentHashMap.newKeySet();
+                members.add(id);
+                return members;
+            });
+        }
+    }
+
+    private void unlink(long id, Document document) {
+        for (long bucketKey : document.bucketKeys) {
+            buckets.computeIfPresent(bucketKey, (key, bucket) -> {
+                bucket.remove(id);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private Document createDocument(String text) {
+        int[] shingles = shingles(text);
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int hash = (int) (mix(shingle * seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+
+        long[] bucketKeys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band + 1;
+            for (int row = 0; row < rows; row++) {
+                key = mix(key * 31 + signature[band * rows + row]);
+            }
+            bucketKeys[band] = key;
+        }
+        return new Document(shingles, bucketKeys);
+    }
+
+    /**
+     * Sorted distinct hashes of the lower-cased words and their character trigrams.
+     */
+    static int[] shingles(String text) {
+        if (text == null || text.isBlank()) {
+            return new int[0];
+        }
+        String normalized = text.toLowerCase().replace('ё', 'е');
+        IntArrayBuilder hashes = new IntArrayBuilder();
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                String word = normalized.substring(start, i);
+                hashes.add(word.hashCode());
+                String padded = " " + word + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    hashes.add(padded.substring(j, j + 3).hashCode() * 0x01000193);
+                }
+                start = -1;
+            }
+        }
+        int[] values = hashes.toArray();
+        Arrays.sort(values);
+        int distinct = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, distinct);
+    }
+
+    static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 && b.length == 0) {
+            return 0.0;
+        }
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / (a.length + b.length - common);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+
+    public record Match(long id, double similarity) {
+    }
+
+    private record Document(int[] shingles, long[] bucketKeys) {
+    }
+
+    private static final class IntArrayBuilder {
+        private int[] values = new int[32];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private final class BuildTask extends RecursiveAction {
+        private final long[] ids;
+        private final String[] texts;
+        private final int from;
+        private final int to;
+
+        BuildTask(long[] ids, String[] texts, int from, int to) {
+            this.ids = ids;
+            this.texts = texts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BUILD_CHUNK) {
+                for (int i = from; i < to; i++) {
+                    put(ids[i], texts[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new BuildTask(ids, texts, from, middle), new BuildTask(ids, texts, middle, to));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.giftidea.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated mutable slots. Producers claim a
+ * slot with one CAS, fill it in place and publish it; nothing is allocated per event and no
+ * producer ever blocks on a lock. Each slot carries a sequence number: it equals the position
+ * when the slot is free for that position and position + 1 once the event there is published.
+ *
+ * Usage: {@code long p = tryClaim(); if (p >= 0) { fill slot(p); publish(p); }}. A claimed slot
+ * must always be published, or the consumer stops at it.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong producerPosition = new AtomicLong();
+    private final AtomicLong consumedPosition = new AtomicLong();
+
+    // Consumer thread only
+    private long consumerPosition;
+
+    /**
+     * Creates a ring of at least {@code capacity} slots, rounded up to a power of two.
+     */
+    public MpscRingBuffer(int capacity, Supplier<E> factory) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = factory.get();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Claims the next slot, or returns -1 when the ring is full.
+     */
+    public long tryClaim() {
+        long position = producerPosition.get();
+        while (true) {
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                long witness = producerPosition.compareAndExchange(position, position + 1);
+                if (witness == position) {
+                    return position;
+                }
+                position = witness;
+            } else if (sequence < position) {
+                // The slot still holds the event from one lap ago
+                return -1;
+            } else {
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E slot(long position) {
+        return (E) slots[(int) position & mask];
+    }
+
+    public void publish(long position) {
+        sequences.lazySet((int) position & mask, position + 1);
+    }
+
+    /**
+     * Hands up to {@code max} published events, in claim order, to the handler along with their
+     * index in this drain, and frees their slots. Consumer thread only; the handler must copy
+     * what it needs, since a slot can be reused as soon as the handler returns.
+     */
+    public int drain(int max, ObjIntConsumer<E> handler) {
+        int count = 0;
+        while (count < max) {
+            int index = (int) consumerPosition & mask;
+            if (sequences.get(index) != consumerPosition + 1) {
+                break;
+            }
+            handler.accept(slot(consumerPosition), count);
+            sequences.lazySet(index, consumerPosition + slots.length);
+            consumerPosition++;
+            count++;
+        }
+        if (count > 0) {
+            consumedPosition.lazySet(consumerPosition);
+        }
+        return count;
+    }
+
+    /**
+     * Claimed events not yet drained; approximate while producers are active.
+     */
+    public int size() {
+        return (int) Math.max(0, producerPosition.get() - consumedPosition.get());
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,62 @@
+package com.giftidea.util;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+
+/**
+ * Fixed-bucket histogram of prices with exact min/max. Writes must be serialized by the caller;
+ * every write publishes an immutable snapshot, so readers get counts, min and max without
+ * locking or walking any data.
+ */
+public class PriceHistogram {
+
+    // Upper bounds of all buckets but the last, ascending; the last bucket is open-ended
+    private final double[] bounds;
+    private final long[] counts;
+    // Price -> number of items at that price, only used to find the next min/max after a removal
+    private final TreeMap<Double, Integer> prices = new TreeMap<>();
+    private long total;
+    private volatile Snapshot snapshot;
+
+    public PriceHistogram(double[] bounds) {
+        this.bounds = bounds;
+        this.counts = new long[bounds.length + 1];
+        this.snapshot = new Snapshot(bounds, counts.clone(), 0, null, null);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public void add(double price) {
+        counts[bucket(price)]++;
+        total++;
+        prices.merge(price, 1, Integer::sum);
+        publish();
+    }
+
+    public void remove(double price) {
+        if (!prices.containsKey(price)) {
+            return;
+        }
+        prices.computeIfPresent(price, (p, c) -> c > 1 ? c - 1 : null);
+        counts[bucket(price)]--;
+        total--;
+        publish();
+    }
+
+    private int bucket(double price) {
+        int index = Arrays.binarySearch(bounds, price);
+        // Bounds are exclusive upper limits: a price equal to a bound goes to the next bucket
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private void publish() {
+        snapshot = new Snapshot(bounds, counts.clone(), total,
+                prices.isEmpty() ? null : prices.firstKey(),
+                prices.isEmpty() ? null : prices.lastKey());
+    }
+
+    public record Snapshot(double[] bounds, long[] counts, long total, Double min, Double max) {
+    }
+}
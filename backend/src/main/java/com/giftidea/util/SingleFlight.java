@@ -0,0 +1,84 @@
+package com.giftidea.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader,
+ * callers arriving while it is in flight wait for and share its result or exception.
+ * Nothing is cached once the load finishes.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Detaches a load in flight, so callers arriving after a write do not join a read that started before it.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * Exports single_flight.loads and single_flight.collapsed counters tagged with the given name.
+     */
+    public void registerMetrics(MeterRegistry registry, String name) {
+        FunctionCounter.builder("single_flight.loads", this, SingleFlight::loads).tag("name", name).register(registry);
+        FunctionCounter.builder("single_flight.collapsed", this, SingleFlight::collapsed).tag("name", name).register(registry);
+    }
+
+    public long loads() {
+        return loads.sum();
+    }
+
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the loader's own exception so callers handle it as if they had loaded themselves
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.giftidea.util;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel for long ids. Four levels of 256 slots each cover 2^32 ticks;
+ * timers far in the future sit on a coarse level and cascade down as their slot comes up.
+ * Timers live in parallel primitive arrays linked into per-slot lists, so schedule and
+ * cancel are O(1) and memory is bounded by the capacity given at construction.
+ * Not thread-safe.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final int NIL = -1;
+
+    private final long tickMs;
+    private final int capacity;
+    private final int[] heads = new int[LEVELS * SLOTS];
+
+    private long[] ids;
+    private long[] deadlines;
+    private int[] next;
+    private int[] prev;
+    private int[] bucket;
+    private int used;
+    private int freeList = NIL;
+    private int size;
+
+    // Timer id -> node index + 1
+    private final LongIntHashMap index;
+    private long currentTick;
+
+    public TimingWheel(long tickMs, int capacity, long nowMs) {
+        this.tickMs = tickMs;
+        this.capacity = capacity;
+        this.currentTick = nowMs / tickMs;
+        int initial = Math.min(capacity, 1024);
+        this.ids = new long[initial];
+        this.deadlines = new long[initial];
+        this.next = new int[initial];
+        this.prev = new int[initial];
+        this.bucket = new int[initial];
+        this.index = new LongIntHashMap(initial);
+        Arrays.fill(heads, NIL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size >= capacity;
+    }
+
+    public boolean contains(long id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * Adds or moves a timer. Returns false when the deadline has already passed (the caller should
+     * fire it right away) or when the wheel is at capacity.
+     */
+    public boolean schedule(long id, long deadlineMs) {
+        cancel(id);
+        if (deadlineMs / tickMs <= currentTick || size >= capacity) {
+            return false;
+        }
+        int node = allocate();
+        ids[node] = id;
+        deadlines[node] = deadlineMs;
+        index.put(id, node + 1);
+        link(node);
+        size++;
+        return true;
+    }
+
+    public boolean cancel(long id) {
+        int slot = index.remove(id);
+        if (slot == 0) {
+            return false;
+        }
+        int node = slot - 1;
+        unlink(node);
+        release(node);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to nowMs and passes every expired timer id to the consumer.
+     */
+    public void advance(long nowMs, ExpiredConsumer consumer) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade coarser levels whose slot index just came round
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                cascade(level, (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+            }
+            int head = (int) (currentTick & SLOT_MASK);
+            int node = heads[head];
+            heads[head] = NIL;
+            while (node != NIL) {
+                int following = next[node];
+                long id = ids[node];
+                index.remove(id);
+                release(node);
+                size--;
+                consumer.expired(id);
+                node = following;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        int head = level * SLOTS + slot;
+        int node = heads[head];
+        heads[head] = NIL;
+        while (node != NIL) {
+            int following = next[node];
+            link(node);
+            node = following;
+        }
+    }
+
+    private void link(int node) {
+        long deadlineTick = Math.max(deadlines[node] / tickMs, currentTick);
+        long delta = deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        if (delta >= (1L << (SLOT_BITS * LEVELS))) {
+            // Beyond the top level: park in its farthest slot and cascade again later
+            deadlineTick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+        int head = level * SLOTS + (int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        bucket[node] = head;
+        prev[node] = NIL;
+        next[node] = heads[head];
+        if (heads[head] != NIL) {
+            prev[heads[head]] = node;
+        }
+        heads[head] = node;
+    }
+
+    private void unlink(int node) {
+        if (prev[node] != NIL) {
+            next[prev[node]] = next[node];
+        } else {
+            heads[bucket[node]] = next[node];
+        }
+        if (next[node] != NIL) {
+            prev[next[node]] = prev[node];
+        }
+    }
+
+    private int allocate() {
+        if (freeList != NIL) {
+            int node = freeList;
+            freeList = next[node];
+            return node;
+        }
+        if (used == ids.length) {
+            int grown = (int) Math.min(capacity, (long) ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            deadlines = Arrays.copyOf(deadlines, grown);
+            next = Arrays.copyOf(next, grown);
+            prev = Arrays.copyOf(prev, grown);
+            bucket = Arrays.copyOf(bucket, grown);
+        }
+        return used++;
+    }
+
+    private void release(int node) {
+        next[node] = freeList;
+        freeList = node;
+    }
+
+    @FunctionalInterface
+    public interface ExpiredConsumer {
+        void expired(long id);
+    }
+}
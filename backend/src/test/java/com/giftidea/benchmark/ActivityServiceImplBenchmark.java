@@ -0,0 +1,236 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.model.ActivityEvent;
+import com.giftidea.service.impl.ActivityServiceImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Request-path cost of recording an activity event: ActivityServiceImpl's preallocated ring
+ * against an ArrayBlockingQueue of freshly allocated events with the same single batching
+ * writer and the same metrics. The JDBC batch is stubbed out so only the hand-off is measured.
+ * Reports per-call p50/p99 as seen by the request threads and checks that nothing is dropped or
+ * lost on the way to the writer. Run with {@code mvn test -Pbenchmarks}.
+ */
+class ActivityServiceImplBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int RECORDS_PER_THREAD = 20_000;
+    // Room for a whole round, so a slow writer on a small machine shows up as latency, not as drops
+    private static final int BUFFER_SIZE = 1 << 19;
+    private static final int BATCH_SIZE = 1000;
+    private static final long IDLE_WAIT_MS = 1;
+
+    @Test
+    void ringBuffer() throws Exception {
+        AtomicLong written = new AtomicLong();
+        ActivityServiceImpl service = new ActivityServiceImpl();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", new CountingJdbcTemplate(written));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(service, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(service, "idleWaitMs", IDLE_WAIT_MS);
+        ReflectionTestUtils.setField(service, "maxWaitMs", 0L);
+        service.init();
+        AtomicLong accepted = new AtomicLong();
+        int rounds;
+        try {
+            rounds = run("ring buffer, ActivityServiceImpl", (user, target) -> {
+                if (service.record(ActivityEvent.Type.GIFT_VIEW, user, target, 0, null)) {
+                    accepted.incrementAndGet();
+                }
+            });
+        } finally {
+            service.stop();
+        }
+        report("ring buffer, ActivityServiceImpl", rounds, accepted.get(), written.get());
+    }
+
+    @Test
+    void arrayBlockingQueue() throws Exception {
+        AtomicLong written = new AtomicLong();
+        QueueRecorder recorder = new QueueRecorder(new CountingJdbcTemplate(written), new SimpleMeterRegistry());
+        AtomicLong accepted = new AtomicLong();
+        int rounds;
+        try {
+            rounds = run("ArrayBlockingQueue, event per call", (user, target) -> {
+                if (recorder.record(ActivityEvent.Type.GIFT_VIEW, user, target, 0, null)) {
+                    accepted.incrementAndGet();
+                }
+            });
+        } finally {
+            recorder.stop();
+        }
+        report("ArrayBlockingQueue, event per call", rounds, accepted.get(), written.get());
+    }
+
+    // Every event is accepted and reaches the writer by the time it has stopped
+    private static void report(String name, int rounds, long accepted, long written) {
+        long total = (long) rounds * THREADS * RECORDS_PER_THREAD;
+        Benchmarks.report(name + ", written", written + " of " + total);
+        assertThat(accepted).isEqualTo(total);
+        assertThat(written).isEqualTo(total);
+    }
+
+    // Two untimed rounds, then three timed; returns the number of rounds run
+    private static int run(String name, Recorder recorder) throws Exception {
+        int rounds = 0;
+        for (int i = 0; i < 2; i++) {
+            round(recorder, new long[THREADS * RECORDS_PER_THREAD]);
+            rounds++;
+        }
+        for (int i = 0; i < 3; i++) {
+            long[] latencies = new long[THREADS * RECORDS_PER_THREAD];
+            long started = System.nanoTime();
+            round(recorder, latencies);
+            long elapsed = System.nanoTime() - started;
+            rounds++;
+            Arrays.sort(latencies);
+            Benchmarks.report(name, String.format(Locale.ROOT, "%10.0f events/s  p50 %6d ns  p99 %7d ns",
+                    latencies.length / (elapsed / 1e9), latencies[latencies.length / 2],
+                    latencies[latencies.length * 99 / 100]));
+        }
+        return rounds;
+    }
+
+    // All request threads record at once, as a burst of page views would
+    private static void round(Recorder recorder, long[] latencies) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] futures = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                String user = "user" + thread;
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                        long started = System.nanoTime();
+                        recorder.record(user, i + 1);
+                        latencies[thread * RECORDS_PER_THREAD + i] = System.nanoTime() - started;
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Recorder {
+        void record(String userId, long targetId);
+    }
+
+    // Stands in for the database and only counts the rows of each batch
+    private static final class CountingJdbcTemplate extends JdbcTemplate {
+
+        private final AtomicLong written;
+
+        CountingJdbcTemplate(AtomicLong written) {
+            this.written = written;
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, BatchPreparedStatementSetter setter) {
+            int count = setter.getBatchSize();
+            written.addAndGet(count);
+            return new int[count];
+        }
+    }
+
+    // The straightforward alternative: a new event object per call, handed over through a locked queue
+    private static final class QueueRecorder {
+
+        private final ArrayBlockingQueue<ActivityEvent> queue = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        private final List<ActivityEvent> batch = new ArrayList<>(BATCH_SIZE);
+        private final JdbcTemplate jdbcTemplate;
+        private final Timer publishTimer;
+        private final Counter published;
+        private final Counter dropped;
+        private final Thread writer;
+        private volatile boolean running = true;
+
+        QueueRecorder(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+            this.jdbcTemplate = jdbcTemplate;
+            publishTimer = Timer.builder("activity.publish").register(meterRegistry);
+            published = Counter.builder("activity.events").tag("outcome", "published").register(meterRegistry);
+            dropped = Counter.builder("activity.events").tag("outcome", "dropped").register(meterRegistry);
+            writer = new Thread(this::runWriter, "activity-queue-writer");
+            writer.start();
+        }
+
+        boolean record(ActivityEvent.Type type, String userId, long targetId, int quantity, String query) {
+            long started = System.nanoTime();
+            ActivityEvent event = new ActivityEvent();
+            event.setType(type);
+            event.setUserId(userId);
+            event.setTargetId(targetId);
+            event.setQuantity(quantity);
+            event.setQuery(query);
+            event.setOccurredAt(Instant.now());
+            boolean offered = queue.offer(event);
+            (offered ? published : dropped).increment();
+            publishTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return offered;
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        private void runWriter() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    ActivityEvent first = queue.poll(IDLE_WAIT_MS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+                    int count = batch.size();
+                    jdbcTemplate.batchUpdate("INSERT", new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement statement, int i) {
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return count;
+                        }
+                    });
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.giftidea.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Plain timing harness for the *Benchmark classes, which run only with
+ * {@code mvn test -Pbenchmarks}. Each case is run a few times untimed so the JIT settles, then
+ * timed; the minimum and median are printed. Figures are wall-clock on the build machine, so
+ * compare cases from the same run rather than across machines.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static <T> T measure(String name, int warmups, int runs, Callable<T> body) throws Exception {
+        T result = null;
+        for (int i = 0; i < warmups; i++) {
+            result = body.call();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long started = System.nanoTime();
+            result = body.call();
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        report(name, nanos[0], nanos[runs / 2], null);
+        return result;
+    }
+
+    static void report(String name, long minNanos, long medianNanos, String note) {
+        System.out.println(String.format(Locale.ROOT, "[benchmark] %-48s min %10.3f ms  median %10.3f ms%s",
+                name, minNanos / 1e6, medianNanos / 1e6, note == null ? "" : "  " + note));
+    }
+
+    static void report(String name, String value) {
+        System.out.println(String.format(Locale.ROOT, "[benchmark] %-48s %s", name, value));
+    }
+}
@@ -0,0 +1,121 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.model.Product;
+import com.giftidea.repository.ProductRepository;
+import com.giftidea.service.CartService;
+import com.giftidea.service.CheckoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drop day: thousands of buyers check out the same SKU at once through the real checkout
+ * path (conditional UPDATE on H2). Every round must sell exactly the initial stock, never
+ * more. Run with {@code mvn test -Pbenchmarks}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:drop-day;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.giftidea=INFO",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class CheckoutServiceImplBenchmark {
+
+    private static final int BUYERS = 5_000;
+    private static final int STOCK = 500;
+    private static final int THREADS = 200;
+    private static final int ROUNDS = 3;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dropDayOnOneSku() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Product product = new Product();
+            product.setName("Drop " + round);
+            product.setPrice(BigDecimal.valueOf(4990));
+            product.setStockQuantity(STOCK);
+            Long productId = productRepository.save(product).getId();
+            String[] buyers = new String[BUYERS];
+            for (int i = 0; i < BUYERS; i++) {
+                buyers[i] = "drop" + round + "-" + i;
+                cartService.addToCart(buyers[i], productId, 1);
+            }
+
+            AtomicInteger sold = new AtomicInteger();
+            AtomicInteger soldOut = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            long started = System.nanoTime();
+            checkoutAll(buyers, sold, soldOut, failed);
+            long elapsed = System.nanoTime() - started;
+
+            Integer stock = jdbcTemplate.queryForObject("SELECT stock_quantity FROM products WHERE id = ?",
+                    Integer.class, productId);
+            Integer reserved = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(SUM(quantity), 0) FROM stock_reservation_lines WHERE product_id = ?",
+                    Integer.class, productId);
+            Benchmarks.report("drop day, " + BUYERS + " buyers for " + STOCK, elapsed, elapsed,
+                    "sold " + sold + ", sold out " + soldOut + ", other errors " + failed + ", stock left " + stock);
+
+            assertThat(stock).isGreaterThanOrEqualTo(0);
+            assertThat(sold.get()).isEqualTo(STOCK);
+            assertThat(reserved).isEqualTo(STOCK);
+            assertThat(stock).isZero();
+        }
+    }
+
+    private void checkoutAll(String[] buyers, AtomicInteger sold, AtomicInteger soldOut, AtomicInteger failed)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger next = new AtomicInteger();
+            Future<?>[] futures = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < buyers.length; i = next.getAndIncrement()) {
+                        try {
+                            checkoutService.checkout(buyers[i]);
+                            sold.incrementAndGet();
+                        } catch (IllegalStateException e) {
+                            soldOut.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // Lock timeouts and the like; they must not let anyone buy past the stock
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.util.ConstrainedDerangement;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Secret Santa distribution at 100k participants, with the exclusion lookup the service uses
+ * (a HashSet of packed giver/receiver pairs). Run with {@code mvn test -Pbenchmarks}.
+ */
+class ConstrainedDerangementBenchmark {
+
+    private static final int N = 100_000;
+
+    @Test
+    void noTeams() throws Exception {
+        run("no teams", new int[N], Set.of());
+    }
+
+    @Test
+    void smallTeams() throws Exception {
+        int[] teams = new int[N];
+        for (int i = 0; i < N; i++) {
+            teams[i] = i % 2_000 + 1;
+        }
+        run("2000 teams of 50", teams, Set.of());
+    }
+
+    @Test
+    void halfSizeDepartment() throws Exception {
+        run("department of 50000, rest without team", department(N / 2), Set.of());
+    }
+
+    @Test
+    void nearlyHalfSizeDepartmentWithExclusions() throws Exception {
+        Set<Long> excluded = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(1);
+        while (excluded.size() < 10_000) {
+            excluded.add(pack(random.nextInt(N), random.nextInt(N)));
+        }
+        run("department of 49000, 10000 exclusions", department(49_000), excluded);
+    }
+
+    @Test
+    void lastYearsPairsExcluded() throws Exception {
+        // Every giver has one excluded receiver, as when last year's pairs are ruled out
+        int[] teams = department(N / 2);
+        int[] lastYear = ConstrainedDerangement.solve(teams, (giver, receiver) -> true, new SplittableRandom(2), 1)
+                .receivers();
+        Set<Long> excluded = new HashSet<>();
+        for (int giver = 0; giver < N; giver++) {
+            excluded.add(pack(giver, lastYear[giver]));
+        }
+        run("department of 50000, last year's pairs", teams, excluded);
+    }
+
+    @Test
+    void repairedByMatching() throws Exception {
+        // 100 department members may each give to a single outsider only, which no rotation
+        // satisfies, so every run repairs about 100 givers with augmenting paths
+        int[] teams = department(N / 2);
+        ConstrainedDerangement.Constraint constraint =
+                (giver, receiver) -> giver >= 100 || receiver == N / 2 + giver;
+        run("department of 50000, 100 givers with one choice", teams, constraint);
+    }
+
+    private static void run(String name, int[] teams, Set<Long> excluded) throws Exception {
+        run(name, teams, (giver, receiver) -> !excluded.contains(pack(giver, receiver)));
+    }
+
+    private static void run(String name, int[] teams, ConstrainedDerangement.Constraint constraint) throws Exception {
+        SplittableRandom seeds = new SplittableRandom(42);
+        ConstrainedDerangement.Result result = Benchmarks.measure(name, 3, 10,
+                () -> ConstrainedDerangement.solve(teams, constraint, new SplittableRandom(seeds.nextLong()), 10));
+        Benchmarks.report(name, "strategy " + result.strategy());
+    }
+
+    private static int[] department(int size) {
+        int[] teams = new int[N];
+        for (int i = 0; i < size; i++) {
+            teams[i] = 1;
+        }
+        return teams;
+    }
+
+    private static long pack(int giver, int receiver) {
+        return ((long) giver << 32) | receiver;
+    }
+}
@@ -0,0 +1,79 @@
+package com.giftidea.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.giftidea.repository.GiftRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+
+/**
+ * Gift list as full entities against a sparse fieldset (name, price, imageUrl) over 10k rows with
+ * 240-character descriptions: query time, bytes allocated per call and the JSON payload size.
+ * The persistence context is cleared before every call, as on a fresh request.
+ * Run with {@code mvn test -Pbenchmarks}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+class FieldProjectionsBenchmark {
+
+    private static final int GIFTS = 10_000;
+    private static final List<String> FIELDS = List.of("name", "price", "imageUrl");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        String description = "Подарок ручной работы. ".repeat(11).substring(0, 240);
+        List<Object[]> rows = new ArrayList<>(GIFTS);
+        for (int i = 0; i < GIFTS; i++) {
+            rows.add(new Object[]{"Подарок " + i, description, "Категория " + i % 20, 500.0 + i,
+                    "/images/gift-" + i + ".jpg"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO gift (name, description, category, price, image_url, is_favorite) "
+                + "VALUES (?, ?, ?, ?, ?, FALSE)", rows);
+    }
+
+    @Test
+    void fullEntitiesVersusSparseFields() throws Exception {
+        run("full entities", () -> {
+            entityManager.clear();
+            return giftRepository.findAll();
+        });
+        run("fields=" + String.join(",", FIELDS), () -> {
+            entityManager.clear();
+            return giftRepository.findFields(FIELDS, null);
+        });
+    }
+
+    private void run(String name, Callable<List<?>> query) throws Exception {
+        List<?> rows = Benchmarks.measure(name, 5, 20, query);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        query.call();
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        int payload = objectMapper.writeValueAsBytes(rows).length;
+        Benchmarks.report(name, String.format(Locale.ROOT, "%d rows, %.1f MB allocated per call, JSON %d bytes",
+                rows.size(), allocated / 1e6, payload));
+    }
+}
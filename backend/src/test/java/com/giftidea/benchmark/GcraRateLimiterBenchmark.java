@@ -0,0 +1,136 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.util.GcraRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request overhead of the rate limiter: tryAcquire over known keys on one thread, eight
+ * threads contending on one hot key, and new keys arriving while the map is full of keys from a
+ * client that rotates them. Checks that contention admits exactly the burst and that the full
+ * map does not throttle newcomers. Run with {@code mvn test -Pbenchmarks}.
+ */
+class GcraRateLimiterBenchmark {
+
+    private static final int KEYS = 1000;
+    private static final int CALLS = 10_000_000;
+    private static final int THREADS = 8;
+    private static final int HOT_CAPACITY = 1000;
+
+    @Test
+    void knownKeys() throws Exception {
+        GcraRateLimiter limiter = new GcraRateLimiter(100_000);
+        // Refills faster than the loop comes back to a key, so every call takes the admitting CAS
+        GcraRateLimiter.Limit limit = GcraRateLimiter.Limit.of("api|ip", 100, 1_000_000.0);
+        String[] keys = keys("api|ip|10.0.", KEYS);
+        long rejected = Benchmarks.measure(KEYS + " known keys, 10M calls", 2, 5, () -> {
+            long count = 0;
+            for (int i = 0; i < CALLS; i++) {
+                if (limiter.tryAcquire(keys[i % KEYS], limit, System.nanoTime()) > 0) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        assertThat(rejected).isZero();
+        perCall(KEYS + " known keys", () -> {
+            for (int i = 0; i < CALLS; i++) {
+                limiter.tryAcquire(keys[i % KEYS], limit, System.nanoTime());
+            }
+        });
+    }
+
+    @Test
+    void hotKeyContention() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            GcraRateLimiter limiter = new GcraRateLimiter(100_000);
+            // Refills far slower than the test runs, so only the burst is admitted
+            GcraRateLimiter.Limit limit = GcraRateLimiter.Limit.of("api|user", HOT_CAPACITY, 0.001);
+            AtomicLong admitted = new AtomicLong();
+            long started = System.nanoTime();
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?>[] futures = new Future<?>[THREADS];
+                for (int t = 0; t < THREADS; t++) {
+                    futures[t] = executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < CALLS / THREADS / 10; i++) {
+                            if (limiter.tryAcquire("api|user|hot", limit, System.nanoTime()) == 0) {
+                                admitted.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            long elapsed = System.nanoTime() - started;
+            Benchmarks.report(THREADS + " threads on one key", String.format(Locale.ROOT,
+                    "%.0f ns per call, %d admitted", (double) elapsed * THREADS / (CALLS / 10), admitted.get()));
+            assertThat(admitted.get()).isEqualTo(HOT_CAPACITY);
+        }
+    }
+
+    @Test
+    void newKeysWhileMapIsFull() throws Exception {
+        GcraRateLimiter limiter = new GcraRateLimiter(KEYS);
+        GcraRateLimiter.Limit limit = GcraRateLimiter.Limit.of("auth|ip", 5, 0.001);
+        // A client rotating keys drains a bucket per key until the map is full
+        String[] rotating = keys("auth|ip|rotating-", KEYS);
+        for (String key : rotating) {
+            for (int i = 0; i < 5; i++) {
+                limiter.tryAcquire(key, limit, System.nanoTime());
+            }
+        }
+        assertThat(limiter.size()).isEqualTo(KEYS);
+
+        String[] newcomers = keys("auth|ip|new-", KEYS);
+        long[] rejected = new long[1];
+        perCall("new keys, map full", () -> {
+            for (int i = 0; i < CALLS; i++) {
+                if (limiter.tryAcquire(newcomers[i % KEYS], limit, System.nanoTime()) > 0) {
+                    rejected[0]++;
+                }
+            }
+        });
+        Benchmarks.report("new keys, map full", limiter.untracked() + " untracked, " + rejected[0] + " rejected");
+        assertThat(rejected[0]).isZero();
+        assertThat(limiter.size()).isEqualTo(KEYS);
+    }
+
+    // Best of five runs of CALLS calls, after two warmups
+    private static void perCall(String name, Runnable body) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 7; i++) {
+            long started = System.nanoTime();
+            body.run();
+            long elapsed = System.nanoTime() - started;
+            if (i >= 2) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        Benchmarks.report(name + ", per call", String.format(Locale.ROOT, "%.1f ns", (double) best / CALLS));
+    }
+
+    private static String[] keys(String prefix, int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = prefix + i;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,166 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.model.LoyaltyEvent;
+import com.giftidea.repository.LoyaltyEventRepository;
+import com.giftidea.service.impl.LoyaltyServiceImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Concurrent awards for a few hot users: the group-committing ledger writer against one
+ * transaction per award that inserts the row and updates a balance row. File H2, so every
+ * commit is a log write. Run with {@code mvn test -Pbenchmarks}.
+ */
+class LoyaltyServiceImplBenchmark {
+
+    private static final int THREADS = 64;
+    private static final int AWARDS_PER_THREAD = 200;
+    private static final int HOT_USERS = 4;
+
+    @TempDir
+    Path directory;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:file:" + directory.resolve("loyalty") + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(THREADS + 1);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE loyalty_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                + "points BIGINT NOT NULL, reason VARCHAR(16) NOT NULL, reference VARCHAR(100), created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX loyalty_events_user ON loyalty_events (user_id, id)");
+        jdbcTemplate.execute("CREATE TABLE loyalty_snapshots (user_id VARCHAR(255) PRIMARY KEY, balance BIGINT NOT NULL, "
+                + "earned BIGINT NOT NULL, as_of_event_id BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE loyalty_balances (user_id VARCHAR(255) PRIMARY KEY, balance BIGINT NOT NULL)");
+        for (int user = 0; user < HOT_USERS; user++) {
+            jdbcTemplate.update("INSERT INTO loyalty_balances VALUES (?, 0)", "user" + user);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        dataSource.close();
+    }
+
+    @Test
+    void groupCommitLedger() throws Exception {
+        LoyaltyServiceImpl service = new LoyaltyServiceImpl();
+        ReflectionTestUtils.setField(service, "eventRepository", mock(LoyaltyEventRepository.class));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "queueCapacity", 10_000);
+        ReflectionTestUtils.setField(service, "writeTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(service, "refreshIntervalMs", 1_000L);
+        service.init();
+        try {
+            int rounds = run("ledger, group commit", user -> service.award(user, 1, LoyaltyEvent.Reason.ADJUSTMENT, null));
+
+            long expected = (long) rounds * THREADS * AWARDS_PER_THREAD;
+            long total = 0;
+            for (int user = 0; user < HOT_USERS; user++) {
+                total += service.getAccount("user" + user).balance();
+            }
+            assertThat(total).isEqualTo(expected);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loyalty_events", Long.class)).isEqualTo(expected);
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    void transactionPerAward() throws Exception {
+        Timestamp now = Timestamp.from(Instant.now());
+        run("insert + update balance per award", user -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO loyalty_events (user_id, points, reason, reference, created_at) "
+                    + "VALUES (?, 1, 'ADJUSTMENT', NULL, ?)", user, now);
+            jdbcTemplate.update("UPDATE loyalty_balances SET balance = balance + 1 WHERE user_id = ?", user);
+        }));
+    }
+
+    // Two untimed rounds, then three timed; returns the number of rounds run
+    private int run(String name, Award award) throws Exception {
+        int rounds = 0;
+        for (int i = 0; i < 2; i++) {
+            round(award);
+            rounds++;
+        }
+        for (int i = 0; i < 3; i++) {
+            long[] latencies = new long[THREADS * AWARDS_PER_THREAD];
+            long started = System.nanoTime();
+            round(award, latencies);
+            long elapsed = System.nanoTime() - started;
+            rounds++;
+            Arrays.sort(latencies);
+            Benchmarks.report(name, String.format(Locale.ROOT, "%8.0f awards/s  p50 %6.2f ms  p99 %6.2f ms",
+                    latencies.length / (elapsed / 1e9), latencies[latencies.length / 2] / 1e6,
+                    latencies[latencies.length * 99 / 100] / 1e6));
+        }
+        return rounds;
+    }
+
+    private void round(Award award) throws Exception {
+        round(award, new long[THREADS * AWARDS_PER_THREAD]);
+    }
+
+    // Every thread awards to the hot users in turn, all starting at once
+    private void round(Award award, long[] latencies) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] futures = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures[t] = executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < AWARDS_PER_THREAD; i++) {
+                        long started = System.nanoTime();
+                        award.award("user" + (thread + i) % HOT_USERS);
+                        latencies[thread * AWARDS_PER_THREAD + i] = System.nanoTime() - started;
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Award {
+        void award(String userId) throws Exception;
+    }
+}
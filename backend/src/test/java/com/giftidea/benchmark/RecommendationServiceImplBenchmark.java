@@ -0,0 +1,142 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.dto.CartLineDTO;
+import com.giftidea.event.CartChangedEvent;
+import com.giftidea.repository.CartItemRepository;
+import com.giftidea.repository.StockReservationLineRepository;
+import com.giftidea.service.impl.RecommendationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Co-occurrence recommender on a synthetic history of about a million cart lines: 200k carts of
+ * 1-9 products drawn from 50k with a skew towards popular ones. Measures the full rebuild with
+ * the index's heap footprint, then related-products reads and incremental cart updates.
+ * Run with {@code mvn test -Pbenchmarks}.
+ */
+class RecommendationServiceImplBenchmark {
+
+    private static final int USERS = 200_000;
+    private static final int PRODUCTS = 50_000;
+    private static final int MAX_BASKET = 9;
+    private static final int READS = 1_000_000;
+    private static final int UPDATES = 10_000;
+
+    private CartItemRepository cartItemRepository;
+    private RecommendationServiceImpl service;
+    private List<CartLineDTO> lines;
+
+    @BeforeEach
+    void setUp() {
+        cartItemRepository = mock(CartItemRepository.class);
+        service = new RecommendationServiceImpl();
+        ReflectionTestUtils.setField(service, "cartItemRepository", cartItemRepository);
+        ReflectionTestUtils.setField(service, "reservationLineRepository", mock(StockReservationLineRepository.class));
+        ReflectionTestUtils.setField(service, "topN", 20);
+        ReflectionTestUtils.setField(service, "maxBasketSize", 200);
+
+        // Lines come ordered by user, as findAllCartLines returns them
+        SplittableRandom random = new SplittableRandom(7);
+        lines = new ArrayList<>(USERS * (MAX_BASKET + 1) / 2);
+        for (int user = 0; user < USERS; user++) {
+            String userId = "user" + user;
+            for (long productId : basket(random)) {
+                lines.add(new CartLineDTO(userId, productId));
+            }
+        }
+        when(cartItemRepository.findAllCartLines()).thenReturn(lines);
+    }
+
+    @Test
+    void rebuildReadAndUpdate() throws Exception {
+        long heapBefore = usedHeap();
+        Benchmarks.measure("rebuild, " + lines.size() + " cart lines", 1, 5, () -> {
+            service.rebuild();
+            return null;
+        });
+        Benchmarks.report("index heap after rebuild",
+                String.format(Locale.ROOT, "%.1f MB", (usedHeap() - heapBefore) / 1e6));
+
+        SplittableRandom random = new SplittableRandom(11);
+        long[] productIds = new long[READS];
+        for (int i = 0; i < READS; i++) {
+            productIds[i] = product(random);
+        }
+        int[] found = new int[1];
+        long nanos = time(() -> {
+            for (long productId : productIds) {
+                found[0] += service.getRelatedProducts(productId, 10).size();
+            }
+        });
+        Benchmarks.report("getRelatedProducts", String.format(Locale.ROOT, "%.0f ns per call, %.1f results on average",
+                (double) nanos / READS, (double) found[0] / READS));
+
+        String[] userIds = new String[UPDATES];
+        for (int i = 0; i < UPDATES; i++) {
+            userIds[i] = "user" + random.nextInt(USERS);
+            when(cartItemRepository.findProductIdsByUserId(userIds[i])).thenReturn(toList(basket(random)));
+        }
+        nanos = time(() -> {
+            for (String userId : userIds) {
+                service.onCartChanged(new CartChangedEvent(userId));
+            }
+        });
+        Benchmarks.report("onCartChanged, basket replaced",
+                String.format(Locale.ROOT, "%.1f us per event", nanos / 1e3 / UPDATES));
+    }
+
+    private static long[] basket(SplittableRandom random) {
+        int size = 1 + random.nextInt(MAX_BASKET);
+        long[] basket = new long[size];
+        int filled = 0;
+        while (filled < size) {
+            long productId = product(random);
+            boolean duplicate = false;
+            for (int i = 0; i < filled; i++) {
+                duplicate |= basket[i] == productId;
+            }
+            if (!duplicate) {
+                basket[filled++] = productId;
+            }
+        }
+        return basket;
+    }
+
+    // Cubing a uniform draw skews it towards low ids, the "popular" products
+    private static long product(SplittableRandom random) {
+        double u = random.nextDouble();
+        return 1 + (long) (u * u * u * PRODUCTS);
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static long time(Runnable body) {
+        long started = System.nanoTime();
+        body.run();
+        return System.nanoTime() - started;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,80 @@
+package com.giftidea.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.giftidea.config.ColumnarResponseAdvice;
+import com.giftidea.dto.ColumnarDTO;
+import com.giftidea.dto.GiftDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gift list payloads in JSON, CBOR and Smile, each as rows and in the columnar layout: encoded and
+ * gzipped size, serialization and deserialization time. Mappers are configured as in WebConfig
+ * and the columnar form comes from ColumnarResponseAdvice. Run with {@code mvn test -Pbenchmarks}.
+ */
+class ResponseEncodingBenchmark {
+
+    private static final int GIFTS = 5_000;
+    private static final String[] CATEGORIES = {"Кухня", "Дом", "Сад", "Книги", "Электроника", "Игры", "Спорт", "Хобби"};
+    private static final TypeReference<List<GiftDTO>> GIFT_LIST = new TypeReference<>() {
+    };
+
+    @Test
+    void encodingsAndLayouts() throws Exception {
+        List<GiftDTO> gifts = gifts();
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper cbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        ObjectMapper smile = Jackson2ObjectMapperBuilder.json()
+                .factory(new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)).build();
+        Object columnar = new ColumnarResponseAdvice(json).beforeBodyWrite(gifts, null,
+                MediaType.parseMediaType("application/json;layout=columnar"), null, null, null);
+
+        run("json", json, gifts, columnar);
+        run("cbor", cbor, gifts, columnar);
+        run("smile", smile, gifts, columnar);
+    }
+
+    private static void run(String encoding, ObjectMapper mapper, List<GiftDTO> gifts, Object columnar) throws Exception {
+        byte[] rows = Benchmarks.measure(encoding + " rows, serialize", 20, 30, () -> mapper.writeValueAsBytes(gifts));
+        Benchmarks.measure(encoding + " rows, deserialize", 20, 30, () -> mapper.readValue(rows, GIFT_LIST));
+        size(encoding + " rows", rows);
+
+        byte[] columns = Benchmarks.measure(encoding + " columnar, serialize", 20, 30,
+                () -> mapper.writeValueAsBytes(columnar));
+        Benchmarks.measure(encoding + " columnar, deserialize", 20, 30, () -> mapper.readValue(columns, ColumnarDTO.class));
+        size(encoding + " columnar", columns);
+    }
+
+    private static void size(String name, byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        Benchmarks.report(name + ", size", String.format(Locale.ROOT, "%7.0f KB, gzip %5.0f KB",
+                payload.length / 1024.0, compressed.size() / 1024.0));
+    }
+
+    // GiftDTO-shaped rows with Cyrillic text, as the catalog has
+    private static List<GiftDTO> gifts() {
+        List<GiftDTO> gifts = new ArrayList<>(GIFTS);
+        for (int i = 1; i <= GIFTS; i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            gifts.add(new GiftDTO((long) i, "Подарок номер " + i,
+                    "Описание подарка " + i + ": подходит для категории «" + category + "», упакован в коробку.",
+                    category, 490.0 + i % 1000 * 10, "/images/gifts/" + i + ".jpg", i % 7 == 0));
+        }
+        return gifts;
+    }
+}
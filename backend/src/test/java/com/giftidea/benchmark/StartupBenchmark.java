@@ -0,0 +1,192 @@
+package com.giftidea.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cold start of the packaged application: the plain jar against the fast-start build with its CDS
+ * archive, each started a few times in its own JVM on in-memory H2. Per start it reports the time
+ * to readiness seen from outside, every startup.phase gauge, the latency of the first requests
+ * after readiness and the median of the next 200. Build both first, then run only this class:
+ * {@code mvn -Pfast-start package -DskipTests && mvn test -Pbenchmarks -Dtest=StartupBenchmark}.
+ * A build that is missing is skipped. Process logs go to target/startup-benchmark.
+ */
+class StartupBenchmark {
+
+    private static final int RUNS = 2;
+    private static final int FIRST_REQUESTS = 3;
+    private static final int NEXT_REQUESTS = 200;
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(3);
+    private static final List<String> PHASES = List.of(
+            "context-refreshed", "started", "runners-done", "warmup-started", "warmed", "accepting-traffic");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path target = Path.of("target");
+    private final Path logs = target.resolve("startup-benchmark");
+
+    @Test
+    void plainJar() throws Exception {
+        Path jar = bootJar();
+        assumeTrue(jar != null, "no packaged jar in target/, run mvn package first");
+        for (int run = 1; run <= RUNS; run++) {
+            start("plain jar", run, target, List.of("-jar", jar.getFileName().toString()));
+        }
+    }
+
+    @Test
+    void fastStartWithCds() throws Exception {
+        Path directory = target.resolve("fast-start");
+        assumeTrue(Files.exists(directory.resolve("application.jar")) && Files.exists(directory.resolve("application.jsa")),
+                "no fast-start build in target/fast-start, run mvn -Pfast-start package first");
+        for (int run = 1; run <= RUNS; run++) {
+            start("fast-start + CDS", run, directory, List.of("-XX:SharedArchiveFile=application.jsa",
+                    "-Dspring.aot.enabled=true", "-jar", "application.jar", "--spring.profiles.active=fast-start"));
+        }
+    }
+
+    private void start(String variant, int run, Path directory, List<String> arguments) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+        // Measure the application, not the request quotas
+        command.add("--rate-limit.enabled=false");
+        Files.createDirectories(logs);
+        Path log = logs.resolve(variant.replaceAll("\\W+", "-") + "-" + run + ".log");
+
+        String name = variant + " #" + run;
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(directory.toFile())
+                .redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            String base = "http://localhost:" + port;
+            awaitReady(process, base + "/actuator/health/readiness", launched, log);
+            Benchmarks.report(name + ", ready", String.format(Locale.ROOT, "%.2f s after launch",
+                    (System.nanoTime() - launched) / 1e9));
+
+            long started = System.nanoTime();
+            String token = register(base, "bench" + run + port);
+            long[] first = new long[FIRST_REQUESTS + 1];
+            first[0] = System.nanoTime() - started;
+            for (int i = 1; i <= FIRST_REQUESTS; i++) {
+                first[i] = timedGet(base + "/api/gifts", token);
+            }
+            long[] next = new long[NEXT_REQUESTS];
+            for (int i = 0; i < NEXT_REQUESTS; i++) {
+                next[i] = timedGet(base + "/api/gifts", token);
+            }
+            Arrays.sort(next);
+            Benchmarks.report(name + ", first requests", String.format(Locale.ROOT,
+                    "register %.1f ms, then GET /api/gifts %s ms", first[0] / 1e6, millis(Arrays.copyOfRange(first, 1, first.length))));
+            Benchmarks.report(name + ", next " + NEXT_REQUESTS, String.format(Locale.ROOT, "p50 %.1f ms, p99 %.1f ms",
+                    next[NEXT_REQUESTS / 2] / 1e6, next[NEXT_REQUESTS * 99 / 100] / 1e6));
+
+            StringBuilder phases = new StringBuilder();
+            for (String phase : PHASES) {
+                JsonNode metric = getJson(base + "/actuator/metrics/startup.phase?tag=phase:" + phase, token);
+                phases.append(phase).append(' ')
+                        .append(metric == null ? "-" : String.format(Locale.ROOT, "%.2f",
+                                metric.path("measurements").path(0).path("value").asDouble()))
+                        .append("  ");
+            }
+            Benchmarks.report(name + ", startup.phase (s)", phases.toString().trim());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitReady(Process process, String url, long launched, Path log) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).build();
+        while (true) {
+            assertThat(process.isAlive()).as("application exited, see %s", log).isTrue();
+            assertThat(System.nanoTime() - launched).as("not ready in time, see %s", log)
+                    .isLessThan(READY_TIMEOUT.toNanos());
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private String register(String base, String username) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", username, "email", username + "@example.com", "password", "benchmark"));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("register: %s", response.body()).isLessThan(300);
+        return objectMapper.readTree(response.body()).path("data").path("token").asText();
+    }
+
+    private long timedGet(String url, String token) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        HttpResponse<Void> response = http.send(get(url, token), HttpResponse.BodyHandlers.discarding());
+        long elapsed = System.nanoTime() - started;
+        assertThat(response.statusCode()).as("GET %s", url).isEqualTo(200);
+        return elapsed;
+    }
+
+    // Null when the meter does not exist, e.g. the warm-up phases of an instance without warm-up
+    private JsonNode getJson(String url, String token) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(get(url, token), HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+    }
+
+    private static HttpRequest get(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url)).header("Authorization", "Bearer " + token).build();
+    }
+
+    private Path bootJar() throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(target, "backend-*.jar")) {
+            for (Path jar : jars) {
+                return jar;
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static String millis(long[] nanos) {
+        StringBuilder text = new StringBuilder();
+        for (long value : nanos) {
+            text.append(text.length() == 0 ? "" : "/").append(String.format(Locale.ROOT, "%.1f", value / 1e6));
+        }
+        return text.toString();
+    }
+}
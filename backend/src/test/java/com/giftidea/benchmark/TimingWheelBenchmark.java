@@ -0,0 +1,97 @@
+package com.giftidea.benchmark;
+
+import com.giftidea.util.TimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reminder wheel at 10M scheduled timers with the service's settings (100 ms tick, 7-day horizon):
+ * schedule, cancel and reschedule a tenth, then advance through the horizon a minute at a time.
+ * Checks that every live timer fires once, never before its deadline and within the step that
+ * reaches it, and that the wheel stays under 64 bytes of heap per timer.
+ * Run with {@code mvn test -Pbenchmarks}.
+ */
+class TimingWheelBenchmark {
+
+    private static final long TICK_MS = 100;
+    private static final long HORIZON_MS = 7 * 24 * 3_600_000L;
+    private static final long STEP_MS = 60_000;
+    private static final long START_MS = 1_700_000_000_000L;
+    private static final int MAX_BYTES_PER_TIMER = 64;
+
+    @Test
+    void tenMillionTimers() throws Exception {
+        run(1_000_000, false);
+        run(10_000_000, true);
+    }
+
+    private static void run(int timers, boolean report) throws Exception {
+        String name = timers / 1_000_000 + "M timers";
+        long heapBefore = usedHeap();
+        TimingWheel wheel = new TimingWheel(TICK_MS, timers, START_MS);
+        long started = System.nanoTime();
+        for (int i = 1; i <= timers; i++) {
+            wheel.schedule(i, deadline(i, false));
+        }
+        long scheduled = System.nanoTime() - started;
+        long bytesPerTimer = (usedHeap() - heapBefore) / timers;
+
+        // A tenth of the reminders are moved: cancel, then schedule at the new time
+        started = System.nanoTime();
+        for (int i = 10; i <= timers; i += 10) {
+            wheel.cancel(i);
+            wheel.schedule(i, deadline(i, true));
+        }
+        long moved = System.nanoTime() - started;
+
+        long[] fired = new long[1];
+        long[] early = new long[1];
+        long[] late = new long[1];
+        started = System.nanoTime();
+        for (long now = START_MS; now <= START_MS + HORIZON_MS + STEP_MS; now += STEP_MS) {
+            long stepEnd = now;
+            wheel.advance(now, id -> {
+                long deadline = deadline(id, id % 10 == 0);
+                fired[0]++;
+                if (deadline / TICK_MS > stepEnd / TICK_MS) {
+                    early[0]++;
+                } else if (deadline <= stepEnd - STEP_MS) {
+                    late[0]++;
+                }
+            });
+        }
+        long advanced = System.nanoTime() - started;
+
+        if (report) {
+            Benchmarks.report(name + ", schedule", String.format(Locale.ROOT, "%.0f ns per timer", (double) scheduled / timers));
+            Benchmarks.report(name + ", cancel + reschedule",
+                    String.format(Locale.ROOT, "%.0f ns per timer", (double) moved / (timers / 10)));
+            Benchmarks.report(name + ", advance 7 days", String.format(Locale.ROOT, "%.0f ms, %.0f ns per fired timer",
+                    advanced / 1e6, (double) advanced / timers));
+            Benchmarks.report(name + ", heap", bytesPerTimer + " bytes per timer");
+        }
+        assertThat(fired[0]).isEqualTo(timers);
+        assertThat(early[0]).isZero();
+        assertThat(late[0]).isZero();
+        assertThat(wheel.size()).isZero();
+        assertThat(bytesPerTimer).isLessThan(MAX_BYTES_PER_TIMER);
+    }
+
+    // Deadlines spread over the horizon; moved timers go to another point of it
+    private static long deadline(long id, boolean moved) {
+        long offset = (id * (moved ? 104_729L : 7_919L)) % HORIZON_MS;
+        return START_MS + TICK_MS + offset;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,105 @@
+package com.giftidea.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primaryDataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource replicaDataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", "");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        // Each database says which one it is; the replica also has a fresh heartbeat
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.execute("CREATE TABLE node (name VARCHAR(16))");
+            database.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP NOT NULL)");
+        }
+        primary.update("INSERT INTO node VALUES ('primary')");
+        replica.update("INSERT INTO node VALUES ('replica')");
+        replica.update("INSERT INTO replica_heartbeat VALUES (1, ?)", new Timestamp(System.currentTimeMillis()));
+
+        lagMonitor = new ReplicaLagMonitor(primary, replica, 60_000);
+        lagMonitor.heartbeat();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                lagMonitor, 60_000, new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        routed = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+        primary.execute("DROP ALL OBJECTS");
+        replica.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void readOnlyTransactionGoesToTheReplica() {
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void readsAfterACommittedWriteGoToThePrimary() {
+        readWrite.executeWithoutResult(status -> routed.update("UPDATE node SET name = name"));
+
+        assertThat(readOnlyRead()).isEqualTo("primary");
+        ReadYourWrites.clear();
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPin() {
+        readWrite.executeWithoutResult(status -> {
+            routed.update("UPDATE node SET name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void connectionOutsideATransactionUsesThePrimaryWithoutPinning() {
+        assertThat(routed.queryForObject("SELECT name FROM node", String.class)).isEqualTo("primary");
+
+        assertThat(readOnlyRead()).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() {
+        replica.update("UPDATE replica_heartbeat SET beat_at = ?", new Timestamp(System.currentTimeMillis() - 120_000));
+        lagMonitor.heartbeat();
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(readOnlyRead()).isEqualTo("primary");
+    }
+
+    private String readOnlyRead() {
+        return readOnly.execute(status -> routed.queryForObject("SELECT name FROM node", String.class));
+    }
+}
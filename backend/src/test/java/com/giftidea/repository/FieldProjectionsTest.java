@@ -0,0 +1,135 @@
+package com.giftidea.repository;
+
+import com.giftidea.model.CartItem;
+import com.giftidea.model.Gift;
+import com.giftidea.model.Product;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.giftidea.repository.FieldProjectionsTest$CapturingInspector")
+class FieldProjectionsTest {
+
+    @Autowired
+    private GiftRepository giftRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @BeforeEach
+    void setUp() {
+        Gift gift = new Gift();
+        gift.setName("Турка");
+        gift.setDescription("Медная турка ручной работы");
+        gift.setCategory("Кухня");
+        gift.setPrice(2500.0);
+        gift.setImageUrl("/images/turka.jpg");
+        giftRepository.saveAndFlush(gift);
+        CapturingInspector.clear();
+    }
+
+    @Test
+    void selectsOnlyRequestedColumnsPlusId() {
+        List<Map<String, Object>> rows = giftRepository.findFields(List.of("name", "price"), null);
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "name", "price").containsEntry("price", 2500.0);
+        assertThat(selectedColumns(CapturingInspector.lastSelect())).containsExactly("id", "name", "price");
+    }
+
+    @Test
+    void selectsAssociationColumnsThroughOneJoin() {
+        Product product = new Product();
+        product.setName("Чайник");
+        product.setDescription("Чугунный чайник");
+        product.setPrice(BigDecimal.valueOf(4200));
+        productRepository.saveAndFlush(product);
+        CartItem item = new CartItem();
+        item.setUserId("u1");
+        item.setProduct(product);
+        item.setQuantity(2);
+        cartItemRepository.saveAndFlush(item);
+        CapturingInspector.clear();
+
+        List<Map<String, Object>> rows = cartItemRepository.findFields(List.of("quantity", "product.name"),
+                (root, query, cb) -> cb.equal(root.get("userId"), "u1"));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "quantity", "product")
+                .containsEntry("product", Map.of("name", "Чайник"));
+        String sql = CapturingInspector.lastSelect();
+        assertThat(selectedColumns(sql)).containsExactly("id", "quantity", "name");
+        assertThat(sql).containsIgnoringCase("left join products");
+    }
+
+    @Test
+    void rejectsUnknownFieldWithoutQuerying() {
+        assertThatThrownBy(() -> FieldProjections.query(() -> giftRepository.findFields(List.of("secret"), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("secret");
+        assertThat(CapturingInspector.selects()).isEmpty();
+    }
+
+    // Column names of the select list, without table aliases: "select g1_0.id,g1_0.name from ..." -> [id, name]
+    private static List<String> selectedColumns(String sql) {
+        String lower = sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        String list = lower.substring(lower.indexOf("select ") + "select ".length(), lower.indexOf(" from "));
+        return Arrays.stream(list.split(","))
+                .map(String::trim)
+                .map(column -> column.substring(column.indexOf('.') + 1))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Records every statement Hibernate sends, registered through the statement_inspector property.
+     */
+    public static class CapturingInspector implements StatementInspector {
+
+        private static final List<String> statements = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (statements) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (statements) {
+                statements.clear();
+            }
+        }
+
+        static List<String> selects() {
+            synchronized (statements) {
+                return statements.stream()
+                        .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                        .collect(Collectors.toList());
+            }
+        }
+
+        static String lastSelect() {
+            List<String> selects = selects();
+            assertThat(selects).isNotEmpty();
+            return selects.get(selects.size() - 1);
+        }
+    }
+}
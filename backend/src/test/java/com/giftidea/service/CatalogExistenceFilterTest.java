@@ -0,0 +1,57 @@
+package com.giftidea.service;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.repository.GiftRepository;
+import com.giftidea.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogExistenceFilterTest {
+
+    private static final CatalogChangeEvent.Entity GIFT = CatalogChangeEvent.Entity.GIFT;
+
+    private CatalogExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        GiftRepository giftRepository = mock(GiftRepository.class);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(giftRepository.findIdsAfter(eq(0L), any())).thenReturn(List.of(1L, 2L, 5L, 99L));
+        when(productRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of());
+        filter = new CatalogExistenceFilter(giftRepository, productRepository, new SimpleMeterRegistry());
+        filter.rebuild();
+    }
+
+    @Test
+    void idsUpToTheRebuiltRangeAreDefiniteMisses() {
+        assertThat(filter.isAbsent(GIFT, 3)).isTrue();
+        assertThat(filter.isAbsent(GIFT, 5)).isFalse();
+        assertThat(filter.isAbsent(GIFT, 100)).isFalse();
+    }
+
+    @Test
+    void localCreateDoesNotTurnOtherNodesNewIdsIntoMisses() {
+        // Another node created 100; this node creates 101 before that event arrives
+        filter.onCatalogChange(CatalogChangeEvent.upsert(GIFT, 101L));
+
+        assertThat(filter.isAbsent(GIFT, 100)).isFalse();
+        assertThat(filter.isAbsent(GIFT, 101)).isFalse();
+    }
+
+    @Test
+    void deletedIdBecomesAMiss() {
+        filter.onCatalogChange(new CatalogChangeEvent(GIFT, CatalogChangeEvent.Type.DELETE, List.of(2L)));
+
+        assertThat(filter.isAbsent(GIFT, 2)).isTrue();
+    }
+}
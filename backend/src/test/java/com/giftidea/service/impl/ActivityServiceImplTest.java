@@ -0,0 +1,38 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.model.ActivityEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ActivityServiceImplTest {
+
+    @Test
+    void eventsAfterShutdownAreRejectedAndCounted() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ActivityServiceImpl service = new ActivityServiceImpl();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", mock(JdbcTemplate.class));
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "bufferSize", 16);
+        ReflectionTestUtils.setField(service, "batchSize", 4);
+        ReflectionTestUtils.setField(service, "idleWaitMs", 10L);
+        ReflectionTestUtils.setField(service, "maxWaitMs", 0L);
+        service.init();
+
+        assertThat(service.record(ActivityEvent.Type.CART_ADD, "alice", 7, 1, null)).isTrue();
+        service.stop();
+
+        assertThat(service.record(ActivityEvent.Type.CART_ADD, "alice", 7, 1, null)).isFalse();
+        assertThat(events(meterRegistry, "written")).isEqualTo(1.0);
+        assertThat(events(meterRegistry, "rejected")).isEqualTo(1.0);
+        assertThat(events(meterRegistry, "published")).isEqualTo(1.0);
+    }
+
+    private static double events(SimpleMeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.get("activity.events").tag("outcome", outcome).counter().count();
+    }
+}
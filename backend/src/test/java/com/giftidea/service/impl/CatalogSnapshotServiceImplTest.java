@@ -0,0 +1,82 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.CatalogStatsDTO;
+import com.giftidea.service.PriceHistogramService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSnapshotServiceImplTest {
+
+    @TempDir
+    Path directory;
+
+    private JdbcTemplate jdbcTemplate;
+    private CatalogSnapshotServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:snapshot;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE gift (id BIGINT PRIMARY KEY, price DOUBLE, category VARCHAR(255), name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, price DOUBLE, category VARCHAR(255), name VARCHAR(255))");
+
+        service = new CatalogSnapshotServiceImpl();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "file", directory.resolve("catalog.col").toString());
+        ReflectionTestUtils.setField(service, "chunkRows", 2);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        ReflectionTestUtils.setField(service, "fetchSize", 10);
+        ReflectionTestUtils.setField(service, "bounds", new double[]{1000, 5000});
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.stop();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void exportsNullPricesAsUnknown() {
+        jdbcTemplate.update("INSERT INTO gift VALUES (1, 2000, 'Кухня', 'Турка')");
+        jdbcTemplate.update("INSERT INTO gift VALUES (2, NULL, 'Кухня', 'Ножи')");
+        jdbcTemplate.update("INSERT INTO gift VALUES (3, 4000, 'Сад', 'Лейка')");
+        jdbcTemplate.update("INSERT INTO products VALUES (1, NULL, NULL, 'Без цены')");
+
+        service.refresh();
+        CatalogStatsDTO stats = service.getStats(PriceHistogramService.Source.ALL, null, null, null, null);
+
+        assertThat(stats.scanned()).isEqualTo(4);
+        assertThat(stats.matched()).isEqualTo(4);
+        assertThat(stats.minPrice()).isEqualTo(2000.0);
+        assertThat(stats.maxPrice()).isEqualTo(4000.0);
+        assertThat(stats.averagePrice()).isEqualTo(3000.0);
+        assertThat(stats.priceBands()).extracting("count").containsExactly(0L, 2L, 0L);
+        assertThat(stats.categories()).containsEntry("кухня", 2L).containsEntry("сад", 1L);
+    }
+
+    @Test
+    void priceFilterSkipsRowsWithoutPrice() {
+        jdbcTemplate.update("INSERT INTO gift VALUES (1, 0, 'Кухня', 'Открытка')");
+        jdbcTemplate.update("INSERT INTO gift VALUES (2, NULL, 'Кухня', 'Ножи')");
+
+        service.refresh();
+        CatalogStatsDTO stats = service.getStats(PriceHistogramService.Source.GIFT, "кухня", 0.0, 100.0, null);
+
+        assertThat(stats.matched()).isEqualTo(1);
+        assertThat(stats.minPrice()).isEqualTo(0.0);
+    }
+}
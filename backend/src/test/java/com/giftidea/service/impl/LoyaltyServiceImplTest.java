@@ -0,0 +1,93 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.model.LoyaltyEvent;
+import com.giftidea.repository.LoyaltyEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+// Two ledger instances on one database, as in the cluster profile
+class LoyaltyServiceImplTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private LoyaltyServiceImpl first;
+    private LoyaltyServiceImpl second;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:loyalty;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE loyalty_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id VARCHAR(255) NOT NULL, "
+                + "points BIGINT NOT NULL, reason VARCHAR(16) NOT NULL, reference VARCHAR(100), created_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE loyalty_snapshots (user_id VARCHAR(255) PRIMARY KEY, balance BIGINT NOT NULL, "
+                + "earned BIGINT NOT NULL, as_of_event_id BIGINT NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        first = ledger(transactionTemplate);
+        second = ledger(transactionTemplate);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        first.stop();
+        second.stop();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void awardsOnBothInstancesAddUp() {
+        first.award("alice", 100, LoyaltyEvent.Reason.ADJUSTMENT, null);
+        second.award("alice", 50, LoyaltyEvent.Reason.ADJUSTMENT, null);
+
+        assertThat(second.getAccount("alice").balance()).isEqualTo(150);
+        assertThat(second.getAccount("alice").earnedTotal()).isEqualTo(150);
+        assertThat(storedBalance("alice")).isEqualTo(150);
+    }
+
+    @Test
+    void pointsCannotBeSpentOnBothInstances() {
+        first.award("alice", 100, LoyaltyEvent.Reason.ADJUSTMENT, null);
+        first.redeem("alice", 80, "order-1");
+
+        assertThatThrownBy(() -> second.redeem("alice", 80, "order-2"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not enough points");
+        assertThat(storedBalance("alice")).isEqualTo(20);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loyalty_events", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    void spendIsCheckedAgainstAwardsFromTheOtherInstance() {
+        second.award("alice", 100, LoyaltyEvent.Reason.ADJUSTMENT, null);
+
+        assertThat(first.redeem("alice", 100, "order-1").points()).isEqualTo(-100);
+        assertThat(storedBalance("alice")).isZero();
+    }
+
+    private long storedBalance(String userId) {
+        return jdbcTemplate.queryForObject("SELECT balance FROM loyalty_snapshots WHERE user_id = ?", Long.class, userId);
+    }
+
+    private LoyaltyServiceImpl ledger(TransactionTemplate transactionTemplate) {
+        LoyaltyServiceImpl service = new LoyaltyServiceImpl();
+        ReflectionTestUtils.setField(service, "eventRepository", mock(LoyaltyEventRepository.class));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 100);
+        ReflectionTestUtils.setField(service, "queueCapacity", 100);
+        ReflectionTestUtils.setField(service, "writeTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(service, "refreshIntervalMs", 60_000L);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,85 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.event.CatalogChangeEvent;
+import com.giftidea.event.CatalogEventMessage;
+import com.giftidea.model.CatalogOutboxEvent;
+import com.giftidea.repository.CatalogOutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxCatalogEventTransportTest {
+
+    private CatalogOutboxEventRepository outboxRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxCatalogEventTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(CatalogOutboxEventRepository.class);
+        CatalogChangeLog changeLog = mock(CatalogChangeLog.class);
+        when(changeLog.nodeId()).thenReturn("node-a");
+        meterRegistry = new SimpleMeterRegistry();
+        transport = new OutboxCatalogEventTransport();
+        ReflectionTestUtils.setField(transport, "outboxRepository", outboxRepository);
+        ReflectionTestUtils.setField(transport, "changeLog", changeLog);
+        ReflectionTestUtils.setField(transport, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(transport, "gapTimeoutMs", 0L);
+        transport.init();
+
+        // Version 1 is allocated but not committed yet when version 2 becomes visible
+        when(outboxRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(row(2, 20)));
+        when(outboxRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void lateCommitBelowTheWatermarkIsStillDelivered() {
+        ReflectionTestUtils.setField(transport, "gapRecheckMs", 60_000L);
+
+        assertThat(transport.receive(10)).extracting(CatalogEventMessage::version).containsExactly(2L);
+        // The gap times out and the watermark moves past version 1
+        assertThat(transport.receive(10)).isEmpty();
+
+        when(outboxRepository.findByIdInOrderByIdAsc(anyCollection())).thenReturn(List.of(row(1, 10)));
+        assertThat(transport.receive(10)).extracting(CatalogEventMessage::entityId).containsExactly(10L);
+        assertThat(gaps("recovered")).isEqualTo(1.0);
+        assertThat(transport.receive(10)).isEmpty();
+    }
+
+    @Test
+    void gapThatNeverFillsIsCountedAfterTheRecheckWindow() {
+        ReflectionTestUtils.setField(transport, "gapRecheckMs", 0L);
+        when(outboxRepository.findByIdInOrderByIdAsc(anyCollection())).thenReturn(List.of());
+
+        transport.receive(10);
+        transport.receive(10);
+        transport.receive(10);
+
+        assertThat(gaps("expired")).isEqualTo(1.0);
+        assertThat(gaps("recovered")).isZero();
+    }
+
+    private double gaps(String outcome) {
+        return meterRegistry.get("catalog_events.gaps").tag("outcome", outcome).counter().count();
+    }
+
+    private static CatalogOutboxEvent row(long id, long entityId) {
+        CatalogOutboxEvent row = new CatalogOutboxEvent();
+        row.setId(id);
+        row.setEntity(CatalogChangeEvent.Entity.GIFT);
+        row.setType(CatalogChangeEvent.Type.UPSERT);
+        row.setEntityId(entityId);
+        row.setOrigin("node-b");
+        return row;
+    }
+}
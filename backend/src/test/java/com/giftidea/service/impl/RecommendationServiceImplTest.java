@@ -0,0 +1,94 @@
+package com.giftidea.service.impl;
+
+import com.giftidea.dto.CartLineDTO;
+import com.giftidea.dto.PurchaseLineDTO;
+import com.giftidea.dto.RecommendedProductDTO;
+import com.giftidea.event.CartChangedEvent;
+import com.giftidea.event.ReservationConfirmedEvent;
+import com.giftidea.event.ReservationCreatedEvent;
+import com.giftidea.event.ReservationReleasedEvent;
+import com.giftidea.model.StockReservation;
+import com.giftidea.repository.CartItemRepository;
+import com.giftidea.repository.StockReservationLineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecommendationServiceImplTest {
+
+    private CartItemRepository cartItemRepository;
+    private StockReservationLineRepository reservationLineRepository;
+    private RecommendationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        cartItemRepository = mock(CartItemRepository.class);
+        reservationLineRepository = mock(StockReservationLineRepository.class);
+        service = new RecommendationServiceImpl();
+        ReflectionTestUtils.setField(service, "cartItemRepository", cartItemRepository);
+        ReflectionTestUtils.setField(service, "reservationLineRepository", reservationLineRepository);
+        ReflectionTestUtils.setField(service, "topN", 20);
+        ReflectionTestUtils.setField(service, "maxBasketSize", 200);
+    }
+
+    @Test
+    void confirmedCheckoutKeepsItsPairs() {
+        cartChanged("u1", 1L, 2L);
+
+        checkout(10L, "u1", 1L, 2L);
+        service.onReservationConfirmed(new ReservationConfirmedEvent(10L, "u1", BigDecimal.TEN));
+
+        assertThat(service.getRelatedProducts(1L, 10)).containsExactly(new RecommendedProductDTO(2L, 1));
+    }
+
+    @Test
+    void releasedCheckoutIsRetracted() {
+        cartChanged("u1", 1L, 2L);
+        checkout(10L, "u1", 1L, 2L);
+
+        service.onReservationReleased(new ReservationReleasedEvent(10L, "u1"));
+
+        assertThat(service.getRelatedProducts(1L, 10)).isEmpty();
+        // A second release of the same reservation changes nothing
+        cartChanged("u2", 1L, 2L);
+        service.onReservationReleased(new ReservationReleasedEvent(10L, "u1"));
+        assertThat(service.getRelatedProducts(1L, 10)).containsExactly(new RecommendedProductDTO(2L, 1));
+    }
+
+    @Test
+    void rebuildCountsCartsAndReservations() {
+        when(cartItemRepository.findAllCartLines()).thenReturn(List.of(
+                new CartLineDTO("u1", 1L), new CartLineDTO("u1", 2L)));
+        when(reservationLineRepository.findLinesByStatus(StockReservation.Status.RESERVED)).thenReturn(List.of(
+                new PurchaseLineDTO(5L, 1L), new PurchaseLineDTO(5L, 3L)));
+        when(reservationLineRepository.findLinesByStatus(StockReservation.Status.CONFIRMED)).thenReturn(List.of(
+                new PurchaseLineDTO(3L, 1L), new PurchaseLineDTO(3L, 2L),
+                new PurchaseLineDTO(4L, 1L), new PurchaseLineDTO(4L, 2L)));
+
+        service.rebuild();
+
+        assertThat(service.getRelatedProducts(1L, 10)).containsExactly(
+                new RecommendedProductDTO(2L, 3), new RecommendedProductDTO(3L, 1));
+        // The reserved basket is still tracked and can be released after a restart
+        service.onReservationReleased(new ReservationReleasedEvent(5L, "u9"));
+        assertThat(service.getRelatedProducts(1L, 10)).containsExactly(new RecommendedProductDTO(2L, 3));
+    }
+
+    // Checkout publishes the reservation first, then clears the cart
+    private void checkout(Long reservationId, String userId, Long... productIds) {
+        service.onReservationCreated(new ReservationCreatedEvent(reservationId, userId, List.of(productIds)));
+        cartChanged(userId);
+    }
+
+    private void cartChanged(String userId, Long... productIds) {
+        when(cartItemRepository.findProductIdsByUserId(userId)).thenReturn(List.of(productIds));
+        service.onCartChanged(new CartChangedEvent(userId));
+    }
+}
@@ -0,0 +1,125 @@
+package com.giftidea.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarCatalogTest {
+
+    private static final double[] BOUNDS = {1000, 5000};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsRowsIncludingUnknownValues() throws IOException {
+        Path file = directory.resolve("catalog.col");
+        try (ColumnarCatalog.Writer writer = new ColumnarCatalog.Writer(file)) {
+            writer.add(1, (byte) 0, 1500.0, "кухня", "Турка Медная");
+            writer.add(2, (byte) 0, null, "кухня", "Набор ножей");
+            writer.add(3, (byte) 1, 0.0, null, null);
+            writer.commit();
+        }
+
+        ColumnarCatalog catalog = ColumnarCatalog.open(file);
+
+        assertThat(catalog.rows()).isEqualTo(3);
+        assertThat(catalog.id(0)).isEqualTo(1);
+        assertThat(catalog.price(0)).isEqualTo(1500.0);
+        assertThat(catalog.price(1)).isNaN();
+        assertThat(catalog.price(2)).isEqualTo(0.0);
+        assertThat(catalog.source(2)).isEqualTo((byte) 1);
+        assertThat(catalog.categoryCount()).isEqualTo(1);
+        assertThat(catalog.category(catalog.categoryCode(0))).isEqualTo("кухня");
+        assertThat(catalog.categoryCode(2)).isEqualTo(-1);
+        assertThat(catalog.categoryCode("сад")).isEqualTo(-1);
+        assertThat(catalog.nameContains(0, bytes("медн"))).isTrue();
+        assertThat(catalog.nameContains(1, bytes("медн"))).isFalse();
+        assertThat(catalog.nameContains(2, bytes("a"))).isFalse();
+    }
+
+    @Test
+    void leavesNoTempFilesBehind() throws IOException {
+        Path file = directory.resolve("catalog.col");
+        try (ColumnarCatalog.Writer writer = new ColumnarCatalog.Writer(file)) {
+            writer.add(1, (byte) 0, 10.0, "a", "x");
+            writer.commit();
+        }
+        try (ColumnarCatalog.Writer abandoned = new ColumnarCatalog.Writer(file)) {
+            abandoned.add(2, (byte) 0, 20.0, "b", "y");
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).containsExactly(file);
+        }
+        assertThat(ColumnarCatalog.open(file).rows()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = Files.write(directory.resolve("other.bin"), new byte[256]);
+
+        assertThatThrownBy(() -> ColumnarCatalog.open(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void scanLeavesUnknownPricesOutOfPriceStatistics() throws IOException {
+        Path file = directory.resolve("catalog.col");
+        try (ColumnarCatalog.Writer writer = new ColumnarCatalog.Writer(file)) {
+            writer.add(1, (byte) 0, 1500.0, "кухня", "турка");
+            writer.add(2, (byte) 0, null, "кухня", "ножи");
+            writer.add(3, (byte) 1, 6000.0, "сад", "лейка");
+            writer.commit();
+        }
+        ColumnarCatalog catalog = ColumnarCatalog.open(file);
+        ColumnarScan.Filter all = new ColumnarScan.Filter(-1, -1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, null);
+
+        ColumnarScan.Result result = ColumnarScan.scan(catalog, all, BOUNDS, 1, ForkJoinPool.commonPool());
+
+        assertThat(result.matched()).isEqualTo(3);
+        assertThat(result.priced()).isEqualTo(2);
+        assertThat(result.min()).isEqualTo(1500.0);
+        assertThat(result.max()).isEqualTo(6000.0);
+        assertThat(result.bands()).containsExactly(0, 1, 1);
+        assertThat(result.categories()[catalog.categoryCode("кухня")]).isEqualTo(2);
+    }
+
+    @Test
+    void scanAppliesEveryFilter() throws IOException {
+        Path file = directory.resolve("catalog.col");
+        try (ColumnarCatalog.Writer writer = new ColumnarCatalog.Writer(file)) {
+            for (int i = 0; i < 1000; i++) {
+                writer.add(i, (byte) (i % 2), i % 7 == 0 ? null : (double) i * 10, i % 3 == 0 ? "a" : "b",
+                        i % 5 == 0 ? "Special " + i : "plain " + i);
+            }
+            writer.commit();
+        }
+        ColumnarCatalog catalog = ColumnarCatalog.open(file);
+        ColumnarScan.Filter filter = new ColumnarScan.Filter(0, catalog.categoryCode("a"), 100, 5000, bytes("special"));
+
+        ColumnarScan.Result result = ColumnarScan.scan(catalog, filter, BOUNDS, 64, ForkJoinPool.commonPool());
+
+        long expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            double price = i * 10;
+            if (i % 2 == 0 && i % 3 == 0 && i % 7 != 0 && price >= 100 && price <= 5000 && i % 5 == 0) {
+                expected++;
+            }
+        }
+        assertThat(expected).isPositive();
+        assertThat(result.matched()).isEqualTo(expected);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,52 @@
+package com.giftidea.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactTrieTest {
+
+    private static final int NODE_BUDGET = 10_000;
+
+    @Test
+    void exactPrefixBeatsHeavierCompletionOneEditAway() {
+        CompactTrie trie = CompactTrie.builder()
+                .add("kitchen", 1, 1)
+                .add("kite", 100, 2)
+                .add("kit", 50, 3)
+                .build();
+
+        List<CompactTrie.Match> matches = trie.search("kitc", 1, 3, NODE_BUDGET);
+
+        assertThat(matches).extracting(CompactTrie.Match::payload).containsExactly(1, 2, 3);
+        assertThat(matches.get(0).distance()).isZero();
+        assertThat(trie.search("kitc", 1, 1, NODE_BUDGET))
+                .containsExactly(new CompactTrie.Match(1, 1, 0));
+    }
+
+    @Test
+    void typoMatchesWithinMaxEdits() {
+        CompactTrie trie = CompactTrie.builder()
+                .add("candle", 5, 1)
+                .add("camera", 7, 2)
+                .build();
+
+        assertThat(trie.search("cendl", 1, 5, NODE_BUDGET))
+                .containsExactly(new CompactTrie.Match(1, 5, 1));
+        assertThat(trie.search("cendl", 0, 5, NODE_BUDGET)).isEmpty();
+    }
+
+    @Test
+    void emptyPrefixReturnsHeaviestKeys() {
+        CompactTrie trie = CompactTrie.builder()
+                .add("a", 1, 1)
+                .add("b", 3, 2)
+                .add("c", 2, 3)
+                .build();
+
+        assertThat(trie.search("", 0, 2, NODE_BUDGET)).extracting(CompactTrie.Match::payload)
+                .containsExactly(2, 3);
+    }
+}
@@ -0,0 +1,161 @@
+package com.giftidea.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConstrainedDerangementTest {
+
+    private static final ConstrainedDerangement.Constraint ANY = (giver, receiver) -> true;
+
+    @Test
+    void withoutTeamsBuildsSingleCycle() {
+        int[] teams = new int[1000];
+
+        ConstrainedDerangement.Result result = ConstrainedDerangement.solve(teams, ANY, new SplittableRandom(1), 10);
+
+        assertValid(teams, ANY, result.receivers());
+        assertThat(result.strategy()).isEqualTo(ConstrainedDerangement.Strategy.TEAM_ROTATION);
+        int length = 0;
+        int current = 0;
+        do {
+            current = result.receivers()[current];
+            length++;
+        } while (current != 0);
+        assertThat(length).isEqualTo(teams.length);
+    }
+
+    @Test
+    void keepsTeamsApart() {
+        int[] teams = new int[30];
+        for (int i = 0; i < teams.length; i++) {
+            teams[i] = i % 3 + 1;
+        }
+
+        for (long seed = 0; seed < 50; seed++) {
+            assertValid(teams, ANY, ConstrainedDerangement.solve(teams, ANY, new SplittableRandom(seed), 10).receivers());
+        }
+    }
+
+    @Test
+    void acceptsTeamOfExactlyHalf() {
+        int[] teams = new int[10];
+        for (int i = 0; i < 5; i++) {
+            teams[i] = 1;
+        }
+
+        int[] receivers = ConstrainedDerangement.solve(teams, ANY, new SplittableRandom(7), 10).receivers();
+
+        assertValid(teams, ANY, receivers);
+        for (int giver = 0; giver < 5; giver++) {
+            assertThat(receivers[giver]).isGreaterThanOrEqualTo(5);
+        }
+    }
+
+    @Test
+    void rejectsTeamOfMoreThanHalfUpFront() {
+        int[] teams = new int[11];
+        for (int i = 0; i < 6; i++) {
+            teams[i] = 1;
+        }
+        ConstrainedDerangement.Constraint neverCalled = (giver, receiver) -> {
+            throw new AssertionError("constraint checked for an infeasible group");
+        };
+
+        assertThatThrownBy(() -> ConstrainedDerangement.solve(teams, neverCalled, new SplittableRandom(1), 10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("6 out of 11");
+    }
+
+    @Test
+    void rejectsSingleParticipant() {
+        assertThatThrownBy(() -> ConstrainedDerangement.solve(new int[1], ANY, new SplittableRandom(1), 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void repairsEdgesBrokenByExclusions() {
+        // Everyone excludes the next two ids, so no plain rotation over ids survives
+        int n = 200;
+        int[] teams = new int[n];
+        ConstrainedDerangement.Constraint constraint =
+                (giver, receiver) -> receiver != (giver + 1) % n && receiver != (giver + 2) % n;
+
+        for (long seed = 0; seed < 20; seed++) {
+            assertValid(teams, constraint,
+                    ConstrainedDerangement.solve(teams, constraint, new SplittableRandom(seed), 1).receivers());
+        }
+    }
+
+    @Test
+    void repairsWhenOnlyOneReceiverIsLeft() {
+        // Giver 0 may only give to 1, whatever the rotation picks
+        int[] teams = new int[50];
+        ConstrainedDerangement.Constraint constraint = (giver, receiver) -> giver != 0 || receiver == 1;
+
+        ConstrainedDerangement.Result result = ConstrainedDerangement.solve(teams, constraint, new SplittableRandom(3), 1);
+
+        assertValid(teams, constraint, result.receivers());
+        assertThat(result.receivers()[0]).isEqualTo(1);
+    }
+
+    @Test
+    void reportsExclusionsWithoutAnyAssignment() {
+        // Nobody may give to participant 0
+        int[] teams = new int[20];
+        ConstrainedDerangement.Constraint constraint = (giver, receiver) -> receiver != 0;
+
+        assertThatThrownBy(() -> ConstrainedDerangement.solve(teams, constraint, new SplittableRandom(1), 3))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("exclusion");
+    }
+
+    @Test
+    void handlesHalfSizeDepartmentAtScale() {
+        // One department of half the company, everyone else in no team, plus sparse exclusions
+        int n = 100_000;
+        int[] teams = new int[n];
+        for (int i = 0; i < n / 2; i++) {
+            teams[i] = 1;
+        }
+        Set<Long> excluded = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 2_000; i++) {
+            excluded.add(pack(random.nextInt(n), random.nextInt(n)));
+        }
+        ConstrainedDerangement.Constraint constraint = (giver, receiver) -> !excluded.contains(pack(giver, receiver));
+
+        long started = System.nanoTime();
+        int[] receivers = ConstrainedDerangement.solve(teams, constraint, new SplittableRandom(5), 10).receivers();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        assertValid(teams, constraint, receivers);
+        // The old matching took minutes here; a generous bound keeps slow CI machines green
+        assertThat(elapsedMs).isLessThan(5_000);
+    }
+
+    private static void assertValid(int[] teams, ConstrainedDerangement.Constraint constraint, int[] receivers) {
+        int n = teams.length;
+        assertThat(receivers).hasSize(n);
+        boolean[] received = new boolean[n];
+        for (int giver = 0; giver < n; giver++) {
+            int receiver = receivers[giver];
+            assertThat(receiver).isNotEqualTo(giver);
+            assertThat(received[receiver]).as("receiver %d assigned twice", receiver).isFalse();
+            received[receiver] = true;
+            if (teams[giver] != 0) {
+                assertThat(teams[receiver]).isNotEqualTo(teams[giver]);
+            }
+            assertThat(constraint.allowed(giver, receiver)).isTrue();
+        }
+    }
+
+    private static long pack(int giver, int receiver) {
+        return ((long) giver << 32) | receiver;
+    }
+}
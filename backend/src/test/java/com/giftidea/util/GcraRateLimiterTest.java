@@ -0,0 +1,51 @@
+package com.giftidea.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GcraRateLimiterTest {
+
+    private static final GcraRateLimiter.Limit LIMIT = GcraRateLimiter.Limit.of("api|ip", 2, 1.0);
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void allowsBurstThenRefills() {
+        GcraRateLimiter limiter = new GcraRateLimiter(10);
+
+        assertThat(limiter.tryAcquire("a", LIMIT, 0)).isZero();
+        assertThat(limiter.tryAcquire("a", LIMIT, 0)).isZero();
+        assertThat(limiter.tryAcquire("a", LIMIT, 0)).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("a", LIMIT, SECOND)).isZero();
+    }
+
+    @Test
+    void fullMapLetsNewKeysThroughUntracked() {
+        GcraRateLimiter limiter = new GcraRateLimiter(2);
+        // Two rotating keys exhaust their buckets and fill the map
+        for (String key : new String[]{"x1", "x2"}) {
+            limiter.tryAcquire(key, LIMIT, 0);
+            limiter.tryAcquire(key, LIMIT, 0);
+        }
+
+        // New clients are not throttled together, and the known keys stay limited
+        assertThat(limiter.tryAcquire("client1", LIMIT, 0)).isZero();
+        assertThat(limiter.tryAcquire("client2", LIMIT, 0)).isZero();
+        assertThat(limiter.tryAcquire("client2", LIMIT, 0)).isZero();
+        assertThat(limiter.tryAcquire("x1", LIMIT, 0)).isPositive();
+        assertThat(limiter.size()).isEqualTo(2);
+        assertThat(limiter.untracked()).isEqualTo(3);
+    }
+
+    @Test
+    void fullMapEvictsRefilledKeysForNewOnes() {
+        GcraRateLimiter limiter = new GcraRateLimiter(1);
+        limiter.tryAcquire("old", LIMIT, 0);
+
+        assertThat(limiter.tryAcquire("new", LIMIT, 2 * SECOND)).isZero();
+        limiter.tryAcquire("new", LIMIT, 2 * SECOND);
+
+        assertThat(limiter.tryAcquire("new", LIMIT, 2 * SECOND)).isPositive();
+        assertThat(limiter.untracked()).isZero();
+    }
+}